@@ -0,0 +1,43 @@
+package com.university.eventmanagement.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Runs the benchmarks with the GC profiler (allocation rate) and writes the
+ * results as JSON to benchmark-results/, one file per run, so runs from
+ * different commits can be compared.
+ *
+ * Usage: java -jar benchmarks/target/benchmarks.jar [regex] [label]
+ *   regex  which benchmarks to run (default: all)
+ *   label  added to the file name, e.g. the commit hash
+ * Any other JMH option can be used by running org.openjdk.jmh.Main instead.
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : "com.university.eventmanagement.benchmarks.*";
+        String label = args.length > 1 ? "-" + args[1] : "";
+
+        File resultsDir = new File("benchmark-results");
+        resultsDir.mkdirs();
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        File results = new File(resultsDir, "jmh-" + stamp + label + ".json");
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(results.getPath());
+
+        new Runner(options.build()).run();
+        System.out.println("Results written to " + results.getPath());
+    }
+}
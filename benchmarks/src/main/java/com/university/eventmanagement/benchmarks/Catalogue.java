@@ -0,0 +1,63 @@
+package com.university.eventmanagement.benchmarks;
+
+import com.university.eventmanagement.Event;
+import com.university.eventmanagement.Participant;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic event catalogues for the benchmarks.
+ * Shapes are written "events x participants per event", e.g. "100000x10".
+ * A fixed seed keeps every run (and every commit) measuring the same data.
+ */
+final class Catalogue {
+    private static final String[] WORDS = {"AI", "Workshop", "Cultural", "Show", "Seminar", "Blockchain",
+            "Career", "Fair", "Robotics", "Hackathon", "Music", "Night", "Research", "Symposium", "Sports",
+            "Day", "Orientation", "Alumni", "Talk", "Design"};
+    private static final LocalDate FIRST_DAY = LocalDate.now().minusYears(1);
+
+    private Catalogue() {
+    }
+
+    static int events(String shape) {
+        return Integer.parseInt(shape.substring(0, shape.indexOf('x')));
+    }
+
+    static int participants(String shape) {
+        return Integer.parseInt(shape.substring(shape.indexOf('x') + 1));
+    }
+
+    static List<Event> generate(String shape) {
+        return generate(events(shape), participants(shape), 42L);
+    }
+
+    static List<Event> generate(int eventCount, int participantsPerEvent, long seed) {
+        Random random = new Random(seed);
+        List<Event> events = new ArrayList<>(eventCount);
+        for (int i = 0; i < eventCount; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            Event event = new Event(name, FIRST_DAY.plusDays(random.nextInt(730)), venue(random), organizer(random));
+            for (int p = 0; p < participantsPerEvent; p++) {
+                event.addParticipant(new Participant("Participant " + p + "-" + random.nextInt(1000),
+                        random.nextBoolean() ? Participant.Type.STUDENT : Participant.Type.STAFF));
+            }
+            events.add(event);
+        }
+        return events;
+    }
+
+    static String venue(Random random) {
+        return "Hall " + random.nextInt(200);
+    }
+
+    static String organizer(Random random) {
+        return "Dr. Organizer " + random.nextInt(300);
+    }
+
+    static LocalDate date(Random random) {
+        return FIRST_DAY.plusDays(random.nextInt(730));
+    }
+}
@@ -0,0 +1,93 @@
+package com.university.eventmanagement.benchmarks;
+
+import com.university.eventmanagement.EventBus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publishing to several subscribers through the ring-buffer EventBus, and
+ * through a SubmissionPublisher (what DataManager's change feed used before).
+ * Subscribers only count, so this measures the hand-over itself; when they
+ * fall behind, publishers wait in both.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventBusBenchmark {
+
+    @Param({"1", "3"})
+    public int subscribers;
+
+    private static final Long ITEM = 42L;
+
+    private EventBus<Long> bus;
+    private SubmissionPublisher<Long> publisher;
+    private ExecutorService publisherThreads;
+    private final LongAdder received = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bus = new EventBus<>(8192);
+        publisherThreads = Executors.newFixedThreadPool(subscribers);
+        publisher = new SubmissionPublisher<>(publisherThreads, 8192);
+        for (int i = 0; i < subscribers; i++) {
+            bus.subscribe("bench-" + i, batch -> received.add(batch.size()));
+            publisher.subscribe(new Flow.Subscriber<Long>() {
+                @Override public void onSubscribe(Flow.Subscription subscription) { subscription.request(Long.MAX_VALUE); }
+                @Override public void onNext(Long item) { received.increment(); }
+                @Override public void onError(Throwable error) { }
+                @Override public void onComplete() { }
+            });
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        publisher.close();
+        publisherThreads.shutdown();
+    }
+
+    @Benchmark
+    public void busPublish() {
+        bus.publish(ITEM);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void busPublishContended() {
+        bus.publish(ITEM);
+    }
+
+    @Benchmark
+    public void submissionPublisher() {
+        publisher.submit(ITEM);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void submissionPublisherContended() {
+        publisher.submit(ITEM);
+    }
+}
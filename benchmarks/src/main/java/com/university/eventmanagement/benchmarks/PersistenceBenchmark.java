@@ -0,0 +1,105 @@
+package com.university.eventmanagement.benchmarks;
+
+import com.university.eventmanagement.CsvExporter;
+import com.university.eventmanagement.DatabaseManager;
+import com.university.eventmanagement.Event;
+import com.university.eventmanagement.EventSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load, save and export paths of DatabaseManager and the binary snapshot,
+ * each against a catalogue written to a temporary directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class PersistenceBenchmark {
+
+    @Param({"1000x0", "1000x10000", "100000x10", "1000000x0"})
+    public String catalogue;
+
+    private List<Event> events;
+    private File dir;
+    private File snapshotFile;
+    private File textFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        events = Catalogue.generate(catalogue);
+        dir = Files.createTempDirectory("event-bench").toFile();
+        snapshotFile = new File(dir, "events.snap");
+        textFile = new File(dir, "events.txt");
+        EventSnapshot.write(events, snapshotFile);
+        DatabaseManager.exportEvents(events, textFile.getPath());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (var files = Files.walk(dir.toPath())) {
+            files.sorted(Comparator.reverseOrder()).map(java.nio.file.Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public void saveSnapshot() throws IOException {
+        EventSnapshot.write(events, new File(dir, "save.snap"));
+    }
+
+    @Benchmark
+    public int openSnapshot() throws IOException {
+        // What startup pays: header only, events decoded later
+        return EventSnapshot.open(snapshotFile).asList().size();
+    }
+
+    @Benchmark
+    public void loadSnapshotFully(Blackhole bh) throws IOException {
+        for (Event event : EventSnapshot.open(snapshotFile).asList()) {
+            bh.consume(event);
+        }
+    }
+
+    @Benchmark
+    public List<Event> importText() {
+        return DatabaseManager.importEvents(textFile.getPath());
+    }
+
+    @Benchmark
+    public boolean exportText() {
+        return DatabaseManager.exportEvents(events, new File(dir, "export.txt").getPath());
+    }
+
+    @Benchmark
+    public boolean exportCsv() {
+        return DatabaseManager.exportToCSV(events, new File(dir, "export.csv").getPath());
+    }
+
+    @Benchmark
+    public boolean exportCsvPerParticipantGzip() {
+        CsvExporter exporter = new CsvExporter(List.of(CsvExporter.Column.EVENT_ID, CsvExporter.Column.NAME,
+                CsvExporter.Column.DATE, CsvExporter.Column.PARTICIPANT)).perParticipant(true).gzip(true);
+        return DatabaseManager.exportToCSV(events, new File(dir, "participants.csv").getPath(), exporter);
+    }
+}
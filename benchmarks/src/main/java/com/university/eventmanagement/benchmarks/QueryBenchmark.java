@@ -0,0 +1,114 @@
+package com.university.eventmanagement.benchmarks;
+
+import com.university.eventmanagement.Event;
+import com.university.eventmanagement.EventIndex;
+import com.university.eventmanagement.SearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conflict check, venue bookings and search-box filtering, indexed and by
+ * full scan (the scans are what DataManager and MainFrame used to do).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class QueryBenchmark {
+
+    @Param({"1000x0", "100000x0", "1000000x0"})
+    public String catalogue;
+
+    @Param({"hall 1", "symposium", "zz"})
+    public String query;
+
+    private List<Event> events;
+    private EventIndex index;
+    private SearchIndex searchIndex;
+    private final Random random = new Random(7);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        events = Catalogue.generate(catalogue);
+        index = new EventIndex(events);
+        searchIndex = new SearchIndex(events);
+    }
+
+    @Benchmark
+    public List<Event> conflictCheckIndexed() {
+        return index.getConflicting(Catalogue.date(random), Catalogue.venue(random));
+    }
+
+    @Benchmark
+    public List<Event> conflictCheckScan() {
+        LocalDate date = Catalogue.date(random);
+        String venue = Catalogue.venue(random);
+        return events.stream()
+                .filter(e -> e.getDate().equals(date) && e.getVenue().equalsIgnoreCase(venue))
+                .toList();
+    }
+
+    @Benchmark
+    public List<Event> weekOfBookingsIndexed() {
+        LocalDate from = Catalogue.date(random);
+        return index.getBookings(Catalogue.venue(random), from.atStartOfDay(), from.plusWeeks(1).atStartOfDay());
+    }
+
+    @Benchmark
+    public List<String> freeVenuesIndexed() {
+        LocalDate day = Catalogue.date(random);
+        return index.getFreeVenues(day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+    }
+
+    @Benchmark
+    public int[] searchIndexed() {
+        return searchIndex.search(query);
+    }
+
+    @Benchmark
+    public int[] filterTableIndexed() {
+        // Same steps as MainFrame.filterTable with the "Upcoming" status selected
+        int[] ids = searchIndex.search(query);
+        LocalDate today = LocalDate.now();
+        int count = 0;
+        for (int id : ids) {
+            Event event = index.get(id);
+            if (event != null && event.getDate().isAfter(today)) {
+                ids[count++] = id;
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    @Benchmark
+    public int filterTableScan() {
+        String q = query.toLowerCase();
+        LocalDate today = LocalDate.now();
+        int count = 0;
+        for (Event event : events) {
+            boolean qOk = event.getEventName().toLowerCase().contains(q) ||
+                    event.getVenue().toLowerCase().contains(q) ||
+                    event.getOrganizer().toLowerCase().contains(q);
+            if (qOk && event.getDate().isAfter(today)) count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,452 @@
+package com.university.eventmanagement;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Incremental, deduplicated backups of the data directory.
+ *
+ * Each store file is cut into content-defined chunks (a rolling hash picks
+ * the cut points, so an insert only changes the chunks around it) and each
+ * chunk is stored once under its SHA-256 in backups/chunks. A backup is a
+ * small manifest in backups/snapshots naming the chunks of every file, so a
+ * backup costs only the chunks that are new since the last one. Files whose
+ * size and modification time match the previous backup are not even read.
+ * New chunks are copied with FileChannel.transferTo.
+ *
+ * Restore checks every chunk and every whole file against its hash before
+ * anything is moved into place.
+ *
+ * Manifest format (one per line):
+ *   BACKUP|Version|Created
+ *   FILE|Name|Size|LastModified|SHA-256
+ *   CHUNK|SHA-256|Length        (chunks of the FILE above, in order)
+ */
+public class BackupManager {
+    private static final int VERSION = 1;
+    private static final String[] STORE_FILES = {"events.snap", "events.log", "events.log.compacting", "users.txt"};
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final String MANIFEST_SUFFIX = ".manifest";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    // Chunk sizes: a cut is made where the rolling hash has its low 16 bits zero (about every 64KB)
+    private static final int MIN_CHUNK = 16 * 1024;
+    private static final int MAX_CHUNK = 256 * 1024;
+    private static final long CUT_MASK = (1 << 16) - 1;
+    private static final long[] GEAR = new long[256];
+
+    static {
+        // Fixed seed: cut points must be the same in every run for chunks to match
+        Random random = new Random(0x4556_4E54L);
+        for (int i = 0; i < GEAR.length; i++) {
+            GEAR[i] = random.nextLong();
+        }
+    }
+
+    private final File dataDir;
+    private final File chunkDir;
+    private final File snapshotDir;
+
+    public BackupManager(File dataDir) {
+        this.dataDir = dataDir;
+        File backupDir = new File(dataDir, "backups");
+        this.chunkDir = new File(backupDir, "chunks");
+        this.snapshotDir = new File(backupDir, "snapshots");
+    }
+
+    /**
+     * Back up the store files; returns the new backup's name.
+     * Nothing else may write the store files meanwhile (DataManager runs this on its writer thread).
+     */
+    public String backup() throws IOException {
+        chunkDir.mkdirs();
+        snapshotDir.mkdirs();
+        Map<String, FileEntry> previous = new HashMap<>();
+        List<String> names = listBackups();
+        if (!names.isEmpty()) {
+            for (FileEntry entry : readManifest(names.get(names.size() - 1))) {
+                previous.put(entry.name, entry);
+            }
+        }
+
+        List<FileEntry> entries = new ArrayList<>();
+        for (String fileName : STORE_FILES) {
+            File file = new File(dataDir, fileName);
+            if (!file.isFile()) continue;
+            FileEntry last = previous.get(fileName);
+            if (last != null && last.size == file.length() && last.lastModified == file.lastModified()
+                    && chunksExist(last)) {
+                entries.add(last);   // unchanged since the last backup
+            } else {
+                entries.add(store(file));
+            }
+        }
+
+        String name = newBackupName();
+        writeManifest(name, entries);
+        System.out.println("Backup created: " + name);
+        return name;
+    }
+
+    private String newBackupName() {
+        String base = LocalDateTime.now().format(NAME_FORMAT);
+        String name = base;
+        // Several backups in one second get -1, -2, ... rather than replacing each other
+        for (int i = 1; new File(snapshotDir, name + MANIFEST_SUFFIX).exists(); i++) {
+            name = base + "-" + i;
+        }
+        return name;
+    }
+
+    /**
+     * Chunk a file and copy the chunks not stored yet
+     */
+    private FileEntry store(File file) throws IOException {
+        long lastModified = file.lastModified();
+        MessageDigest fileDigest = sha256();
+        MessageDigest chunkDigest = sha256();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            FileEntry entry = new FileEntry(file.getName(), size, lastModified);
+            long position = 0;
+            // Read rather than mapped: a mapping would keep the data files locked on Windows
+            // after the backup, so the snapshot could not be replaced nor the log truncated
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(size, 64L * MAX_CHUNK));
+            while (position < size) {
+                // A window at a time so files over 2GB work too
+                int window = (int) Math.min(size - position, buffer.capacity());
+                buffer.clear().limit(window);
+                while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) >= 0) {
+                    // keep reading until the window is full
+                }
+                int start = 0;
+                while (start < window) {
+                    int length = nextCut(buffer, start, window, position + window == size);
+                    if (length == 0) break;   // rest of the window belongs with the next one
+                    ByteBuffer chunk = buffer.slice(start, length);
+                    fileDigest.update(chunk.duplicate());
+                    chunkDigest.update(chunk);
+                    String hash = hex(chunkDigest.digest());
+                    storeChunk(channel, position + start, length, hash);
+                    entry.chunks.add(new Chunk(hash, length));
+                    start += length;
+                }
+                position += start;
+            }
+            entry.hash = hex(fileDigest.digest());
+            return entry;
+        }
+    }
+
+    /**
+     * Length of the chunk starting at 'start', or 0 if the window may end mid-chunk
+     */
+    private static int nextCut(ByteBuffer buffer, int start, int limit, boolean endOfFile) {
+        long hash = 0;
+        int end = Math.min(limit, start + MAX_CHUNK);
+        for (int i = start; i < end; i++) {
+            hash = (hash << 1) + GEAR[buffer.get(i) & 0xFF];
+            if (i + 1 - start >= MIN_CHUNK && (hash & CUT_MASK) == 0) return i + 1 - start;
+        }
+        return end - start == MAX_CHUNK || endOfFile ? end - start : 0;
+    }
+
+    private void storeChunk(FileChannel source, long position, int length, String hash) throws IOException {
+        File target = chunkFile(hash);
+        if (target.exists()) return;   // already backed up
+        target.getParentFile().mkdirs();
+        Path tmp = new File(target.getPath() + ".tmp").toPath();
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long done = 0;
+            while (done < length) {
+                long copied = source.transferTo(position + done, length - done, out);
+                if (copied == 0) throw new IOException("File changed during backup");
+                done += copied;
+            }
+            out.force(true);
+        }
+        Files.move(tmp, target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private File chunkFile(String hash) {
+        return new File(new File(chunkDir, hash.substring(0, 2)), hash);
+    }
+
+    private boolean chunksExist(FileEntry entry) {
+        for (Chunk chunk : entry.chunks) {
+            if (!chunkFile(chunk.hash).exists()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Backup names, oldest first
+     */
+    public List<String> listBackups() {
+        List<String> names = new ArrayList<>();
+        String[] files = snapshotDir.list();
+        if (files == null) return names;
+        for (String file : files) {
+            if (file.endsWith(MANIFEST_SUFFIX)) {
+                names.add(file.substring(0, file.length() - MANIFEST_SUFFIX.length()));
+            }
+        }
+        // yyyyMMdd-HHmmss[-n]: sorting by timestamp, then by the -n counter
+        names.sort((a, b) -> {
+            int byTime = a.substring(0, 15).compareTo(b.substring(0, 15));
+            return byTime != 0 ? byTime : Integer.compare(counter(a), counter(b));
+        });
+        return names;
+    }
+
+    private static int counter(String name) {
+        return name.length() > 16 ? Integer.parseInt(name.substring(16)) : 0;
+    }
+
+    /**
+     * Check that every chunk of a backup is present and intact.
+     * Returns the problems found; empty if the backup can be restored.
+     */
+    public List<String> verify(String name) throws IOException {
+        List<String> problems = new ArrayList<>();
+        for (FileEntry entry : readManifest(name)) {
+            MessageDigest fileDigest = sha256();
+            int before = problems.size();
+            for (Chunk chunk : entry.chunks) {
+                byte[] bytes = readChunk(chunk, problems);
+                if (bytes == null) break;
+                fileDigest.update(bytes);
+            }
+            if (problems.size() == before && !hex(fileDigest.digest()).equals(entry.hash)) {
+                problems.add(entry.name + " does not match its checksum");
+            }
+        }
+        return problems;
+    }
+
+    private byte[] readChunk(Chunk chunk, List<String> problems) throws IOException {
+        File file = chunkFile(chunk.hash);
+        if (!file.exists()) {
+            problems.add("Missing chunk " + chunk.hash);
+            return null;
+        }
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        if (bytes.length != chunk.length || !hex(sha256().digest(bytes)).equals(chunk.hash)) {
+            problems.add("Damaged chunk " + chunk.hash);
+            return null;
+        }
+        return bytes;
+    }
+
+    /**
+     * Restore a backup into a directory (for the live data directory, only while
+     * the application is not running). Every file is rebuilt and checked before
+     * any is moved into place; store files not in the backup are removed so a
+     * newer log is not replayed over an older snapshot.
+     */
+    public void restore(String name, File targetDir) throws IOException {
+        targetDir.mkdirs();
+        List<FileEntry> entries = readManifest(name);
+        List<String> problems = new ArrayList<>();
+        List<Path> restored = new ArrayList<>();
+        try {
+            for (FileEntry entry : entries) {
+                Path tmp = new File(targetDir, entry.name + ".restoring").toPath();
+                restored.add(tmp);
+                MessageDigest fileDigest = sha256();
+                try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                    for (Chunk chunk : entry.chunks) {
+                        byte[] bytes = readChunk(chunk, problems);
+                        if (bytes == null) throw new IOException("Backup " + name + " is damaged: " + problems);
+                        fileDigest.update(bytes);
+                        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                        while (buffer.hasRemaining()) {
+                            out.write(buffer);
+                        }
+                    }
+                    out.force(true);
+                }
+                if (!hex(fileDigest.digest()).equals(entry.hash)) {
+                    throw new IOException("Backup " + name + " is damaged: " + entry.name + " does not match its checksum");
+                }
+            }
+
+            Set<String> inBackup = new HashSet<>();
+            for (int i = 0; i < entries.size(); i++) {
+                inBackup.add(entries.get(i).name);
+                Files.move(restored.get(i), new File(targetDir, entries.get(i).name).toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            for (String fileName : STORE_FILES) {
+                if (!inBackup.contains(fileName)) Files.deleteIfExists(new File(targetDir, fileName).toPath());
+            }
+            restored.clear();
+            System.out.println("Restored backup " + name + " to " + targetDir);
+        } finally {
+            for (Path tmp : restored) {
+                Files.deleteIfExists(tmp);
+            }
+        }
+    }
+
+    /**
+     * Delete old backups, keeping the newest 'last', plus the newest of each of
+     * the latest 'daily' days and 'weekly' ISO weeks; then delete chunks no
+     * remaining backup uses. Returns the names deleted.
+     */
+    public List<String> prune(int last, int daily, int weekly) throws IOException {
+        List<String> names = listBackups();
+        Set<String> keep = new HashSet<>();
+        Set<LocalDate> days = new HashSet<>();
+        Set<String> weeks = new HashSet<>();
+        for (int i = names.size() - 1; i >= 0; i--) {
+            String name = names.get(i);
+            LocalDate day = LocalDate.parse(name.substring(0, 8), DateTimeFormatter.BASIC_ISO_DATE);
+            String week = day.get(IsoFields.WEEK_BASED_YEAR) + "-" + day.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+            if (names.size() - i <= last) keep.add(name);
+            if (days.size() < daily && days.add(day)) keep.add(name);
+            if (weeks.size() < weekly && weeks.add(week)) keep.add(name);
+        }
+
+        List<String> deleted = new ArrayList<>();
+        for (String name : names) {
+            if (!keep.contains(name)) {
+                Files.delete(manifestFile(name).toPath());
+                deleted.add(name);
+            }
+        }
+        if (!deleted.isEmpty()) deleteUnusedChunks();
+        return deleted;
+    }
+
+    private void deleteUnusedChunks() throws IOException {
+        Set<String> used = new HashSet<>();
+        for (String name : listBackups()) {
+            for (FileEntry entry : readManifest(name)) {
+                for (Chunk chunk : entry.chunks) {
+                    used.add(chunk.hash);
+                }
+            }
+        }
+        File[] dirs = chunkDir.listFiles(File::isDirectory);
+        if (dirs == null) return;
+        for (File dir : dirs) {
+            File[] chunks = dir.listFiles();
+            if (chunks == null) continue;
+            for (File chunk : chunks) {
+                if (!used.contains(chunk.getName())) Files.delete(chunk.toPath());
+            }
+        }
+    }
+
+    private File manifestFile(String name) {
+        return new File(snapshotDir, name + MANIFEST_SUFFIX);
+    }
+
+    private void writeManifest(String name, List<FileEntry> entries) throws IOException {
+        Path tmp = new File(snapshotDir, name + ".tmp").toPath();
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            writer.write("BACKUP|" + VERSION + "|" + LocalDateTime.now());
+            writer.newLine();
+            for (FileEntry entry : entries) {
+                writer.write("FILE|" + entry.name + "|" + entry.size + "|" + entry.lastModified + "|" + entry.hash);
+                writer.newLine();
+                for (Chunk chunk : entry.chunks) {
+                    writer.write("CHUNK|" + chunk.hash + "|" + chunk.length);
+                    writer.newLine();
+                }
+            }
+        }
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        // The manifest appears only once all its chunks are safely written
+        Files.move(tmp, manifestFile(name).toPath(), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private List<FileEntry> readManifest(String name) throws IOException {
+        List<FileEntry> entries = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(manifestFile(name).toPath(), StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            if (line == null || !line.startsWith("BACKUP|" + VERSION + "|")) {
+                throw new IOException("Not a backup manifest: " + name);
+            }
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\\|");
+                if (parts[0].equals("FILE")) {
+                    FileEntry entry = new FileEntry(parts[1], Long.parseLong(parts[2]), Long.parseLong(parts[3]));
+                    entry.hash = parts[4];
+                    entries.add(entry);
+                } else if (parts[0].equals("CHUNK") && !entries.isEmpty()) {
+                    entries.get(entries.size() - 1).chunks.add(new Chunk(parts[1], Integer.parseInt(parts[2])));
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        char[] result = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            result[2 * i] = HEX[(bytes[i] >> 4) & 0xF];
+            result[2 * i + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(result);
+    }
+
+    private static class FileEntry {
+        final String name;
+        final long size;
+        final long lastModified;
+        final List<Chunk> chunks = new ArrayList<>();
+        String hash;
+
+        FileEntry(String name, long size, long lastModified) {
+            this.name = name;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+    }
+
+    private static class Chunk {
+        final String hash;
+        final int length;
+
+        Chunk(String hash, int length) {
+            this.hash = hash;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.university.eventmanagement;
+
+import java.util.Arrays;
+
+/**
+ * A square grid of bits, each row packed into longs (bit x of a row is bit
+ * x % 64 of word x / 64), so whole rows can be masked or copied a word at a time.
+ */
+final class BitMatrix {
+    final int size;
+    final int rowWords;
+    private final long[] words;
+
+    BitMatrix(int size) {
+        this.size = size;
+        this.rowWords = (size + 63) >>> 6;
+        this.words = new long[size * rowWords];
+    }
+
+    private BitMatrix(BitMatrix other) {
+        this.size = other.size;
+        this.rowWords = other.rowWords;
+        this.words = other.words.clone();
+    }
+
+    BitMatrix copy() {
+        return new BitMatrix(this);
+    }
+
+    boolean get(int x, int y) {
+        return (words[y * rowWords + (x >>> 6)] & (1L << x)) != 0;
+    }
+
+    void set(int x, int y, boolean on) {
+        int i = y * rowWords + (x >>> 6);
+        if (on) {
+            words[i] |= 1L << x;
+        } else {
+            words[i] &= ~(1L << x);
+        }
+    }
+
+    /**
+     * Word w of row y
+     */
+    long word(int y, int w) {
+        return words[y * rowWords + w];
+    }
+
+    /**
+     * Flip the bits of row y that are set in 'bits', for word w
+     */
+    void flip(int y, int w, long bits) {
+        words[y * rowWords + w] ^= bits;
+    }
+
+    int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof BitMatrix && Arrays.equals(words, ((BitMatrix) o).words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+}
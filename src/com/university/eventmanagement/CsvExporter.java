@@ -0,0 +1,339 @@
+package com.university.eventmanagement;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams events to CSV through a FileChannel.
+ * Rows are built straight into one reusable CharBuffer and encoded into one
+ * ByteBuffer, so memory use stays the same however many rows are written and
+ * no per-row strings are created. Events are read one at a time from any
+ * Iterable, so the caller does not need them all in memory either.
+ *
+ * Options: which columns to write, one row per participant instead of per
+ * event, gzip, and splitting the output into files of at most N rows each
+ * (every file gets its own header).
+ */
+public class CsvExporter {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    public enum Column {
+        EVENT_ID("Event ID"),
+        NAME("Event Name"),
+        DATE("Date"),
+        VENUE("Venue"),
+        ORGANIZER("Organizer"),
+        PARTICIPANT_COUNT("Total Participants"),
+        PARTICIPANT("Participant"),             // only filled in per-participant mode
+        PARTICIPANT_TYPE("Participant Type"),   // only filled in per-participant mode
+        START_TIME("Start Time"),               // HH:MM, blank for all-day events
+        END_DATE("End Date"),
+        END_TIME("End Time");                   // HH:MM, blank for all-day events
+
+        private final String header;
+
+        Column(String header) {
+            this.header = header;
+        }
+    }
+
+    /**
+     * The columns exportToCSV has always written
+     */
+    public static final List<Column> DEFAULT_COLUMNS = List.of(Column.EVENT_ID, Column.NAME, Column.DATE,
+            Column.VENUE, Column.ORGANIZER, Column.PARTICIPANT_COUNT);
+
+    private final Column[] columns;
+    private boolean perParticipant;
+    private boolean gzip;
+    private long rowsPerFile;   // 0 = one file
+
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE * 3);   // worst case UTF-8
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final char[] digits = new char[11];
+    // Venues and organizers repeat, so each symbol is escaped once per exporter
+    private String[] escapedSymbols = new String[256];
+    private WritableByteChannel out;
+
+    public CsvExporter() {
+        this(DEFAULT_COLUMNS);
+    }
+
+    public CsvExporter(List<Column> columns) {
+        if (columns.isEmpty()) throw new IllegalArgumentException("No columns selected");
+        this.columns = columns.toArray(new Column[0]);
+    }
+
+    /**
+     * Write one row per participant (events without participants still get one row)
+     */
+    public CsvExporter perParticipant(boolean perParticipant) {
+        this.perParticipant = perParticipant;
+        return this;
+    }
+
+    public CsvExporter gzip(boolean gzip) {
+        this.gzip = gzip;
+        return this;
+    }
+
+    /**
+     * Start a new file after this many data rows; 0 writes a single file
+     */
+    public CsvExporter rowsPerFile(long rowsPerFile) {
+        if (rowsPerFile < 0) throw new IllegalArgumentException("rowsPerFile must not be negative");
+        this.rowsPerFile = rowsPerFile;
+        return this;
+    }
+
+    /**
+     * Export to the target file, or to target-001.csv, target-002.csv, ... when
+     * splitting. ".gz" is added to the names when gzip is on.
+     * Returns the files written, in order.
+     */
+    public List<File> export(Iterable<Event> events, File target) throws IOException {
+        List<File> files = new ArrayList<>();
+        long rowsInFile = 0;
+        try {
+            open(target, files);
+            for (Event event : events) {
+                List<Participant> participants = perParticipant ? event.getParticipants() : List.of();
+                int rows = Math.max(1, participants.size());
+                for (int r = 0; r < rows; r++) {
+                    if (rowsPerFile > 0 && rowsInFile == rowsPerFile) {
+                        close();
+                        open(target, files);
+                        rowsInFile = 0;
+                    }
+                    writeRow(event, participants.isEmpty() ? null : participants.get(r));
+                    rowsInFile++;
+                }
+            }
+        } finally {
+            close();
+        }
+        return files;
+    }
+
+    /**
+     * Export to a stream as a single file (rowsPerFile is ignored), e.g. an
+     * HTTP response. The stream is closed at the end.
+     */
+    public void export(Iterable<Event> events, OutputStream target) throws IOException {
+        try {
+            out = gzip ? Channels.newChannel(new GZIPOutputStream(target, BUFFER_SIZE)) : Channels.newChannel(target);
+            writeHeader();
+            for (Event event : events) {
+                List<Participant> participants = perParticipant ? event.getParticipants() : List.of();
+                if (participants.isEmpty()) writeRow(event, null);
+                for (Participant participant : participants) {
+                    writeRow(event, participant);
+                }
+            }
+        } finally {
+            if (out == null) target.close();
+            close();
+        }
+    }
+
+    private void open(File target, List<File> files) throws IOException {
+        File file = fileName(target, files.size() + 1);
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        out = gzip ? Channels.newChannel(new GZIPOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE))
+                : channel;
+        files.add(file);
+        writeHeader();
+    }
+
+    private void writeHeader() throws IOException {
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) put(',');
+            put(columns[i].header);
+        }
+        put('\n');
+    }
+
+    private File fileName(File target, int part) {
+        String name = target.getName();
+        if (rowsPerFile > 0) {
+            int dot = name.lastIndexOf('.');
+            String suffix = String.format("-%03d", part);
+            name = dot > 0 ? name.substring(0, dot) + suffix + name.substring(dot) : name + suffix;
+        }
+        if (gzip && !name.endsWith(".gz")) name += ".gz";
+        return new File(target.getAbsoluteFile().getParentFile(), name);
+    }
+
+    private void close() throws IOException {
+        if (out == null) return;
+        try {
+            drain(true);
+        } finally {
+            out.close();
+            out = null;
+        }
+    }
+
+    private void writeRow(Event event, Participant participant) throws IOException {
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) put(',');
+            switch (columns[i]) {
+                case EVENT_ID -> putInt(event.getEventId());
+                case NAME -> putEscaped(event.getEventName());
+                case DATE -> putDate(event.getDate());
+                case VENUE -> putSymbol(event.getVenueCode());
+                case ORGANIZER -> putSymbol(event.getOrganizerCode());
+                case PARTICIPANT_COUNT -> putInt(event.getParticipantCount());
+                case PARTICIPANT -> putEscaped(participant == null ? "" : participant.getName());
+                case PARTICIPANT_TYPE -> put(participant == null ? "" : participant.getType().toString());
+                case START_TIME -> {
+                    if (!event.isAllDay()) putTime(event.getStart().toLocalTime());
+                }
+                case END_DATE -> putDate(event.isAllDay() ? event.getEndDate() : event.getEnd().toLocalDate());
+                case END_TIME -> {
+                    if (!event.isAllDay()) putTime(event.getEnd().toLocalTime());
+                }
+            }
+        }
+        put('\n');
+    }
+
+    private void putSymbol(int code) throws IOException {
+        if (code >= escapedSymbols.length) {
+            escapedSymbols = Arrays.copyOf(escapedSymbols, Math.max(code + 1, escapedSymbols.length * 2));
+        }
+        String escaped = escapedSymbols[code];
+        if (escaped == null) {
+            String value = SymbolTable.SHARED.value(code);
+            escaped = needsQuotes(value) ? "\"" + value.replace("\"", "\"\"") + "\"" : value;
+            escapedSymbols[code] = escaped;
+        }
+        put(escaped);
+    }
+
+    private void putEscaped(String value) throws IOException {
+        if (!needsQuotes(value)) {
+            put(value);
+            return;
+        }
+        put('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') put('"');
+            put(c);
+        }
+        put('"');
+    }
+
+    // Quote values holding a comma, quote or line break; double any quotes
+    static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') return true;
+        }
+        return false;
+    }
+
+    // dd/MM/yyyy, same as DatabaseManager.DATE_FORMATTER, without building a String
+    private void putDate(LocalDate date) throws IOException {
+        putTwoDigits(date.getDayOfMonth());
+        put('/');
+        putTwoDigits(date.getMonthValue());
+        put('/');
+        int year = date.getYear();
+        if (year >= 0 && year < 1000) {
+            put(year < 10 ? "000" : year < 100 ? "00" : "0");
+        }
+        putInt(year);
+    }
+
+    private void putTime(LocalTime time) throws IOException {
+        putTwoDigits(time.getHour());
+        put(':');
+        putTwoDigits(time.getMinute());
+    }
+
+    private void putTwoDigits(int value) throws IOException {
+        put((char) ('0' + value / 10));
+        put((char) ('0' + value % 10));
+    }
+
+    private void putInt(int value) throws IOException {
+        if (value == Integer.MIN_VALUE) {
+            put(Integer.toString(value));
+            return;
+        }
+        if (value < 0) {
+            put('-');
+            value = -value;
+        }
+        int pos = digits.length;
+        do {
+            digits[--pos] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        if (chars.remaining() < digits.length - pos) drain(false);
+        chars.put(digits, pos, digits.length - pos);
+    }
+
+    private void put(char c) throws IOException {
+        if (!chars.hasRemaining()) drain(false);
+        chars.put(c);
+    }
+
+    private void put(String s) throws IOException {
+        int start = 0;
+        while (start < s.length()) {
+            if (!chars.hasRemaining()) drain(false);
+            int end = Math.min(s.length(), start + chars.remaining());
+            chars.put(s, start, end);
+            start = end;
+        }
+    }
+
+    /**
+     * Encode what is in the char buffer and write it out
+     */
+    private void drain(boolean endOfInput) throws IOException {
+        chars.flip();
+        CoderResult result;
+        do {
+            result = encoder.encode(chars, bytes, endOfInput);
+            if (result.isError()) result.throwException();
+            writeBytes();
+        } while (result.isOverflow());
+        if (endOfInput) {
+            encoder.flush(bytes);
+            writeBytes();
+            encoder.reset();
+        }
+        // A surrogate pair split across the buffer boundary stays for next time
+        chars.compact();
+    }
+
+    private void writeBytes() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            out.write(bytes);
+        }
+        bytes.clear();
+    }
+}
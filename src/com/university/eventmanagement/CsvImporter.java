@@ -0,0 +1,486 @@
+package com.university.eventmanagement;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Bulk import of events from a CSV file, e.g. a registrar spreadsheet.
+ *
+ * The file is memory-mapped and cut into ranges at row boundaries (quoted
+ * line breaks are respected), and the ranges are parsed in parallel on a
+ * fork-join pool. Valid rows are then checked for date/venue conflicts and
+ * added by DataManager.addEvents as one logged transaction. Rows that are
+ * malformed or conflict are left out and listed in a report file.
+ *
+ * Columns are found by header name, in any order: Event Name, Date (DD/MM/YYYY),
+ * Venue and Organizer are required. Optional: Start Time, End Date and End Time
+ * (HH:MM; see Event.resolveEnd), Participant (one per row) with
+ * Participant Type, Participants (separated by ';', as "Name - Type") and
+ * Event ID. Rows sharing an Event ID are one event, so a per-participant
+ * export from CsvExporter imports back as-is.
+ * Imported events always get new IDs.
+ */
+public class CsvImporter {
+    // Strict, so 31/02 is rejected instead of quietly becoming 28/02
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/uuuu")
+            .withResolverStyle(ResolverStyle.STRICT);
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm")
+            .withResolverStyle(ResolverStyle.STRICT);
+    private static final int CHUNK_SIZE = 1 << 20;   // bytes per parse task
+
+    private final ForkJoinPool pool;
+
+    public CsvImporter() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public CsvImporter(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Parse the file and add its events to the data manager.
+     * If any rows were rejected they are written to name-rejected.csv next to the file.
+     * Throws IOException if the file can't be read or lacks a required column.
+     */
+    public Result importInto(DataManager dataManager, File file) throws IOException {
+        Result result = parse(file);
+        List<Event> conflicts = dataManager.addEvents(result.imported);
+        if (!conflicts.isEmpty()) {
+            Map<Event, Row> rows = new IdentityHashMap<>();
+            for (int i = 0; i < result.imported.size(); i++) {
+                rows.put(result.imported.get(i), result.sources.get(i));
+            }
+            for (Event event : conflicts) {
+                Row row = rows.get(event);
+                result.rejected.add(new Rejection(row.number, "Overlaps another event at the same venue", row.text));
+            }
+            Set<Event> skipped = Collections.newSetFromMap(new IdentityHashMap<>());
+            skipped.addAll(conflicts);
+            result.imported.removeIf(skipped::contains);
+            result.rejected.sort(Comparator.comparingInt(Rejection::getRow));
+        }
+        if (!result.rejected.isEmpty()) {
+            result.report = writeReport(file, result.rejected);
+        }
+        System.out.println("Imported " + result.imported.size() + " events from " + file
+                + ", rejected " + result.rejected.size() + " rows");
+        return result;
+    }
+
+    /**
+     * Parse the file into new events without adding them anywhere
+     */
+    public Result parse(File file) throws IOException {
+        ByteBuffer data;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("CSV files over 2GB are not supported");
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        int start = hasByteOrderMark(data) ? 3 : 0;
+        int headerEnd = endOfRow(data, start);
+        if (headerEnd == start) throw new IOException("The file is empty");
+        List<String> header = new ArrayList<>();
+        parseRow(bytes(data, start, headerEnd), 0, header);
+        Columns columns = new Columns(header);
+
+        List<Chunk> chunks = split(data, headerEnd);
+        // Imported participants all count as registered at the time of the import
+        pool.invoke(new ParseTask(data, columns, chunks, 0, chunks.size(), Instant.now()));
+        return merge(chunks);
+    }
+
+    private static boolean hasByteOrderMark(ByteBuffer data) {
+        return data.limit() >= 3 && (data.get(0) & 0xFF) == 0xEF && (data.get(1) & 0xFF) == 0xBB
+                && (data.get(2) & 0xFF) == 0xBF;
+    }
+
+    /**
+     * Position just past the row starting at pos (after its line break, if any)
+     */
+    private static int endOfRow(ByteBuffer data, int pos) {
+        boolean quoted = false;
+        while (pos < data.limit()) {
+            byte b = data.get(pos++);
+            if (b == '"') quoted = !quoted;
+            else if (b == '\n' && !quoted) break;
+        }
+        return pos;
+    }
+
+    // One sequential pass to find row boundaries; the parsing itself is done in parallel
+    private static List<Chunk> split(ByteBuffer data, int pos) {
+        List<Chunk> chunks = new ArrayList<>();
+        int firstRow = 2;   // spreadsheet numbering: the header is row 1
+        while (pos < data.limit()) {
+            int end = pos;
+            int rows = 0;
+            while (end < data.limit() && end - pos < CHUNK_SIZE) {
+                end = endOfRow(data, end);
+                rows++;
+            }
+            chunks.add(new Chunk(pos, end, firstRow));
+            firstRow += rows;
+            pos = end;
+        }
+        return chunks;
+    }
+
+    private static byte[] bytes(ByteBuffer data, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        data.get(from, bytes);
+        return bytes;
+    }
+
+    /**
+     * Parse one row starting at pos into fields; returns the position after it
+     */
+    private static int parseRow(byte[] b, int pos, List<String> fields) {
+        ByteArrayOutputStream quoted = null;
+        while (true) {
+            if (pos < b.length && b[pos] == '"') {
+                if (quoted == null) quoted = new ByteArrayOutputStream();
+                quoted.reset();
+                pos++;
+                while (pos < b.length) {
+                    if (b[pos] == '"') {
+                        if (pos + 1 < b.length && b[pos + 1] == '"') {
+                            quoted.write('"');
+                            pos += 2;
+                        } else {
+                            pos++;
+                            break;
+                        }
+                    } else {
+                        quoted.write(b[pos++]);
+                    }
+                }
+                fields.add(quoted.toString(StandardCharsets.UTF_8));
+                while (pos < b.length && b[pos] != ',' && b[pos] != '\n') pos++;
+            } else {
+                int start = pos;
+                while (pos < b.length && b[pos] != ',' && b[pos] != '\n') pos++;
+                int end = pos > start && b[pos - 1] == '\r' ? pos - 1 : pos;
+                fields.add(new String(b, start, end - start, StandardCharsets.UTF_8));
+            }
+            if (pos < b.length && b[pos] == ',') {
+                pos++;
+            } else {
+                return pos < b.length ? pos + 1 : pos;
+            }
+        }
+    }
+
+    // Events are created here, in file order, so IDs follow the rows
+    private static Result merge(List<Chunk> chunks) {
+        Result result = new Result();
+        Map<String, Integer> byKey = new HashMap<>();   // Event ID column -> index in result
+        for (Chunk chunk : chunks) {
+            result.rejected.addAll(chunk.rejected);
+            for (Row row : chunk.rows) {
+                Integer existing = row.key.isEmpty() ? null : byKey.get(row.key);
+                if (existing == null) {
+                    Event event = new Event(row.name, row.start, row.end, row.venue, row.organizer);
+                    row.participants.forEach(event::addParticipant);
+                    if (!row.key.isEmpty()) byKey.put(row.key, result.imported.size());
+                    result.imported.add(event);
+                    result.sources.add(row);
+                } else {
+                    Event event = result.imported.get(existing);
+                    if (!event.getEventName().equals(row.name) || !event.getStart().equals(row.start)
+                            || !event.getEnd().equals(row.end)
+                            || !event.getVenue().equals(row.venue) || !event.getOrganizer().equals(row.organizer)) {
+                        result.rejected.add(new Rejection(row.number,
+                                "Event ID " + row.key + " appears earlier with different details", row.text));
+                    } else {
+                        row.participants.forEach(event::addParticipant);
+                    }
+                }
+            }
+        }
+        result.rejected.sort(Comparator.comparingInt(Rejection::getRow));
+        return result;
+    }
+
+    private static File writeReport(File file, List<Rejection> rejected) throws IOException {
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        File report = new File(file.getAbsoluteFile().getParentFile(),
+                (dot > 0 ? name.substring(0, dot) : name) + "-rejected.csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(report.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("Row,Reason,Data");
+            writer.newLine();
+            for (Rejection rejection : rejected) {
+                writer.write(rejection.row + "," + quote(rejection.reason) + "," + quote(rejection.text));
+                writer.newLine();
+            }
+        }
+        return report;
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * Where each known column is in the header; -1 if absent
+     */
+    private static class Columns {
+        final int count;
+        final int key, name, date, venue, organizer, participant, participantType, participants;
+        final int startTime, endDate, endTime;
+
+        Columns(List<String> header) throws IOException {
+            count = header.size();
+            Map<String, Integer> positions = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                positions.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            key = positions.getOrDefault("event id", -1);
+            name = required(positions, "Event Name");
+            date = required(positions, "Date");
+            venue = required(positions, "Venue");
+            organizer = required(positions, "Organizer");
+            participant = positions.getOrDefault("participant", -1);
+            participantType = positions.getOrDefault("participant type", -1);
+            participants = positions.getOrDefault("participants", -1);
+            startTime = positions.getOrDefault("start time", -1);
+            endDate = positions.getOrDefault("end date", -1);
+            endTime = positions.getOrDefault("end time", -1);
+        }
+
+        private static int required(Map<String, Integer> positions, String column) throws IOException {
+            Integer position = positions.get(column.toLowerCase(Locale.ROOT));
+            if (position == null) throw new IOException("Missing column: " + column);
+            return position;
+        }
+    }
+
+    private static class Chunk {
+        final int start, end, firstRow;
+        final List<Row> rows = new ArrayList<>();
+        final List<Rejection> rejected = new ArrayList<>();
+
+        Chunk(int start, int end, int firstRow) {
+            this.start = start;
+            this.end = end;
+            this.firstRow = firstRow;
+        }
+    }
+
+    private static class ParseTask extends RecursiveAction {
+        private final ByteBuffer data;
+        private final Columns columns;
+        private final List<Chunk> chunks;
+        private final int from, to;
+        private final Instant registeredAt;
+
+        ParseTask(ByteBuffer data, Columns columns, List<Chunk> chunks, int from, int to, Instant registeredAt) {
+            this.data = data;
+            this.columns = columns;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+            this.registeredAt = registeredAt;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ParseTask(data, columns, chunks, from, mid, registeredAt),
+                        new ParseTask(data, columns, chunks, mid, to, registeredAt));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                parseChunk(chunks.get(i));
+            }
+        }
+
+        private void parseChunk(Chunk chunk) {
+            byte[] b = bytes(data, chunk.start, chunk.end);
+            Map<String, LocalDate> dates = new HashMap<>();   // the same few dates repeat a lot
+            List<String> fields = new ArrayList<>();
+            int pos = 0;
+            for (int number = chunk.firstRow; pos < b.length; number++) {
+                int start = pos;
+                fields.clear();
+                pos = parseRow(b, pos, fields);
+                if (fields.size() == 1 && fields.get(0).isBlank()) continue;   // empty line
+
+                String text = new String(b, start, pos - start, StandardCharsets.UTF_8).trim();
+                String problem = fields.size() != columns.count
+                        ? "Expected " + columns.count + " columns, found " + fields.size()
+                        : check(fields);
+                LocalDate date = null;
+                if (problem == null) {
+                    String value = fields.get(columns.date).trim();
+                    date = dates.get(value);
+                    if (date == null) {
+                        try {
+                            date = LocalDate.parse(value, DATE_FORMATTER);
+                            dates.put(value, date);
+                        } catch (DateTimeParseException e) {
+                            problem = "Invalid date '" + value + "', use DD/MM/YYYY";
+                        }
+                    }
+                }
+                LocalDateTime startsAt = null;
+                LocalDateTime endsAt = null;
+                if (problem == null) {
+                    try {
+                        LocalTime startTime = time(fields, columns.startTime);
+                        startsAt = date.atTime(startTime != null ? startTime : LocalTime.MIDNIGHT);
+                        LocalDate endDate = null;
+                        if (columns.endDate >= 0 && !fields.get(columns.endDate).isBlank()) {
+                            String value = fields.get(columns.endDate).trim();
+                            endDate = dates.get(value);
+                            if (endDate == null) {
+                                endDate = LocalDate.parse(value, DATE_FORMATTER);
+                                dates.put(value, endDate);
+                            }
+                        }
+                        endsAt = Event.resolveEnd(date, startTime, endDate, time(fields, columns.endTime));
+                    } catch (DateTimeParseException e) {
+                        problem = "Invalid time or end date '" + e.getParsedString() + "', use HH:MM and DD/MM/YYYY";
+                    } catch (IllegalArgumentException e) {
+                        problem = e.getMessage();
+                    }
+                }
+                if (problem != null) {
+                    chunk.rejected.add(new Rejection(number, problem, text));
+                    continue;
+                }
+
+                List<Participant> participants = new ArrayList<>();
+                if (columns.participant >= 0 && !fields.get(columns.participant).isBlank()) {
+                    String name = fields.get(columns.participant);
+                    if (columns.participantType < 0) {
+                        participants.add(Participant.parse(name.trim(), registeredAt));
+                    } else {
+                        Participant.Type type = Participant.Type.fromLabel(fields.get(columns.participantType));
+                        if (type == null) {
+                            chunk.rejected.add(new Rejection(number, "Unknown participant type '"
+                                    + fields.get(columns.participantType).trim() + "'", text));
+                            continue;
+                        }
+                        participants.add(new Participant(name, type, registeredAt));
+                    }
+                }
+                if (columns.participants >= 0) {
+                    for (String participant : fields.get(columns.participants).split(";")) {
+                        if (!participant.isBlank()) participants.add(Participant.parse(participant.trim(), registeredAt));
+                    }
+                }
+                chunk.rows.add(new Row(number, text, columns.key >= 0 ? fields.get(columns.key).trim() : "",
+                        fields.get(columns.name).trim(), startsAt, endsAt, fields.get(columns.venue).trim(),
+                        fields.get(columns.organizer).trim(), participants));
+            }
+        }
+
+        // The time in an optional HH:MM column, or null if there is no such column or it is blank
+        private static LocalTime time(List<String> fields, int column) {
+            if (column < 0 || fields.get(column).isBlank()) return null;
+            return LocalTime.parse(fields.get(column).trim(), TIME_FORMATTER);
+        }
+
+        /**
+         * What is wrong with the row's text fields, or null if nothing
+         */
+        private String check(List<String> fields) {
+            String[] names = {"Event Name", "Venue", "Organizer", "Date"};
+            int[] required = {columns.name, columns.venue, columns.organizer, columns.date};
+            for (int i = 0; i < required.length; i++) {
+                if (fields.get(required[i]).isBlank()) return "Missing " + names[i];
+            }
+            for (String field : fields) {
+                // These would break the '|'-separated text format of exportEvents
+                if (field.indexOf('|') >= 0 || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0) {
+                    return "'|' and line breaks are not allowed in values";
+                }
+            }
+            return null;
+        }
+    }
+
+    private static class Row {
+        final int number;
+        final String text, key, name, venue, organizer;
+        final LocalDateTime start, end;
+        final List<Participant> participants;
+
+        Row(int number, String text, String key, String name, LocalDateTime start, LocalDateTime end,
+            String venue, String organizer, List<Participant> participants) {
+            this.number = number;
+            this.text = text;
+            this.key = key;
+            this.name = name;
+            this.start = start;
+            this.end = end;
+            this.venue = venue;
+            this.organizer = organizer;
+            this.participants = participants;
+        }
+    }
+
+    /**
+     * A row that was not imported, numbered as in a spreadsheet (header = row 1)
+     */
+    public static class Rejection {
+        private final int row;
+        private final String reason;
+        private final String text;
+
+        Rejection(int row, String reason, String text) {
+            this.row = row;
+            this.reason = reason;
+            this.text = text;
+        }
+
+        public int getRow() { return row; }
+        public String getReason() { return reason; }
+        public String getText() { return text; }
+    }
+
+    public static class Result {
+        private final List<Event> imported = new ArrayList<>();
+        private final List<Row> sources = new ArrayList<>();   // first row of each imported event
+        private final List<Rejection> rejected = new ArrayList<>();
+        private File report;
+
+        public List<Event> getImported() { return imported; }
+        public List<Rejection> getRejected() { return rejected; }
+
+        /**
+         * The rejected-rows report, or null if every row was imported
+         */
+        public File getReport() { return report; }
+    }
+}
@@ -1,90 +1,728 @@
 package com.university.eventmanagement;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Central store for events and users.
+ * Safe to use from any thread: the event list is copy-on-write, so readers
+ * get a stable snapshot without locking, and changes to one event are
+ * serialised by a lock chosen from the event ID.
+ * Every change is announced on an event bus (see getChanges), which
+ * metrics and windows follow on their own threads.
+ */
 public class DataManager {
-    private static DataManager instance;
-    private List<Event> events;
-    private List<User> users;
+    private static final int STRIPES = 16;   // power of two
+    // Backup retention: the latest 24, plus the last one of each of 7 days and 4 weeks
+    private static final int BACKUPS_KEPT = 24;
+    private static final int DAILY_BACKUPS_KEPT = 7;
+    private static final int WEEKLY_BACKUPS_KEPT = 4;
+    private static final int BUS_CAPACITY = 8192;   // power of two
+
+    /**
+     * Outcome of a versioned updateEvent
+     */
+    public enum UpdateResult { UPDATED, STALE, NOT_FOUND, CONFLICT }
+
+    private static final Metrics.Histogram SEARCH_TIME = Metrics.histogram("search");
+    private static final Metrics.Histogram CONFLICT_CHECK_TIME = Metrics.histogram("conflictCheck");
+    private static final Metrics.Histogram BATCH_CONFLICT_CHECK_TIME = Metrics.histogram("conflictCheck.batch");
+    private static final Metrics.Histogram IMPORT_TIME = Metrics.histogram("csv.import");
+    private static final Metrics.Histogram BACKUP_TIME = Metrics.histogram("backup");
+    // Counted from the event bus, indexed by EventChange.Kind
+    private static final Metrics.Counter[] CHANGE_COUNTS = new Metrics.Counter[EventChange.Kind.values().length];
+
+    static {
+        for (EventChange.Kind kind : EventChange.Kind.values()) {
+            CHANGE_COUNTS[kind.ordinal()] = Metrics.counter("changes." + kind.name().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private static volatile DataManager instance;
+    // Held for as long as this process runs; the OS drops it when the process ends
+    private static FileLock dataDirLock;
+
+    // Current events. Never changed in place - writers publish a new list
+    private volatile List<Event> events;
+    private final UserStore users;
+    private final EventLog eventLog;
+    // Single thread that does all disk writes, so the UI never waits on I/O
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "persistence-writer");
+        t.setDaemon(true);
+        return t;
+    });
+    // Guards publishing a new event list and building the indexes
+    private final Object structureLock = new Object();
+    // Per-event write locks, picked by event ID
+    private final Object[] stripes = new Object[STRIPES];
+    // Indexes are built on first use so a lazily loaded snapshot stays undecoded
+    private volatile EventIndex index;
+    private volatile SearchIndex searchIndex;
+    private volatile EventStatistics statistics;
+    private final EventRepository repository = new FileEventRepository(this);
+    private final ReportEngine reports = new ReportEngine(this);
+    // Published to once a change is made and its locks released
+    private final EventBus<EventChange> changes = new EventBus<>(BUS_CAPACITY);
 
     private DataManager() {
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Object();
+        }
         DatabaseManager.initialize();
+        lockDataDir();
 
-        events = DatabaseManager.loadEvents();
-        users = DatabaseManager.loadUsers();
+        List<Event> loaded = DatabaseManager.loadEvents();
+        int replayed = EventLog.replay(loaded);
+        boolean addedSamples = loaded.isEmpty();
+        if (addedSamples) {
+            addSampleEvents(loaded);
+        }
+        events = EventSnapshot.readOnly(loaded);
 
-        if (events.isEmpty()) {
-            addSampleEvents();
-            saveData();
+        List<User> loadedUsers = DatabaseManager.loadUsers();
+        if (loadedUsers.isEmpty()) {
+            // Plaintext here; UserStore hashes and saves them straight away
+            loadedUsers.add(new User("admin", "admin123"));
+            loadedUsers.add(new User("groupfive", "BIT1201"));
         }
+        users = new UserStore(loadedUsers, writer);
+        Metrics.gauge("events.inMemory", () -> events.size());
+        Metrics.gauge("changes.backlog", changes::backlog);
+        changes.subscribe("metrics", DataManager::countChanges);
+        Metrics.startReporting(new File(DatabaseManager.DATA_DIR));
+        eventLog = new EventLog(writer);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "persistence-shutdown"));
 
-        if (users.isEmpty()) {
-            users.add(new User("admin", "admin123"));
-            users.add(new User("groupfive", "BIT1201"));
+        if (addedSamples) {
             saveData();
+        } else if (replayed > 0) {
+            // Fold the replayed changes into the snapshot so the log starts short
+            eventLog.compact(this::getAllEvents);
         }
-
     }
 
+    /**
+     * The store, opened on first use. Throws IllegalStateException if the
+     * saved events can't be read; the next call tries again.
+     */
     public static DataManager getInstance() {
-        if (instance == null) {
-            instance = new DataManager();
+        DataManager result = instance;
+        if (result == null) {
+            synchronized (DataManager.class) {
+                result = instance;
+                if (result == null) {
+                    try {
+                        result = new DataManager();
+                    } catch (RuntimeException e) {
+                        unlockDataDir();
+                        throw e;
+                    }
+                    instance = result;
+                }
+            }
         }
-        return instance;
+        return result;
     }
 
-    private void addSampleEvents() {
+    /**
+     * Take the data directory for this process, so the window and --server
+     * never write the same files at once. Throws IllegalStateException if
+     * another process has it.
+     */
+    private static void lockDataDir() {
+        if (dataDirLock != null) {
+            return;
+        }
+        Path path = Path.of(DatabaseManager.DATA_DIR, "lock");
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            dataDirLock = channel.tryLock();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot lock " + path + ": " + e.getMessage(), e);
+        } finally {
+            if (dataDirLock == null && channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // Nothing was locked
+                }
+            }
+        }
+        if (dataDirLock == null) {
+            throw new IllegalStateException(DatabaseManager.DATA_DIR
+                    + " is in use by another copy of the program (the window or --server); close it first");
+        }
+    }
+
+    private static void unlockDataDir() {
+        if (dataDirLock == null) {
+            return;
+        }
+        try {
+            dataDirLock.channel().close();
+        } catch (IOException e) {
+            System.err.println("Error unlocking the data directory: " + e.getMessage());
+        }
+        dataDirLock = null;
+    }
+
+    /**
+     * Load the store and count the dashboard totals, on a background thread,
+     * so it can happen while the login window is up. Neither decodes a
+     * lazily loaded snapshot; the window then decodes only the rows it shows.
+     */
+    public static CompletableFuture<DataManager> preload() {
+        return CompletableFuture.supplyAsync(() -> {
+            DataManager data = getInstance();
+            data.statistics();
+            return data;
+        });
+    }
+
+    private void addSampleEvents(List<Event> target) {
         Event e1 = new Event("AI Workshop", LocalDate.of(2024, 12, 15), "Room 101", "Dr. Smith");
-        e1.addParticipant("John Doe - Student");
-        e1.addParticipant("Jane Smith - Staff");
+        e1.addParticipant(new Participant("John Doe", Participant.Type.STUDENT));
+        e1.addParticipant(new Participant("Jane Smith", Participant.Type.STAFF));
 
         Event e2 = new Event("Cultural Show", LocalDate.of(2024, 12, 20), "Main Hall", "Prof. Johnson");
-        e2.addParticipant("Alice Brown - Student");
+        e2.addParticipant(new Participant("Alice Brown", Participant.Type.STUDENT));
 
-        events.add(e1);
-        events.add(e2);
+        target.add(e1);
+        target.add(e2);
     }
 
-    public boolean authenticate(String username, String password) {
-        return users.stream().anyMatch(
-                u -> u.getUsername().equals(username) && u.getPassword().equals(password)
-        );
+    public boolean authenticate(String username, char[] password) {
+        return users.authenticate(username, password);
+    }
+
+    public UserStore getUsers() {
+        return users;
     }
 
     public void addEvent(Event event) {
-        events.add(event);
-        saveData();
+        synchronized (stripe(event)) {
+            synchronized (structureLock) {
+                List<Event> next = new ArrayList<>(events.size() + 1);
+                next.addAll(events);
+                next.add(event);
+                index().add(event);
+                searchIndex().add(event);
+                statistics().add(event);
+                events = Collections.unmodifiableList(next);
+                eventLog.logAdd(event);
+            }
+        }
+        publish(EventChange.Kind.ADDED, event);
+        eventLog.compactIfNeeded(this::getAllEvents);
+    }
+
+    /**
+     * Add new events in one go, skipping any that overlap an existing event at
+     * the same venue, or an earlier one in the list.
+     * The added events are published and logged as a single transaction.
+     * Returns the events that were skipped.
+     */
+    public List<Event> addEvents(List<Event> candidates) {
+        List<Event> rejected = new ArrayList<>();
+        List<Event> accepted = new ArrayList<>(candidates.size());
+        synchronized (structureLock) {
+            EventIndex idx = index();
+            SearchIndex search = searchIndex();
+            EventStatistics stats = statistics();
+            long checkStart = Metrics.now();
+            // Bookings taken by this batch so far
+            EventIndex taken = new EventIndex(List.of());
+            for (Event event : candidates) {
+                if (idx.hasConflict(event) || taken.hasConflict(event)) {
+                    rejected.add(event);
+                } else {
+                    taken.add(event);
+                    accepted.add(event);
+                }
+            }
+            BATCH_CONFLICT_CHECK_TIME.recordSince(checkStart);
+            if (accepted.isEmpty()) return rejected;
+
+            List<Event> next = new ArrayList<>(events.size() + accepted.size());
+            next.addAll(events);
+            next.addAll(accepted);
+            for (Event event : accepted) {
+                idx.add(event);
+                search.add(event);
+                stats.add(event);
+            }
+            events = Collections.unmodifiableList(next);
+            eventLog.logAddAll(accepted);
+        }
+        for (Event event : accepted) {
+            publish(EventChange.Kind.ADDED, event);
+        }
+        eventLog.compactIfNeeded(this::getAllEvents);
+        return rejected;
     }
 
     public void removeEvent(Event event) {
-        events.remove(event);
-        saveData();
+        synchronized (stripe(event)) {
+            synchronized (structureLock) {
+                List<Event> next = new ArrayList<>(events);
+                if (!next.remove(event)) return;
+                event.nextVersion();   // so an edit begun before this fails
+                events = Collections.unmodifiableList(next);
+                index().remove(event);
+                searchIndex().remove(event);
+                statistics().remove(event);
+                eventLog.logRemove(event);
+            }
+        }
+        publish(EventChange.Kind.REMOVED, event);
+        eventLog.compactIfNeeded(this::getAllEvents);
+    }
+
+    /**
+     * Change an event. Returns false, changing nothing, if it has been removed.
+     */
+    public boolean updateEvent(Event event, String name, LocalDateTime start, LocalDateTime end,
+                               String venue, String organizer) {
+        if (!end.isAfter(start)) throw new IllegalArgumentException("The event must end after it starts");
+        // Build the indexes first so they never see the event half-updated
+        index();
+        searchIndex();
+        statistics();
+        synchronized (stripe(event)) {
+            if (!isStored(event)) return false;
+            applyUpdate(event, name, start, end, venue, organizer);
+            event.nextVersion();
+        }
+        publish(EventChange.Kind.UPDATED, event);
+        eventLog.compactIfNeeded(this::getAllEvents);
+        return true;
+    }
+
+    /**
+     * Change an event and its capacity in one step, but only if it is still
+     * at expectedVersion - that is, nobody has edited it since it was read
+     * (see Event.getVersion) - and, unless allowOverlap, the new times don't
+     * overlap another event at the venue. The overlap check and the change
+     * happen under one lock, so two edits can't book the same slot.
+     * Anything but UPDATED means nothing was changed.
+     * Registrations don't change the version, so they never make an edit fail.
+     */
+    public UpdateResult updateEvent(Event event, long expectedVersion, String name, LocalDateTime start,
+                                    LocalDateTime end, String venue, String organizer, int capacity,
+                                    boolean allowOverlap) {
+        if (!end.isAfter(start)) throw new IllegalArgumentException("The event must end after it starts");
+        // Checked before anything changes; the registry would only refuse it after the rest was applied
+        if (capacity < 0) throw new IllegalArgumentException("Capacity must not be negative");
+        EventIndex idx = index();
+        searchIndex();
+        EventStatistics stats = statistics();
+        synchronized (stripe(event)) {
+            if (!isStored(event)) return UpdateResult.NOT_FOUND;
+            if (event.getVersion() != expectedVersion) return UpdateResult.STALE;
+            synchronized (structureLock) {
+                if (!allowOverlap) {
+                    long checkStart = Metrics.now();
+                    boolean overlaps = false;
+                    for (Event other : idx.getBookings(venue, start, end)) {
+                        overlaps |= other != event;
+                    }
+                    CONFLICT_CHECK_TIME.recordSince(checkStart);
+                    if (overlaps) return UpdateResult.CONFLICT;
+                }
+                applyUpdate(event, name, start, end, venue, organizer);
+            }
+            if (capacity != event.getRegistry().getCapacity()) {
+                int before = event.getParticipantCount();
+                event.getRegistry().setCapacity(capacity);
+                stats.participantsChanged(event.getParticipantCount() - before);
+                eventLog.logCapacity(event, capacity);
+            }
+            // Last, so whoever sees the new version also sees everything it stands for
+            event.nextVersion();
+        }
+        publish(EventChange.Kind.UPDATED, event);
+        eventLog.compactIfNeeded(this::getAllEvents);
+        return UpdateResult.UPDATED;
+    }
+
+    // With the event's lock held and the indexes built
+    private void applyUpdate(Event event, String name, LocalDateTime start, LocalDateTime end,
+                             String venue, String organizer) {
+        // Under the structure lock, so a batch conflict check never runs while the event is out of the indexes
+        synchronized (structureLock) {
+            index().removeBooking(event);
+            searchIndex().remove(event);
+            statistics().remove(event);
+            event.setEventName(name);
+            event.setTimes(start, end);
+            event.setVenue(venue);
+            event.setOrganizer(organizer);
+            index().add(event);
+            searchIndex().add(event);
+            statistics().add(event);
+            eventLog.logUpdate(event);
+        }
+    }
+
+    // Whether the event is in the store rather than removed; stable while its stripe lock is held
+    private boolean isStored(Event event) {
+        return index().get(event.getEventId()) == event;
+    }
+
+    /**
+     * Register a participant, or waitlist them if the event is full.
+     * Returns NOT_FOUND if the event has been removed.
+     */
+    public ParticipantRegistry.Result addParticipant(Event event, Participant participant) {
+        EventStatistics stats = statistics();
+        ParticipantRegistry.Result result;
+        synchronized (stripe(event)) {
+            if (!isStored(event)) return ParticipantRegistry.Result.NOT_FOUND;
+            result = event.addParticipant(participant);
+            if (result == ParticipantRegistry.Result.DUPLICATE) return result;
+            if (result == ParticipantRegistry.Result.REGISTERED) stats.participantsChanged(1);
+            eventLog.logRegister(event, participant);
+        }
+        publish(result == ParticipantRegistry.Result.REGISTERED ? EventChange.Kind.REGISTERED
+                : EventChange.Kind.WAITLISTED, event, participant.getName());
+        eventLog.compactIfNeeded(this::getAllEvents);
+        return result;
+    }
+
+    /**
+     * Cancel a registration or waitlist place; the first on the waitlist takes
+     * a freed place. Returns false if nobody of that name was found, or the
+     * event has been removed.
+     */
+    public boolean cancelParticipant(Event event, String name) {
+        EventStatistics stats = statistics();
+        synchronized (stripe(event)) {
+            if (!isStored(event)) return false;
+            int before = event.getParticipantCount();
+            if (event.getRegistry().cancel(name) == null) return false;
+            stats.participantsChanged(event.getParticipantCount() - before);
+            eventLog.logCancel(event, name);
+        }
+        publish(EventChange.Kind.CANCELLED, event, name);
+        eventLog.compactIfNeeded(this::getAllEvents);
+        return true;
+    }
+
+    private Object stripe(Event event) {
+        return stripes[event.getEventId() & (STRIPES - 1)];
+    }
+
+    private void publish(EventChange.Kind kind, Event event) {
+        publish(kind, event, null);
+    }
+
+    private void publish(EventChange.Kind kind, Event event, String participant) {
+        // Marked here rather than from the bus, so a report asked for once this returns includes the change
+        reports.eventChanged(event.getEventId());
+        // Waits if a subscriber has fallen a whole ring behind
+        changes.publish(new EventChange(kind, event, participant));
+    }
+
+    private static void countChanges(List<EventChange> batch) {
+        for (EventChange change : batch) {
+            CHANGE_COUNTS[change.getKind().ordinal()].increment();
+        }
     }
 
+    /**
+     * Every change from now on, whichever thread or window made it.
+     * Subscribers each run on their own thread and get changes in batches.
+     */
+    public EventBus<EventChange> getChanges() {
+        return changes;
+    }
+
+    /**
+     * All events. The list is a read-only snapshot, so no copy is needed
+     */
     public List<Event> getAllEvents() {
-        return new ArrayList<>(events);
+        return events;
+    }
+
+    /**
+     * IDs of all events, in the order they were added
+     */
+    public int[] getAllEventIds() {
+        return EventSnapshot.eventIds(events);
+    }
+
+    public Event getEventById(int eventId) {
+        List<Event> current = events;
+        // Until something needs the index, decode just this event rather than building it
+        if (index == null && EventSnapshot.canFindById(current)) {
+            return EventSnapshot.findById(current, eventId);
+        }
+        return index().get(eventId);
     }
 
     public List<Event> getConflictingEvents(LocalDate date, String venue) {
-        return events.stream()
-                .filter(e -> e.getDate().equals(date) &&
-                        e.getVenue().equalsIgnoreCase(venue))
-                .toList();
+        EventIndex idx = index();
+        long start = Metrics.now();
+        List<Event> result = idx.getConflicting(date, venue);
+        CONFLICT_CHECK_TIME.recordSince(start);
+        return result;
+    }
+
+    /**
+     * Events at the venue (ignoring case) overlapping [start, end)
+     */
+    public List<Event> getConflictingEvents(LocalDateTime start, LocalDateTime end, String venue) {
+        EventIndex idx = index();
+        long checkStart = Metrics.now();
+        List<Event> result = idx.getBookings(venue, start, end);
+        CONFLICT_CHECK_TIME.recordSince(checkStart);
+        return result;
+    }
+
+    /**
+     * Bookings of one venue overlapping [from, to), in start order
+     */
+    public List<Event> getBookings(String venue, LocalDateTime from, LocalDateTime to) {
+        return index().getBookings(venue, from, to);
+    }
+
+    /**
+     * Venues used by at least one event, sorted by name
+     */
+    public List<String> getVenues() {
+        return index().getVenues();
+    }
+
+    /**
+     * Venues in use by some event that have nothing booked in [from, to)
+     */
+    public List<String> getFreeVenues(LocalDateTime from, LocalDateTime to) {
+        return index().getFreeVenues(from, to);
+    }
+
+    /**
+     * Events at any venue overlapping [from, to), in start order
+     */
+    public List<Event> getEventsOverlapping(LocalDateTime from, LocalDateTime to) {
+        return index().getOverlapping(from, to);
+    }
+
+    /**
+     * IDs of events whose name, venue or organizer contains the query, in ID
+     * order, starting from an earlier result (or null) when the query only got longer
+     */
+    public SearchIndex.Result searchEventIds(String query, SearchIndex.Result previous) {
+        SearchIndex search = searchIndex();
+        long start = Metrics.now();
+        SearchIndex.Result result = search.search(query, previous);
+        SEARCH_TIME.recordSince(start);
+        return result;
+    }
+
+    /**
+     * Whether one event matches a search query, as searchEventIds would find it
+     */
+    public boolean matchesSearch(int eventId, String query) {
+        return searchIndex().matches(eventId, query);
+    }
+
+    public List<Event> searchEvents(String query) {
+        return toEvents(searchEventIds(query, null).getIds());
+    }
+
+    public List<Event> toEvents(int[] eventIds) {
+        List<Event> result = new ArrayList<>(eventIds.length);
+        for (int id : eventIds) {
+            Event event = index().get(id);
+            if (event != null) result.add(event);
+        }
+        return result;
+    }
+
+    private EventIndex index() {
+        EventIndex result = index;
+        if (result == null) {
+            synchronized (structureLock) {
+                result = index;
+                if (result == null) {
+                    result = new EventIndex(events);
+                    index = result;
+                }
+            }
+        }
+        return result;
     }
 
+    /**
+     * Running dashboard totals
+     */
+    public EventStatistics getStatistics() {
+        return statistics();
+    }
+
+    private EventStatistics statistics() {
+        EventStatistics result = statistics;
+        if (result == null) {
+            synchronized (structureLock) {
+                result = statistics;
+                if (result == null) {
+                    result = new EventStatistics(events);
+                    statistics = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private SearchIndex searchIndex() {
+        SearchIndex result = searchIndex;
+        if (result == null) {
+            synchronized (structureLock) {
+                result = searchIndex;
+                if (result == null) {
+                    result = new SearchIndex(events);
+                    searchIndex = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Save everything and wait for it; only used while starting up
+     */
     public void saveData() {
-        DatabaseManager.saveEvents(events);
-        DatabaseManager.saveUsers(users);
+        saveDataAsync().join();
     }
 
-    public void exportToCSV(String filename) {
-        DatabaseManager.exportToCSV(events, filename);
+    /**
+     * Write a full snapshot on the writer thread.
+     * Users are saved by UserStore whenever they change.
+     */
+    public CompletableFuture<Boolean> saveDataAsync() {
+        return eventLog.checkpoint(this::getAllEvents);
     }
 
-    public void createBackup() {
-        DatabaseManager.createBackup();
+    /**
+     * Completes once every change made so far is on disk
+     */
+    public CompletableFuture<Void> flush() {
+        return eventLog.flush();
+    }
+
+    public CompletableFuture<Boolean> exportToCSVAsync(String filename) {
+        List<Event> snapshot = events;
+        return CompletableFuture.supplyAsync(() -> DatabaseManager.exportToCSV(snapshot, filename), writer);
+    }
+
+    /**
+     * Export only the events matching a search query
+     */
+    public CompletableFuture<Boolean> exportToCSVAsync(String filename, String query) {
+        List<Event> matches = searchEvents(query);
+        return CompletableFuture.supplyAsync(() -> DatabaseManager.exportToCSV(matches, filename), writer);
+    }
+
+    /**
+     * Export with a configured exporter. The exporter is used on the writer
+     * thread, so don't share it with another export running at the same time
+     */
+    public CompletableFuture<Boolean> exportToCSVAsync(String filename, CsvExporter exporter) {
+        List<Event> snapshot = events;
+        return CompletableFuture.supplyAsync(() -> DatabaseManager.exportToCSV(snapshot, filename, exporter), writer);
+    }
+
+    /**
+     * Copy every event into a JDBC database (see JdbcEventRepository),
+     * replacing events there with the same ID. Completes with the number copied.
+     */
+    public CompletableFuture<Integer> exportToDatabaseAsync(String url) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (JdbcEventRepository database = new JdbcEventRepository(url)) {
+                return database.copyFrom(repository);
+            }
+        }, writer);
+    }
+
+    /**
+     * The current report, built off the calling thread (see ReportEngine)
+     */
+    public CompletableFuture<Report> reportAsync() {
+        return CompletableFuture.supplyAsync(reports::report);
+    }
+
+    /**
+     * The events as a paged repository over this store
+     */
+    public EventRepository getRepository() {
+        return repository;
     }
-}
 
+    /**
+     * Import events from a CSV file, see CsvImporter
+     */
+    public CompletableFuture<CsvImporter.Result> importCSVAsync(String filename) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = Metrics.now();
+            try {
+                return new CsvImporter().importInto(this, new File(filename));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                IMPORT_TIME.recordSince(start);
+            }
+        });
+    }
+
+    /**
+     * Back up the data directory on the writer thread, so the files are not
+     * changing underneath it, then thin out old backups.
+     * Completes with the new backup's name.
+     */
+    public CompletableFuture<String> createBackupAsync() {
+        return CompletableFuture.supplyAsync(() -> {
+            BackupManager backups = new BackupManager(new File(DatabaseManager.DATA_DIR));
+            long start = Metrics.now();
+            try {
+                String name = backups.backup();
+                BACKUP_TIME.recordSince(start);
+                backups.prune(BACKUPS_KEPT, DAILY_BACKUPS_KEPT, WEEKLY_BACKUPS_KEPT);
+                return name;
+            } catch (IOException e) {
+                System.err.println("Error creating backup: " + e.getMessage());
+                throw new UncheckedIOException(e);
+            }
+        }, writer);
+    }
+
+    /**
+     * Let queued writes finish before the JVM exits
+     */
+    private void shutdown() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                System.err.println("Gave up waiting for pending writes");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
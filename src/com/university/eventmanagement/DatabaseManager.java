@@ -1,7 +1,13 @@
 package com.university.eventmanagement;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
@@ -11,10 +17,22 @@ import java.util.List;
  * Saves events and users to local files
  */
 public class DatabaseManager {
-    private static final String DATA_DIR = "eventmanagement_data";
+    // Relative to the working directory unless -Deventmanagement.dataDir says otherwise
+    static final String DATA_DIR = System.getProperty("eventmanagement.dataDir", "eventmanagement_data");
     private static final String EVENTS_FILE = DATA_DIR + "/events.txt";
+    private static final String SNAPSHOT_FILE = DATA_DIR + "/events.snap";
+    // Where a snapshot that can't be read is kept until someone deals with it
+    private static final String CORRUPT_SNAPSHOT_FILE = SNAPSHOT_FILE + ".corrupt";
     private static final String USERS_FILE = DATA_DIR + "/users.txt";
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private static final Metrics.Histogram SAVE_TIME = Metrics.histogram("snapshot.save");
+    private static final Metrics.Counter SAVE_BYTES = Metrics.counter("snapshot.bytesWritten");
+    private static final Metrics.Histogram LOAD_TIME = Metrics.histogram("snapshot.load");
+    private static final Metrics.Histogram EXPORT_TIME = Metrics.histogram("csv.export");
+    private static final Metrics.Counter EXPORT_BYTES = Metrics.counter("csv.bytesWritten");
 
     /**
      * Initialize database (create folders and files if they don't exist)
@@ -37,44 +55,154 @@ public class DatabaseManager {
     }
 
     /**
-     * Save all events to file
+     * Save all events to the binary snapshot.
+     * Writes to a temporary file first and swaps it in, so a crash never leaves half a file behind.
+     * Returns true if the snapshot was replaced
+     */
+    public static boolean saveEvents(List<Event> events) {
+        long start = Metrics.now();
+        File tmp = new File(SNAPSHOT_FILE + ".tmp");
+        try {
+            EventSnapshot.write(events, tmp);
+            SAVE_BYTES.add(tmp.length());
+            Files.move(tmp.toPath(), new File(SNAPSHOT_FILE).toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            SAVE_TIME.recordSince(start);
+            System.out.println("Events saved successfully!");
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error saving events: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Export all events as pipe-delimited text (the events.txt format)
+     * Returns true on success
      */
-    public static void saveEvents(List<Event> events) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(EVENTS_FILE))) {
+    public static boolean exportEvents(List<Event> events, String filename) {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename))) {
             for (Event event : events) {
-                // Format: ID|Name|Date|Venue|Organizer|Participant1,Participant2,...
-                StringBuilder line = new StringBuilder();
-                line.append(event.getEventId()).append("|");
-                line.append(event.getEventName()).append("|");
-                line.append(event.getDate().format(DATE_FORMATTER)).append("|");
-                line.append(event.getVenue()).append("|");
-                line.append(event.getOrganizer()).append("|");
-
-                // Join participants with comma
-                String participants = String.join(",", event.getParticipants());
-                line.append(participants);
-
-                writer.write(line.toString());
+                writer.write(formatEvent(event));
                 writer.newLine();
             }
-            System.out.println("Events saved successfully!");
+            System.out.println("Exported events to: " + filename);
+            return true;
         } catch (IOException e) {
-            System.err.println("Error saving events: " + e.getMessage());
+            System.err.println("Error exporting events: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Format one event as a line of the events file
+     */
+    static String formatEvent(Event event) {
+        // Format: ID|Name|Date|Venue|Organizer|Participant1,Participant2,...|StartTime|End
+        // (readable text for export; the snapshot and log keep participants as separate fields)
+        StringBuilder line = new StringBuilder();
+        line.append(event.getEventId()).append("|");
+        line.append(event.getEventName()).append("|");
+        line.append(event.getDate().format(DATE_FORMATTER)).append("|");
+        line.append(event.getVenue()).append("|");
+        line.append(event.getOrganizer()).append("|");
+
+        // Join participants with comma
+        List<Participant> participants = event.getParticipants();
+        for (int i = 0; i < participants.size(); i++) {
+            if (i > 0) line.append(',');
+            line.append(participants.get(i));
         }
+        line.append('|').append(event.getStart().toLocalTime().format(TIME_FORMATTER));
+        line.append('|').append(event.getEnd().format(DATE_TIME_FORMATTER));
+        return line.toString();
     }
 
     /**
-     * Load all events from file
+     * Parse one line of events.txt, split at '|'
+     */
+    private static Event parseEvent(String[] parts) {
+        int id = Integer.parseInt(parts[0]);
+        String name = parts[1];
+        LocalDate date = LocalDate.parse(parts[2], DATE_FORMATTER);
+        String venue = parts[3];
+        String organizer = parts[4];
+
+        Event event = new Event(id, name, date, venue, organizer);
+
+        // Add participants if they exist
+        if (parts.length > 5 && !parts[5].isEmpty()) {
+            for (String participant : parts[5].split(",")) {
+                if (!participant.trim().isEmpty()) {
+                    // The text format has no registration times
+                    event.getRegistry().addRegistered(Participant.parse(participant.trim(), Instant.EPOCH));
+                }
+            }
+        }
+
+        // Files written before events had times end at the participants and stay all-day
+        if (parts.length > 7) {
+            event.setTimes(date.atTime(LocalTime.parse(parts[6], TIME_FORMATTER)),
+                    LocalDateTime.parse(parts[7], DATE_TIME_FORMATTER));
+        }
+        return event;
+    }
+
+    /**
+     * Load all events.
+     * Uses the binary snapshot when there is one; otherwise imports events.txt
+     * and writes a snapshot so the next start is fast.
+     * A snapshot that can't be read is moved to events.snap.corrupt and
+     * IllegalStateException thrown, then and on every start after, until a
+     * backup is restored or the corrupt file is deleted. events.txt is only
+     * the data from before the first snapshot, so it is never used instead.
      */
     public static List<Event> loadEvents() {
+        long start = Metrics.now();
+        File snapshot = new File(SNAPSHOT_FILE);
+        File corrupt = new File(CORRUPT_SNAPSHOT_FILE);
+        if (snapshot.exists() && snapshot.length() > 0) {
+            try {
+                EventSnapshot eventSnapshot = EventSnapshot.open(snapshot);
+                System.out.println("Opened snapshot with " + eventSnapshot.size() + " events");
+                LOAD_TIME.recordSince(start);
+                return eventSnapshot.asList();
+            } catch (IOException e) {
+                System.err.println("Error opening snapshot: " + e.getMessage());
+                try {
+                    Files.move(snapshot.toPath(), corrupt.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException moveError) {
+                    throw new IllegalStateException("Cannot read " + SNAPSHOT_FILE + " (" + e.getMessage()
+                            + "). Restore it from a backup.", e);
+                }
+            }
+        }
+        if (corrupt.exists()) {
+            throw new IllegalStateException("Cannot read the saved events; they were moved to " + CORRUPT_SNAPSHOT_FILE
+                    + ". Restore " + SNAPSHOT_FILE + " from a backup, or delete " + CORRUPT_SNAPSHOT_FILE
+                    + " to start again from " + EVENTS_FILE + ".");
+        }
+
+        List<Event> events = importEvents(EVENTS_FILE);
+        LOAD_TIME.recordSince(start);
+        if (!events.isEmpty()) {
+            saveEvents(events);
+        }
+        return events;
+    }
+
+    /**
+     * Import events from a pipe-delimited text file
+     */
+    public static List<Event> importEvents(String filename) {
         List<Event> events = new ArrayList<>();
-        File file = new File(EVENTS_FILE);
+        File file = new File(filename);
 
         if (!file.exists() || file.length() == 0) {
             return events; // Return empty list if file doesn't exist or is empty
         }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(EVENTS_FILE))) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
             String line;
             while ((line = reader.readLine()) != null) {
                 if (line.trim().isEmpty()) continue;
@@ -82,31 +210,14 @@ public class DatabaseManager {
                 String[] parts = line.split("\\|", -1); // -1 to keep empty strings
                 if (parts.length >= 5) {
                     try {
-                        // int id = Integer.parseInt(parts[0]); // We'll let Event class auto-generate IDs
-                        String name = parts[1];
-                        LocalDate date = LocalDate.parse(parts[2], DATE_FORMATTER);
-                        String venue = parts[3];
-                        String organizer = parts[4];
-
-                        Event event = new Event(name, date, venue, organizer);
-
-                        // Add participants if they exist
-                        if (parts.length > 5 && !parts[5].isEmpty()) {
-                            String[] participants = parts[5].split(",");
-                            for (String participant : participants) {
-                                if (!participant.trim().isEmpty()) {
-                                    event.addParticipant(participant.trim());
-                                }
-                            }
-                        }
-
+                        Event event = parseEvent(parts);
                         events.add(event);
                     } catch (Exception e) {
                         System.err.println("Error parsing event line: " + line);
                     }
                 }
             }
-            System.out.println("Loaded " + events.size() + " events from database");
+            System.out.println("Loaded " + events.size() + " events from " + filename);
         } catch (IOException e) {
             System.err.println("Error loading events: " + e.getMessage());
         }
@@ -116,16 +227,28 @@ public class DatabaseManager {
 
     /**
      * Save all users to file
+     * Writes a temporary file and swaps it in, so a crash can't lose the users
      */
-    public static void saveUsers(List<User> users) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(USERS_FILE))) {
+    public static boolean saveUsers(List<User> users) {
+        File tmp = new File(USERS_FILE + ".tmp");
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tmp),
+                StandardCharsets.UTF_8))) {
             for (User user : users) {
-                // Format: Username|Password
-                writer.write(user.getUsername() + "|" + user.getPassword());
+                // Format: Username|PasswordHash
+                writer.write(user.getUsername() + "|" + user.getCredential());
                 writer.newLine();
             }
         } catch (IOException e) {
             System.err.println("Error saving users: " + e.getMessage());
+            return false;
+        }
+        try {
+            Files.move(tmp.toPath(), new File(USERS_FILE).toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error saving users: " + e.getMessage());
+            return false;
         }
     }
 
@@ -143,11 +266,12 @@ public class DatabaseManager {
             return users;
         }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(USERS_FILE))) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(USERS_FILE, StandardCharsets.UTF_8))) {
             String line;
             while ((line = reader.readLine()) != null) {
                 if (line.trim().isEmpty()) continue;
 
+                // Older files hold plaintext passwords; UserStore hashes them
                 String[] parts = line.split("\\|");
                 if (parts.length == 2) {
                     users.add(new User(parts[0], parts[1]));
@@ -162,74 +286,29 @@ public class DatabaseManager {
 
     /**
      * Export events to CSV format
+     * Returns true on success
      */
-    public static void exportToCSV(List<Event> events, String filename) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename))) {
-            // Write CSV header
-            writer.write("Event ID,Event Name,Date,Venue,Organizer,Total Participants");
-            writer.newLine();
-
-            // Write data
-            for (Event event : events) {
-                writer.write(String.format("%d,%s,%s,%s,%s,%d",
-                        event.getEventId(),
-                        escapeCsv(event.getEventName()),
-                        event.getDate().format(DATE_FORMATTER),
-                        escapeCsv(event.getVenue()),
-                        escapeCsv(event.getOrganizer()),
-                        event.getParticipantCount()
-                ));
-                writer.newLine();
-            }
-
-            System.out.println("Exported to CSV: " + filename);
-        } catch (IOException e) {
-            System.err.println("Error exporting to CSV: " + e.getMessage());
-        }
+    public static boolean exportToCSV(List<Event> events, String filename) {
+        return exportToCSV(events, filename, new CsvExporter());
     }
 
     /**
-     * Escape CSV values (handle commas and quotes)
+     * Export events to CSV with the given column, gzip and splitting options
+     * Returns true on success
      */
-    private static String escapeCsv(String value) {
-        if (value.contains(",") || value.contains("\"")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
-        }
-        return value;
-    }
-
-    /**
-     * Backup current database
-     */
-    public static void createBackup() {
+    public static boolean exportToCSV(Iterable<Event> events, String filename, CsvExporter exporter) {
+        long start = Metrics.now();
         try {
-            String timestamp = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-            String backupDir = DATA_DIR + "/backups";
-            new File(backupDir).mkdirs();
-
-            // Copy events file
-            copyFile(EVENTS_FILE, backupDir + "/events_" + timestamp + ".txt");
-
-            // Copy users file
-            copyFile(USERS_FILE, backupDir + "/users_" + timestamp + ".txt");
-
-            System.out.println("Backup created successfully!");
-        } catch (IOException e) {
-            System.err.println("Error creating backup: " + e.getMessage());
-        }
-    }
-
-    private static void copyFile(String source, String destination) throws IOException {
-        File sourceFile = new File(source);
-        if (!sourceFile.exists()) return;
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(source));
-             BufferedWriter writer = new BufferedWriter(new FileWriter(destination))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                writer.write(line);
-                writer.newLine();
+            List<File> files = exporter.export(events, new File(filename));
+            EXPORT_TIME.recordSince(start);
+            for (File file : files) {
+                EXPORT_BYTES.add(file.length());
             }
+            System.out.println("Exported to CSV: " + (files.size() == 1 ? files.get(0) : files.size() + " files"));
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error exporting to CSV: " + e.getMessage());
+            return false;
         }
     }
 }
\ No newline at end of file
@@ -1,27 +1,99 @@
 package com.university.eventmanagement;
 
+import java.time.Duration;
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Event {
+    // Where an event stands on a given day, as the table and the dashboard show it
+    public enum Status {
+        UPCOMING("Upcoming"),
+        TODAY("Today"),       // running today, including every day of a multi-day event
+        COMPLETED("Completed");
+
+        private final String label;
+
+        Status(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
     // Variables (Properties) - These store information about each event
-    private static int idCounter = 1;  // Automatically generates unique IDs
-    private int eventId;               // Each event gets a unique number
-    private String eventName;          // Name like "AI Workshop"
-    private LocalDate date;            // Date of the event
-    private String venue;              // Location like "Room 101"
-    private String organizer;          // Who's organizing it
-    private List<String> participants; // List of people attending
-
-    // Constructor - This runs when you create a new Event
+    // Shared by every thread that creates events, so it has to be atomic
+    private static final AtomicInteger idCounter = new AtomicInteger(1);  // Automatically generates unique IDs
+    private final int eventId;                 // Each event gets a unique number
+    // volatile so a change made on one thread is seen by the others
+    private volatile String eventName;         // Name like "AI Workshop"
+    // When it runs: start inclusive, end exclusive. An all-day event runs from midnight to midnight
+    private volatile LocalDateTime start;
+    private volatile LocalDateTime end;
+    // Venue and organizer repeat across many events, so they are kept as codes in the shared SymbolTable
+    private volatile int venue;                // Location like "Room 101"
+    private volatile int organizer;            // Who's organizing it
+    private final ParticipantRegistry participants = new ParticipantRegistry();  // People attending, plus the waitlist
+    // Goes up each time the details above change or the event is removed; only changed by DataManager, under its lock
+    private volatile long version = 1;
+
+    // Constructor - This runs when you create a new Event (all day on the given date)
     public Event(String eventName, LocalDate date, String venue, String organizer) {
-        this.eventId = idCounter++;      // Give this event the next ID number
+        this(eventName, date.atStartOfDay(), date.plusDays(1).atStartOfDay(), venue, organizer);
+    }
+
+    // Constructor for an event with start and end times (it may run over several days)
+    public Event(String eventName, LocalDateTime start, LocalDateTime end, String venue, String organizer) {
+        this.eventId = idCounter.getAndIncrement();  // Give this event the next ID number
         this.eventName = eventName;
-        this.date = date;
-        this.venue = venue;
-        this.organizer = organizer;
-        this.participants = new ArrayList<>();  // Start with empty participant list
+        setTimes(start, end);
+        this.venue = SymbolTable.SHARED.intern(venue);
+        this.organizer = SymbolTable.SHARED.intern(organizer);
+    }
+
+    // Constructor used when loading saved events - keeps the stored ID
+    public Event(int eventId, String eventName, LocalDate date, String venue, String organizer) {
+        this(eventId, eventName, date.atStartOfDay(), date.plusDays(1).atStartOfDay(), venue, organizer);
+    }
+
+    public Event(int eventId, String eventName, LocalDateTime start, LocalDateTime end, String venue, String organizer) {
+        this.eventId = eventId;
+        this.eventName = eventName;
+        setTimes(start, end);
+        this.venue = SymbolTable.SHARED.intern(venue);
+        this.organizer = SymbolTable.SHARED.intern(organizer);
+        reserveIds(eventId);             // Never hand out an ID that is already taken
+    }
+
+    /**
+     * End of an event given the way forms and CSV files describe it.
+     * With no times it is all day, through endDate if given. With a start time,
+     * the end time is required and is on endDate, or on the start date if that is null.
+     * Throws IllegalArgumentException naming what is wrong.
+     */
+    public static LocalDateTime resolveEnd(LocalDate date, LocalTime startTime, LocalDate endDate, LocalTime endTime) {
+        LocalDate lastDay = endDate != null ? endDate : date;
+        LocalDateTime end;
+        if (endTime == null) {
+            if (startTime != null) throw new IllegalArgumentException("End time is required with a start time");
+            end = lastDay.plusDays(1).atStartOfDay();
+        } else {
+            end = lastDay.atTime(endTime);
+        }
+        if (!end.isAfter(date.atTime(startTime != null ? startTime : LocalTime.MIDNIGHT))) {
+            throw new IllegalArgumentException("The event must end after it starts");
+        }
+        return end;
+    }
+
+    // Make sure new events never reuse an ID up to maxId (used when events are loaded lazily)
+    static void reserveIds(int maxId) {
+        idCounter.accumulateAndGet(maxId + 1, Math::max);
     }
 
     // Getters - These let you READ the information
@@ -33,42 +105,102 @@ public class Event {
         return eventName;
     }
 
+    // The day it starts
     public LocalDate getDate() {
-        return date;
+        return start.toLocalDate();
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public LocalDateTime getEnd() {
+        return end;
+    }
+
+    // The last day it runs on (the end is exclusive, so ending at midnight doesn't count the next day)
+    public LocalDate getEndDate() {
+        return end.minusNanos(1).toLocalDate();
+    }
+
+    // Completed once its last day is over, upcoming until its first day starts
+    public Status statusOn(LocalDate today) {
+        return statusOn(getDate(), getEndDate(), today);
+    }
+
+    // The same for an event running from firstDay to lastDay, both inclusive
+    static Status statusOn(LocalDate firstDay, LocalDate lastDay, LocalDate today) {
+        if (lastDay.isBefore(today)) return Status.COMPLETED;
+        return firstDay.isAfter(today) ? Status.UPCOMING : Status.TODAY;
+    }
+
+    public boolean isAllDay() {
+        return start.toLocalTime().equals(LocalTime.MIDNIGHT) && end.toLocalTime().equals(LocalTime.MIDNIGHT);
     }
 
     public String getVenue() {
+        return SymbolTable.SHARED.value(venue);
+    }
+
+    public int getVenueCode() {
         return venue;
     }
 
     public String getOrganizer() {
+        return SymbolTable.SHARED.value(organizer);
+    }
+
+    public int getOrganizerCode() {
         return organizer;
     }
 
-    public List<String> getParticipants() {
+    // Registered participants, in the order they registered (a copy)
+    public List<Participant> getParticipants() {
+        return participants.getRegistered();
+    }
+
+    public ParticipantRegistry getRegistry() {
         return participants;
     }
 
+    // Stamp for optimistic updates: read it, then pass it to DataManager.updateEvent to change nothing if it moved on
+    public long getVersion() {
+        return version;
+    }
+
+    // Called with the event's lock held, so the read and write can't interleave
+    long nextVersion() {
+        return ++version;
+    }
+
     // Setters - These let you CHANGE the information
     public void setEventName(String eventName) {
         this.eventName = eventName;
     }
 
+    // Move to another day, keeping the times and the length
     public void setDate(LocalDate date) {
-        this.date = date;
+        LocalDateTime newStart = date.atTime(start.toLocalTime());
+        setTimes(newStart, newStart.plus(Duration.between(start, end)));
+    }
+
+    public void setTimes(LocalDateTime start, LocalDateTime end) {
+        if (!end.isAfter(start)) throw new IllegalArgumentException("The event must end after it starts");
+        this.start = start;
+        this.end = end;
     }
 
     public void setVenue(String venue) {
-        this.venue = venue;
+        this.venue = SymbolTable.SHARED.intern(venue);
     }
 
     public void setOrganizer(String organizer) {
-        this.organizer = organizer;
+        this.organizer = SymbolTable.SHARED.intern(organizer);
     }
 
     // Special methods
-    public void addParticipant(String participant) {
-        participants.add(participant);  // Add someone to the event
+    public ParticipantRegistry.Result addParticipant(Participant participant) {
+        return participants.register(participant);  // Add someone to the event, or to the waitlist if full
     }
 
     public int getParticipantCount() {
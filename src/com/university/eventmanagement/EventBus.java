@@ -0,0 +1,195 @@
+package com.university.eventmanagement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands items from any number of publishers to any number of subscribers,
+ * each subscriber on its own thread, in the style of the LMAX Disruptor.
+ * Items go into a fixed ring of slots: a publisher claims the next sequence
+ * number with one atomic add, fills that slot and marks it published, with
+ * no lock. Each subscriber keeps its own position and takes everything
+ * published since it last looked as one batch, so a busy subscriber
+ * catches up in a few large calls rather than many small ones.
+ * A publisher about to overwrite a slot the slowest subscriber has not read
+ * yet waits for it, so a subscriber that falls behind slows publishers
+ * down instead of items being lost or piling up without limit.
+ * Subscribers must not publish to the bus they are on: with the ring full
+ * they would wait for themselves, so publish refuses.
+ */
+public final class EventBus<T> {
+    private static final int SPINS = 200;                 // busy-wait this long before parking
+    private static final long PUBLISHER_PARK_NANOS = 20_000;
+    // The bus whose subscriber the current thread runs, if any
+    private static final ThreadLocal<EventBus<?>> SUBSCRIBER_OF = new ThreadLocal<>();
+
+    @FunctionalInterface
+    public interface Subscriber<T> {
+        /**
+         * Everything published since the last call, in order. The list is
+         * reused once this returns, so copy anything kept from it.
+         */
+        void onBatch(List<T> batch);
+    }
+
+    private final int mask;
+    private final AtomicReferenceArray<T> entries;
+    // The sequence last published into each slot; an entry is readable once its slot shows its sequence
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();   // next sequence to hand out
+    private final List<Consumer> consumers = new CopyOnWriteArrayList<>();
+
+    /**
+     * A bus holding up to capacity items not yet taken by every subscriber;
+     * capacity must be a power of two
+     */
+    public EventBus(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        mask = capacity - 1;
+        entries = new AtomicReferenceArray<>(capacity);
+        published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * Deliver everything published from now on to the subscriber, on a new
+     * daemon thread named "bus-" + name, until it is unsubscribed.
+     * A subscriber that throws is told about later batches all the same.
+     */
+    public void subscribe(String name, Subscriber<T> subscriber) {
+        Consumer consumer = new Consumer(subscriber);
+        // Added before reading the start, so every publisher that claims a later sequence waits for it
+        consumers.add(consumer);
+        consumer.position = claimed.get();
+        consumer.thread = new Thread(consumer, "bus-" + name);
+        consumer.thread.setDaemon(true);
+        consumer.thread.start();
+    }
+
+    /**
+     * Stop delivering to the subscriber and let its thread end. A batch it is
+     * handling already is finished; publishers stop waiting for it at once.
+     */
+    public void unsubscribe(Subscriber<T> subscriber) {
+        for (Consumer consumer : consumers) {
+            if (consumer.subscriber == subscriber) {
+                consumers.remove(consumer);
+                consumer.stopped = true;
+                LockSupport.unpark(consumer.thread);
+            }
+        }
+    }
+
+    /**
+     * Add an item for every subscriber. Returns at once unless the slowest
+     * subscriber is a whole ring behind, and then waits for it.
+     * Throws IllegalStateException if called from one of this bus's
+     * subscribers, which could end up waiting for itself.
+     */
+    public void publish(T item) {
+        if (SUBSCRIBER_OF.get() == this) {
+            throw new IllegalStateException("A subscriber can't publish to its own bus");
+        }
+        long sequence = claimed.getAndIncrement();
+        awaitRoom(sequence);
+        int slot = (int) sequence & mask;
+        entries.lazySet(slot, item);
+        published.set(slot, sequence);   // a volatile write, so the entry is seen with it
+        for (Consumer consumer : consumers) {
+            // Only the first publisher to find it asleep wakes it
+            if (consumer.sleeping.get() && consumer.sleeping.compareAndSet(true, false)) {
+                LockSupport.unpark(consumer.thread);
+            }
+        }
+    }
+
+    /**
+     * Items published but not yet taken by the slowest subscriber
+     */
+    public long backlog() {
+        return Math.max(0, claimed.get() - slowest(claimed.get()));
+    }
+
+    private void awaitRoom(long sequence) {
+        long wrapPoint = sequence - entries.length();   // the sequence whose slot this one reuses
+        int spins = 0;
+        while (wrapPoint >= slowest(sequence)) {
+            if (++spins < SPINS) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(PUBLISHER_PARK_NANOS);
+            }
+        }
+    }
+
+    private long slowest(long limit) {
+        long min = limit;
+        for (Consumer consumer : consumers) {
+            min = Math.min(min, consumer.position);
+        }
+        return min;
+    }
+
+    private final class Consumer implements Runnable {
+        private final Subscriber<T> subscriber;
+        private final List<T> batch = new ArrayList<>();
+        // Next sequence to read; every slot before it is free for publishers
+        private volatile long position;
+        private final AtomicBoolean sleeping = new AtomicBoolean();
+        private volatile boolean stopped;
+        private Thread thread;
+
+        Consumer(Subscriber<T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void run() {
+            SUBSCRIBER_OF.set(EventBus.this);
+            long next = position;
+            while (!stopped) {
+                long end = next;
+                while (end - next <= mask && published.get((int) end & mask) == end) {
+                    end++;
+                }
+                if (end == next) {
+                    await(next);
+                    continue;
+                }
+                for (long sequence = next; sequence < end; sequence++) {
+                    batch.add(entries.get((int) sequence & mask));
+                }
+                try {
+                    subscriber.onBatch(batch);
+                } catch (RuntimeException e) {
+                    System.err.println("Error in " + Thread.currentThread().getName() + ": " + e);
+                }
+                batch.clear();
+                next = end;
+                position = end;
+            }
+        }
+
+        private void await(long sequence) {
+            int slot = (int) sequence & mask;
+            for (int i = 0; i < SPINS; i++) {
+                if (published.get(slot) == sequence) return;
+                Thread.onSpinWait();
+            }
+            // Publishers unpark sleepers after publishing, so check again once marked asleep
+            sleeping.set(true);
+            if (published.get(slot) != sequence) LockSupport.park(this);
+            sleeping.set(false);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.university.eventmanagement;
+
+/**
+ * One change to the store, as published on DataManager's event bus.
+ * Subscribers look the event up again by ID rather than trusting a copy,
+ * so changes seen out of order or coalesced still end at the current state.
+ */
+public final class EventChange {
+    public enum Kind {
+        ADDED, UPDATED, REMOVED,
+        REGISTERED, WAITLISTED, CANCELLED   // carry the participant's name
+    }
+
+    private final Kind kind;
+    private final int eventId;
+    private final long version;
+    private final String participant;
+
+    EventChange(Kind kind, Event event) {
+        this(kind, event, null);
+    }
+
+    EventChange(Kind kind, Event event, String participant) {
+        this.kind = kind;
+        this.eventId = event.getEventId();
+        this.version = event.getVersion();
+        this.participant = participant;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public int getEventId() {
+        return eventId;
+    }
+
+    /**
+     * The event's version just after the change
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Who registered, was waitlisted or cancelled; null for other kinds
+     */
+    public String getParticipant() {
+        return participant;
+    }
+
+    @Override
+    public String toString() {
+        return kind + " " + eventId + " v" + version + (participant == null ? "" : " " + participant);
+    }
+}
@@ -0,0 +1,156 @@
+package com.university.eventmanagement;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory indexes over the events held by DataManager:
+ * by ID, and by venue and time for bookings, conflict checks and range queries.
+ * DataManager keeps them in step with every add, remove and update.
+ * The maps are concurrent, so lookups never wait for a writer; each venue's
+ * IntervalTree is locked only while it is read or changed.
+ */
+public class EventIndex {
+    private final Map<Integer, Event> byId = new ConcurrentHashMap<>();
+    // Keyed by folded venue code, so venues match ignoring case
+    private final Map<Integer, IntervalTree> byVenue = new ConcurrentHashMap<>();
+
+    public EventIndex(Collection<Event> events) {
+        for (Event event : events) {
+            add(event);
+        }
+    }
+
+    public void add(Event event) {
+        byId.put(event.getEventId(), event);
+        long start = seconds(event.getStart());
+        long end = seconds(event.getEnd());
+        // compute() keeps the "create tree / drop empty tree" steps atomic per venue
+        byVenue.compute(venueKey(event), (k, tree) -> {
+            if (tree == null) tree = new IntervalTree();
+            synchronized (tree) {
+                tree.add(start, end, event);
+            }
+            return tree;
+        });
+    }
+
+    public void remove(Event event) {
+        byId.remove(event.getEventId());
+        removeBooking(event);
+    }
+
+    /**
+     * Take an event out of its venue's bookings before changing its times or
+     * venue, and add it again after; it stays findable by ID throughout
+     */
+    void removeBooking(Event event) {
+        long start = seconds(event.getStart());
+        byVenue.computeIfPresent(venueKey(event), (k, tree) -> {
+            synchronized (tree) {
+                tree.remove(start, event);
+                return tree.isEmpty() ? null : tree;
+            }
+        });
+    }
+
+    public Event get(int eventId) {
+        return byId.get(eventId);
+    }
+
+    /**
+     * Events at the venue on any part of the date
+     */
+    public List<Event> getConflicting(LocalDate date, String venue) {
+        return getBookings(venue, date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * Events at the venue (ignoring case) overlapping [from, to), in start order
+     */
+    public List<Event> getBookings(String venue, LocalDateTime from, LocalDateTime to) {
+        int venueCode = SymbolTable.SHARED.findFolded(venue);
+        if (venueCode < 0) return List.of();   // no event has ever used this venue
+        IntervalTree tree = byVenue.get(venueCode);
+        if (tree == null) return List.of();
+        List<Event> result = new ArrayList<>();
+        synchronized (tree) {
+            tree.overlapping(seconds(from), seconds(to), result);
+        }
+        return result;
+    }
+
+    /**
+     * Whether another indexed event at the same venue overlaps this one
+     */
+    boolean hasConflict(Event event) {
+        IntervalTree tree = byVenue.get(venueKey(event));
+        if (tree == null) return false;
+        synchronized (tree) {
+            return tree.overlaps(seconds(event.getStart()), seconds(event.getEnd()), event);
+        }
+    }
+
+    /**
+     * Events at any venue overlapping [from, to), in start order
+     */
+    public List<Event> getOverlapping(LocalDateTime from, LocalDateTime to) {
+        long f = seconds(from);
+        long t = seconds(to);
+        List<Event> result = new ArrayList<>();
+        for (IntervalTree tree : byVenue.values()) {
+            synchronized (tree) {
+                tree.overlapping(f, t, result);
+            }
+        }
+        result.sort(Comparator.comparing(Event::getStart).thenComparingInt(Event::getEventId));
+        return result;
+    }
+
+    /**
+     * Venues that have at least one event, sorted by name
+     */
+    public List<String> getVenues() {
+        List<String> result = new ArrayList<>();
+        for (IntervalTree tree : byVenue.values()) {
+            synchronized (tree) {
+                if (!tree.isEmpty()) result.add(tree.any().getVenue());
+            }
+        }
+        result.sort(String.CASE_INSENSITIVE_ORDER);
+        return result;
+    }
+
+    /**
+     * Venues with no event overlapping [from, to), sorted by name.
+     * Only venues that currently have at least one event are known.
+     */
+    public List<String> getFreeVenues(LocalDateTime from, LocalDateTime to) {
+        long f = seconds(from);
+        long t = seconds(to);
+        List<String> result = new ArrayList<>();
+        for (IntervalTree tree : byVenue.values()) {
+            synchronized (tree) {
+                if (!tree.isEmpty() && !tree.overlaps(f, t, null)) result.add(tree.any().getVenue());
+            }
+        }
+        result.sort(String.CASE_INSENSITIVE_ORDER);
+        return result;
+    }
+
+    private static int venueKey(Event event) {
+        return SymbolTable.SHARED.folded(event.getVenueCode());
+    }
+
+    // Event times have no time zone; any fixed offset gives a consistent order
+    private static long seconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,491 @@
+package com.university.eventmanagement;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+/**
+ * Append-only write-ahead log of event changes.
+ * Every change is one short line forced to disk, instead of rewriting all events.
+ * The log is replayed over the saved snapshot at startup and folded back into
+ * the snapshot by a background compaction once it grows large.
+ * Writes are queued and run on DataManager's single writer thread, so the
+ * caller (usually the Swing event thread) never waits for the disk.
+ */
+public class EventLog {
+    private static final String LOG_FILE = DatabaseManager.DATA_DIR + "/events.log";
+    // Log being folded into the snapshot; replayed too if we crashed mid-compaction
+    private static final String COMPACTING_FILE = DatabaseManager.DATA_DIR + "/events.log.compacting";
+    private static final int COMPACT_THRESHOLD = 1000;
+
+    private static final Metrics.Histogram FLUSH_TIME = Metrics.histogram("log.flush");
+    private static final Metrics.Counter BYTES_WRITTEN = Metrics.counter("log.bytesWritten");
+    private static final Metrics.Counter RECORDS_WRITTEN = Metrics.counter("log.records");
+
+    private final ExecutorService writer;
+    private FileChannel channel;      // only touched on the writer thread
+    private int recordCount;
+    private Batch openBatch;          // records waiting for the next flush
+
+    /**
+     * All disk writes run on the given single-thread executor, in submission order
+     */
+    public EventLog(ExecutorService writer) {
+        this.writer = writer;
+        writer.execute(() -> {
+            try {
+                open();
+            } catch (IOException e) {
+                System.err.println("Error opening event log: " + e.getMessage());
+            }
+        });
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(Path.of(LOG_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    // Record formats (one per line; fields are length:value, see LineFields):
+    //   ADD <event>                          UPDATE ID Name EpochDay Venue Organizer Start End
+    //   REMOVE ID                            CAPACITY ID Capacity
+    //   REGISTER ID Name Type RegisteredAt   CANCEL ID Name
+    //   BEGIN|Count ... COMMIT   records that are replayed all together or not at all
+    // <event> is ID Name EpochDay Venue Organizer Capacity, then the registered
+    // participants and the waitlist, each as Count followed by Name Type RegisteredAt,
+    // then Start End. Start and End are local epoch seconds.
+    public CompletableFuture<Void> logAdd(Event event) {
+        return append(encodeAdd(event));
+    }
+
+    /**
+     * Log several new events as one transaction: after a crash
+     * either all of them are replayed or none are
+     */
+    public CompletableFuture<Void> logAddAll(List<Event> events) {
+        List<String> records = new ArrayList<>(events.size() + 2);
+        records.add("BEGIN|" + events.size());
+        for (Event event : events) {
+            records.add(encodeAdd(event));
+        }
+        records.add("COMMIT");
+        return append(records);
+    }
+
+    public CompletableFuture<Void> logUpdate(Event event) {
+        StringBuilder record = new StringBuilder("UPDATE ");
+        LineFields.put(record, event.getEventId());
+        LineFields.put(record, event.getEventName());
+        LineFields.put(record, event.getDate().toEpochDay());
+        LineFields.put(record, event.getVenue());
+        LineFields.put(record, event.getOrganizer());
+        putTimes(record, event);
+        return append(record.toString());
+    }
+
+    public CompletableFuture<Void> logRemove(Event event) {
+        return append(LineFields.put(new StringBuilder("REMOVE "), event.getEventId()).toString());
+    }
+
+    // Replaying a registration is harmless: the registry ignores someone already registered
+    public CompletableFuture<Void> logRegister(Event event, Participant participant) {
+        StringBuilder record = new StringBuilder("REGISTER ");
+        LineFields.put(record, event.getEventId());
+        putParticipant(record, participant);
+        return append(record.toString());
+    }
+
+    public CompletableFuture<Void> logCancel(Event event, String name) {
+        StringBuilder record = new StringBuilder("CANCEL ");
+        LineFields.put(record, event.getEventId());
+        LineFields.put(record, name);
+        return append(record.toString());
+    }
+
+    public CompletableFuture<Void> logCapacity(Event event, int capacity) {
+        StringBuilder record = new StringBuilder("CAPACITY ");
+        LineFields.put(record, event.getEventId());
+        LineFields.put(record, capacity);
+        return append(record.toString());
+    }
+
+    private static String encodeAdd(Event event) {
+        ParticipantRegistry registry = event.getRegistry();
+        int capacity;
+        List<Participant> registered;
+        List<Participant> waitlist;
+        synchronized (registry) {   // one consistent view of the registry
+            capacity = registry.getCapacity();
+            registered = registry.getRegistered();
+            waitlist = registry.getWaitlist();
+        }
+        StringBuilder record = new StringBuilder("ADD ");
+        LineFields.put(record, event.getEventId());
+        LineFields.put(record, event.getEventName());
+        LineFields.put(record, event.getDate().toEpochDay());
+        LineFields.put(record, event.getVenue());
+        LineFields.put(record, event.getOrganizer());
+        LineFields.put(record, capacity);
+        for (List<Participant> participants : List.of(registered, waitlist)) {
+            LineFields.put(record, participants.size());
+            for (Participant participant : participants) {
+                putParticipant(record, participant);
+            }
+        }
+        putTimes(record, event);
+        return record.toString();
+    }
+
+    private static Event decodeAdd(LineFields fields) {
+        Event event = new Event(fields.nextInt(), fields.next(), LocalDate.ofEpochDay(fields.nextLong()),
+                fields.next(), fields.next());
+        ParticipantRegistry registry = event.getRegistry();
+        int capacity = fields.nextInt();
+        for (int i = fields.nextInt(); i > 0; i--) {
+            registry.addRegistered(nextParticipant(fields));
+        }
+        registry.setCapacity(capacity);
+        for (int i = fields.nextInt(); i > 0; i--) {
+            registry.addToWaitlist(nextParticipant(fields));
+        }
+        setTimes(event, fields);
+        return event;
+    }
+
+    private static void putTimes(StringBuilder record, Event event) {
+        LineFields.put(record, event.getStart().toEpochSecond(ZoneOffset.UTC));
+        LineFields.put(record, event.getEnd().toEpochSecond(ZoneOffset.UTC));
+    }
+
+    private static void setTimes(Event event, LineFields fields) {
+        event.setTimes(LocalDateTime.ofEpochSecond(fields.nextLong(), 0, ZoneOffset.UTC),
+                LocalDateTime.ofEpochSecond(fields.nextLong(), 0, ZoneOffset.UTC));
+    }
+
+    private static void putParticipant(StringBuilder record, Participant participant) {
+        LineFields.put(record, participant.getName());
+        LineFields.put(record, participant.getType().name());
+        LineFields.put(record, participant.getRegisteredAt().toEpochMilli());
+    }
+
+    private static Participant nextParticipant(LineFields fields) {
+        return new Participant(fields.next(), Participant.Type.valueOf(fields.next()),
+                Instant.ofEpochMilli(fields.nextLong()));
+    }
+
+    /**
+     * Queue a record. Records queued before the writer gets to them
+     * go out together in one write and one fsync.
+     * The future completes once the record is on disk.
+     */
+    private CompletableFuture<Void> append(String record) {
+        return append(List.of(record));
+    }
+
+    private synchronized CompletableFuture<Void> append(List<String> records) {
+        if (openBatch == null) {
+            Batch batch = new Batch();
+            openBatch = batch;
+            writer.execute(() -> flush(batch));
+        }
+        openBatch.records.addAll(records);
+        return openBatch.done;
+    }
+
+    private void flush(Batch batch) {
+        synchronized (this) {
+            if (openBatch == batch) openBatch = null;  // later records start a new batch
+        }
+        long start = Metrics.now();
+        try {
+            // Not open if opening failed before; try again rather than lose every later change
+            if (channel == null || !channel.isOpen()) open();
+            StringBuilder text = new StringBuilder();
+            for (String record : batch.records) {
+                text.append(record).append('\n');
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+            FLUSH_TIME.recordSince(start);
+            BYTES_WRITTEN.add(buffer.capacity());
+            RECORDS_WRITTEN.add(batch.records.size());
+            synchronized (this) {
+                recordCount += batch.records.size();
+            }
+            batch.done.complete(null);
+        } catch (IOException e) {
+            System.err.println("Error writing event log: " + e.getMessage());
+            batch.done.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Compact once the log has grown past the threshold
+     */
+    public synchronized void compactIfNeeded(Supplier<List<Event>> snapshot) {
+        if (recordCount >= COMPACT_THRESHOLD) {
+            compact(snapshot);
+        }
+    }
+
+    /**
+     * Completes once everything queued so far is on disk
+     */
+    public CompletableFuture<Void> flush() {
+        return CompletableFuture.runAsync(() -> { }, writer);
+    }
+
+    /**
+     * Save a full snapshot and then discard the log, on the writer thread.
+     * The snapshot is taken now, so records queued after this call
+     * are written after the log has been cleared.
+     */
+    public CompletableFuture<Boolean> checkpoint(Supplier<List<Event>> snapshot) {
+        List<Event> events;
+        synchronized (this) {
+            events = snapshot.get();
+            openBatch = null;
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            if (!DatabaseManager.saveEvents(events)) return false;
+            try {
+                if (channel != null) {
+                    channel.truncate(0);
+                    channel.force(true);
+                }
+                Files.deleteIfExists(Path.of(COMPACTING_FILE));
+                synchronized (this) {
+                    recordCount = 0;
+                }
+                return true;
+            } catch (IOException e) {
+                System.err.println("Error clearing event log: " + e.getMessage());
+                return false;
+            }
+        }, writer);
+    }
+
+    /**
+     * Start a new log and fold the old one into the snapshot, on the writer thread.
+     * Rotation and snapshot happen at the same point in the record stream,
+     * so the snapshot covers every rotated record.
+     */
+    public void compact(Supplier<List<Event>> snapshot) {
+        List<Event> events;
+        synchronized (this) {
+            events = snapshot.get();
+            openBatch = null;
+            recordCount = 0;
+        }
+        writer.execute(() -> {
+            boolean rotated = false;
+            try {
+                if (channel != null) channel.close();
+                rotate();
+                rotated = true;
+            } catch (IOException e) {
+                System.err.println("Error rotating event log: " + e.getMessage());
+            }
+            try {
+                // The new log, or if rotating failed the old one again, so later changes are still logged
+                open();
+            } catch (IOException e) {
+                System.err.println("Error opening event log: " + e.getMessage());
+            }
+            if (!rotated) return;
+            try {
+                if (DatabaseManager.saveEvents(events)) {
+                    Files.deleteIfExists(Path.of(COMPACTING_FILE));
+                }
+            } catch (IOException e) {
+                System.err.println("Error compacting event log: " + e.getMessage());
+            }
+        });
+    }
+
+    private void rotate() throws IOException {
+        Path log = Path.of(LOG_FILE);
+        Path compactingLog = Path.of(COMPACTING_FILE);
+        if (Files.exists(compactingLog)) {
+            // An earlier compaction never finished: keep its records in front of ours
+            Files.write(compactingLog, Files.readAllBytes(log), StandardOpenOption.APPEND);
+            Files.delete(log);
+        } else {
+            Files.move(log, compactingLog, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * Apply logged changes on top of the events loaded from the snapshot
+     * Returns the number of records replayed
+     */
+    public static int replay(List<Event> events) {
+        if (isEmpty(COMPACTING_FILE) && isEmpty(LOG_FILE)) {
+            return 0; // Nothing to apply - leave lazily loaded events undecoded
+        }
+
+        EventsById byId = new EventsById(events);
+        return replayFile(COMPACTING_FILE, events, byId) + replayFile(LOG_FILE, events, byId);
+    }
+
+    /**
+     * Events by ID while replaying. On a lazily loaded snapshot, lookups
+     * decode only the events the log names; the first add or remove, which
+     * decodes the list anyway, switches to a plain map.
+     */
+    private static final class EventsById {
+        private final List<Event> events;
+        private Map<Integer, Event> map;
+
+        EventsById(List<Event> events) {
+            this.events = events;
+        }
+
+        Event get(int eventId) {
+            if (map == null && EventSnapshot.canFindById(events)) return EventSnapshot.findById(events, eventId);
+            return map().get(eventId);
+        }
+
+        Event put(Event event) {
+            return map().put(event.getEventId(), event);
+        }
+
+        Event remove(int eventId) {
+            return map().remove(eventId);
+        }
+
+        private Map<Integer, Event> map() {
+            if (map == null) {
+                map = new HashMap<>();
+                for (Event event : events) {
+                    map.put(event.getEventId(), event);
+                }
+            }
+            return map;
+        }
+    }
+
+    private static boolean isEmpty(String fileName) {
+        File file = new File(fileName);
+        return !file.exists() || file.length() == 0;
+    }
+
+    private static int replayFile(String fileName, List<Event> events, EventsById byId) {
+        if (isEmpty(fileName)) return 0;
+        File file = new File(fileName);
+
+        int replayed = 0;
+        List<String> transaction = null;   // records since BEGIN, held back until COMMIT
+        try (BufferedReader reader = new BufferedReader(new FileReader(file, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) continue;
+                if (line.startsWith("BEGIN|")) {
+                    transaction = new ArrayList<>();
+                } else if (line.equals("COMMIT") && transaction != null) {
+                    for (String record : transaction) {
+                        replayed += replayRecord(record, events, byId);
+                    }
+                    transaction = null;
+                } else if (transaction != null) {
+                    transaction.add(line);
+                } else {
+                    replayed += replayRecord(line, events, byId);
+                }
+            }
+            if (transaction != null) {
+                System.err.println("Skipped unfinished transaction of " + transaction.size() + " log records");
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading event log: " + e.getMessage());
+        }
+        return replayed;
+    }
+
+    private static int replayRecord(String line, List<Event> events, EventsById byId) {
+        try {
+            int space = line.indexOf(' ');
+            applyRecord(line.substring(0, space), new LineFields(line, space + 1), events, byId);
+            return 1;
+        } catch (Exception e) {
+            // A torn last line from a crash is expected; anything else is reported
+            System.err.println("Error replaying log record: " + line);
+            return 0;
+        }
+    }
+
+    private static void applyRecord(String type, LineFields fields, List<Event> events, EventsById byId) {
+        switch (type) {
+            case "ADD": {
+                Event event = decodeAdd(fields);
+                Event existing = byId.put(event);
+                if (existing != null) {
+                    events.set(events.indexOf(existing), event);
+                } else {
+                    events.add(event);
+                }
+                break;
+            }
+            case "UPDATE": {
+                Event event = byId.get(fields.nextInt());
+                if (event != null) {
+                    event.setEventName(fields.next());
+                    event.setDate(LocalDate.ofEpochDay(fields.nextLong()));
+                    event.setVenue(fields.next());
+                    event.setOrganizer(fields.next());
+                    setTimes(event, fields);
+                }
+                break;
+            }
+            case "REMOVE": {
+                Event event = byId.remove(fields.nextInt());
+                if (event != null) events.remove(event);
+                break;
+            }
+            case "REGISTER": {
+                Event event = byId.get(fields.nextInt());
+                if (event != null) event.addParticipant(nextParticipant(fields));
+                break;
+            }
+            case "CANCEL": {
+                Event event = byId.get(fields.nextInt());
+                if (event != null) event.getRegistry().cancel(fields.next());
+                break;
+            }
+            case "CAPACITY": {
+                Event event = byId.get(fields.nextInt());
+                if (event != null) event.getRegistry().setCapacity(fields.nextInt());
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown log record: " + type);
+        }
+    }
+
+    private static class Batch {
+        final List<String> records = new ArrayList<>();
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+    }
+}
@@ -1,11 +1,105 @@
 package com.university.eventmanagement;
 
 import javax.swing.*;
+import java.awt.*;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.CompletableFuture;
 
 public class EventManagementSystem {
+    /**
+     * Starts the GUI, or with "--server [port]" the headless JSON API (see EventServer)
+     */
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--server")) {
+            startServer(args.length > 1 ? Integer.parseInt(args[1]) : EventServer.DEFAULT_PORT);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--cds-training")) {
+            train();
+            return;
+        }
+        // Load the data while the user is typing their password
+        CompletableFuture<DataManager> data = DataManager.preload();
+        if (Metrics.ENABLED) {
+            Toolkit.getDefaultToolkit().getSystemEventQueue().push(new TimedEventQueue());
+        }
         SwingUtilities.invokeLater(() -> {
-            new LoginFrame().setVisible(true);
+            new LoginFrame(data).setVisible(true);
         });
     }
+
+    /**
+     * Go through the start-up paths once and exit. Run with
+     * -XX:ArchiveClassesAtExit to write a class-data sharing archive of every
+     * class they load (see the "cds" profile in app/pom.xml). The windows are
+     * only opened when there is a display.
+     */
+    private static void train() {
+        DataManager data = DataManager.preload().join();
+        data.authenticate("admin", "training".toCharArray());
+        data.searchEvents("training");
+        try {
+            data.reportAsync().join().writeTo(Writer.nullWriter(), Report.Format.HTML);
+            new CsvExporter().export(data.getAllEvents(), OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        QrCode.encode("training").toImage(220);
+        if (!GraphicsEnvironment.isHeadless()) {
+            try {
+                SwingUtilities.invokeAndWait(() -> {
+                    new LoginFrame().dispose();
+                    new MainFrame("training").dispose();
+                });
+            } catch (InterruptedException | InvocationTargetException e) {
+                System.err.println("Window training run failed: " + e);
+            }
+        }
+        data.flush().join();
+        System.exit(0);
+    }
+
+    private static void startServer(int port) {
+        try {
+            EventServer server = new EventServer(DataManager.getInstance(), port);
+            Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "event-server-shutdown"));
+            server.start();
+        } catch (IOException e) {
+            System.err.println("Cannot start the event service on port " + port + ": " + e.getMessage());
+            System.exit(1);
+        } catch (IllegalStateException e) {
+            System.err.println("Cannot open the event data: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Times every event the Swing thread handles, so metrics show how long the UI was blocked
+     */
+    private static class TimedEventQueue extends EventQueue {
+        private static final long SLOW_NANOS = 100_000_000;   // long enough to notice
+
+        private final Metrics.Histogram dispatchTime = Metrics.histogram("edt.dispatch");
+        private final Metrics.Counter blockedMillis = Metrics.counter("edt.slowDispatchMillis");
+        private final Metrics.Counter slowDispatches = Metrics.counter("edt.slowDispatches");
+
+        @Override
+        protected void dispatchEvent(AWTEvent event) {
+            long start = System.nanoTime();
+            try {
+                super.dispatchEvent(event);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                dispatchTime.record(elapsed);
+                if (elapsed >= SLOW_NANOS) {
+                    slowDispatches.increment();
+                    blockedMillis.add(elapsed / 1_000_000);
+                }
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,136 @@
+package com.university.eventmanagement;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Events in a store, read a page at a time.
+ * Pages follow the order events were added and continue from a cursor (the
+ * last event of the previous page), so a page stays correct when events are
+ * added or removed elsewhere, and only the events on it are loaded.
+ * Summaries are a cheaper projection for lists and reports.
+ *
+ * Backends: FileEventRepository (DataManager's snapshot and log files) and
+ * JdbcEventRepository (any JDBC database, e.g. an embedded H2 file).
+ */
+public interface EventRepository extends AutoCloseable {
+
+    int count();
+
+    /**
+     * The event with this ID, or null
+     */
+    Event find(int eventId);
+
+    /**
+     * Up to 'size' events following the cursor (Cursor.START for the first page)
+     */
+    Page<Event> page(Cursor after, int size);
+
+    /**
+     * As page, but only ID, name, times, venue and participant count
+     */
+    Page<EventSummary> summaries(Cursor after, int size);
+
+    /**
+     * Add the event, or replace the stored event with the same ID
+     */
+    void save(Event event);
+
+    /**
+     * Returns false if there was no such event
+     */
+    boolean delete(int eventId);
+
+    @Override
+    void close();
+
+    /**
+     * Every event, fetched lazily one page at a time
+     */
+    default Stream<Event> stream(int pageSize) {
+        Iterator<Event> events = new Iterator<>() {
+            private Page<Event> page = page(Cursor.START, pageSize);
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == page.getItems().size()) {
+                    if (!page.hasMore()) return false;
+                    page = page(page.getNext(), pageSize);
+                    next = 0;
+                }
+                return true;
+            }
+
+            @Override
+            public Event next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return page.getItems().get(next++);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(events,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Save every event of another repository into this one, e.g. to move to another backend.
+     * Returns the number copied.
+     */
+    default int copyFrom(EventRepository source) {
+        int[] copied = {0};
+        try (Stream<Event> events = source.stream(1000)) {
+            events.forEach(event -> {
+                save(event);
+                copied[0]++;
+            });
+        }
+        return copied[0];
+    }
+
+    /**
+     * Where a page ended. Only meaningful to the repository that returned it.
+     */
+    final class Cursor {
+        public static final Cursor START = new Cursor(-1, 0);
+
+        final long position;   // backend-specific place of the last event
+        final int eventId;     // the last event itself, to check the place is still right
+
+        Cursor(long position, int eventId) {
+            this.position = position;
+            this.eventId = eventId;
+        }
+    }
+
+    final class Page<T> {
+        private final List<T> items;
+        private final Cursor next;   // null on the last page
+
+        Page(List<T> items, Cursor next) {
+            this.items = Collections.unmodifiableList(items);
+            this.next = next;
+        }
+
+        public List<T> getItems() {
+            return items;
+        }
+
+        public boolean hasMore() {
+            return next != null;
+        }
+
+        /**
+         * Cursor for the following page; only valid if hasMore()
+         */
+        public Cursor getNext() {
+            return next;
+        }
+    }
+}
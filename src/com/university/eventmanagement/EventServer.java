@@ -0,0 +1,484 @@
+package com.university.eventmanagement;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves DataManager as a JSON API on the loopback interface, with no GUI.
+ * Started by "EventManagementSystem --server [port]".
+ *
+ *   POST   /api/login                          {"username", "password"} -> {"token"}
+ *   GET    /api/events?limit=&cursor=          a page of events, and the next cursor
+ *   GET    /api/events?q=&limit=               search
+ *   POST   /api/events                         {"name", "start", "end", "venue", "organizer"}
+ *   GET    /api/events/{id}                    with participants and waitlist
+ *   PUT    /api/events/{id}                    any of the above fields, "capacity", "force", "version"
+ *   DELETE /api/events/{id}
+ *   POST   /api/events/{id}/participants       {"name", "type"}
+ *   DELETE /api/events/{id}/participants/{name}
+ *   GET    /api/export?q=                      CSV
+ *
+ * Everything but login needs "Authorization: Bearer <token>". An event's
+ * "version" sent back with a PUT makes it fail with 409 if someone else
+ * changed the event in between. Times are ISO
+ * (2026-11-03T09:00); a date alone makes an all-day event. Each request runs
+ * on its own virtual thread where the JVM has them (21+), otherwise on a
+ * fixed pool.
+ */
+public class EventServer {
+    public static final int DEFAULT_PORT = 8080;
+    private static final int MAX_BODY = 64 * 1024;
+    private static final int DEFAULT_PAGE = 50;
+    private static final int MAX_PAGE = 500;
+    private static final long SESSION_MILLIS = TimeUnit.HOURS.toMillis(8);
+
+    private static final Metrics.Histogram REQUEST_TIME = Metrics.histogram("http.request");
+    private static final Metrics.Counter ERRORS = Metrics.counter("http.serverErrors");
+
+    private final DataManager data;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final SecureRandom random = new SecureRandom();
+    // Token -> when it expires (epoch millis); expired ones are dropped at each login
+    private final Map<String, Long> sessions = new ConcurrentHashMap<>();
+
+    public EventServer(DataManager data, int port) throws IOException {
+        this.data = data;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = newExecutor();
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handle);
+    }
+
+    public void start() {
+        server.start();
+        System.out.println("Event service listening on http://" + server.getAddress().getHostString() + ":"
+                + server.getAddress().getPort() + "/api/");
+    }
+
+    /**
+     * Stop taking requests, give running ones a second to finish, and wait for the store to be written
+     */
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+        try {
+            data.flush().join();
+        } catch (RejectedExecutionException e) {
+            // JVM exit: DataManager's own hook is already draining the writer
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private static ExecutorService newExecutor() {
+        try {
+            // Looked up at run time so the code still builds for Java 17
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newFixedThreadPool(Math.max(8, Runtime.getRuntime().availableProcessors() * 4),
+                    r -> new Thread(r, "http-worker-" + count.incrementAndGet()));
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long start = Metrics.now();
+        try {
+            route(exchange);
+        } catch (ApiException e) {
+            sendError(exchange, e.status, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            ERRORS.increment();
+            System.err.println("Error handling " + exchange.getRequestMethod() + " "
+                    + exchange.getRequestURI() + ": " + e);
+            sendError(exchange, 500, "Internal error");
+        } finally {
+            exchange.close();
+            REQUEST_TIME.recordSince(start);
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String[] path = exchange.getRequestURI().getRawPath().substring("/api/".length()).split("/");
+        Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+
+        if (path[0].equals("login") && path.length == 1) {
+            requireMethod(method, "POST");
+            login(exchange);
+            return;
+        }
+        authenticate(exchange);
+
+        if (path[0].equals("export") && path.length == 1) {
+            requireMethod(method, "GET");
+            export(exchange, query.get("q"));
+            return;
+        }
+        if (!path[0].equals("events")) throw new ApiException(404, "No such resource");
+        if (path.length == 1) {
+            if (method.equals("GET")) {
+                listEvents(exchange, query);
+            } else if (method.equals("POST")) {
+                addEvent(exchange);
+            } else {
+                throw new ApiException(405, "Use GET or POST");
+            }
+            return;
+        }
+
+        Event event = data.getEventById(parseId(path[1]));
+        if (event == null) throw new ApiException(404, "No event " + path[1]);
+        if (path.length == 2) {
+            switch (method) {
+                case "GET": send(exchange, 200, eventJson(new Json.Writer(), event)); break;
+                case "PUT": updateEvent(exchange, event); break;
+                case "DELETE":
+                    data.removeEvent(event);
+                    exchange.sendResponseHeaders(204, -1);
+                    break;
+                default: throw new ApiException(405, "Use GET, PUT or DELETE");
+            }
+        } else if (path[2].equals("participants") && path.length == 3) {
+            requireMethod(method, "POST");
+            register(exchange, event);
+        } else if (path[2].equals("participants") && path.length == 4) {
+            requireMethod(method, "DELETE");
+            String name = URLDecoder.decode(path[3], StandardCharsets.UTF_8);
+            if (!data.cancelParticipant(event, name)) throw new ApiException(404, "No participant " + name);
+            exchange.sendResponseHeaders(204, -1);
+        } else {
+            throw new ApiException(404, "No such resource");
+        }
+    }
+
+    // ---- sessions ----
+
+    private void login(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = body(exchange);
+        String username = string(body, "username");
+        char[] password = string(body, "password").toCharArray();
+        boolean valid = data.authenticate(username, password);
+        Arrays.fill(password, '\0');
+        if (!valid) throw new ApiException(401, "Invalid username or password");
+
+        byte[] bytes = new byte[24];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        long now = System.currentTimeMillis();
+        sessions.values().removeIf(expiresAt -> expiresAt < now);
+        sessions.put(token, now + SESSION_MILLIS);
+        send(exchange, 200, new Json.Writer().beginObject().field("token", token)
+                .field("expiresInSeconds", SESSION_MILLIS / 1000).endObject());
+    }
+
+    private void authenticate(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) throw new ApiException(401, "Log in first");
+        String token = header.substring("Bearer ".length()).trim();
+        Long expiresAt = sessions.get(token);
+        if (expiresAt == null || expiresAt < System.currentTimeMillis()) {
+            if (expiresAt != null) sessions.remove(token);
+            throw new ApiException(401, "Session expired, log in again");
+        }
+    }
+
+    // ---- events ----
+
+    private void listEvents(HttpExchange exchange, Map<String, String> query) throws IOException {
+        int limit = DEFAULT_PAGE;
+        if (query.containsKey("limit")) {
+            limit = Math.max(1, Math.min(MAX_PAGE, parseInt(query.get("limit"), "limit")));
+        }
+        Json.Writer json = new Json.Writer().beginObject();
+        String q = query.get("q");
+        if (q != null && !q.isBlank()) {
+            List<Event> matches = data.searchEvents(q);
+            json.field("total", matches.size()).name("events").beginArray();
+            for (Event event : matches.subList(0, Math.min(limit, matches.size()))) {
+                summaryJson(json, EventSummary.of(event));
+            }
+            json.endArray();
+        } else {
+            EventRepository.Page<EventSummary> page = data.getRepository().summaries(cursor(query.get("cursor")), limit);
+            json.field("total", data.getRepository().count()).name("events").beginArray();
+            for (EventSummary summary : page.getItems()) {
+                summaryJson(json, summary);
+            }
+            json.endArray();
+            EventRepository.Cursor next = page.getNext();
+            json.field("next", next == null ? null : next.position + "." + next.eventId);
+        }
+        send(exchange, 200, json.endObject());
+    }
+
+    private static EventRepository.Cursor cursor(String text) {
+        if (text == null || text.isEmpty()) return EventRepository.Cursor.START;
+        int dot = text.indexOf('.');
+        try {
+            return new EventRepository.Cursor(Long.parseLong(text.substring(0, dot)), Integer.parseInt(text.substring(dot + 1)));
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Bad cursor: " + text);
+        }
+    }
+
+    private void addEvent(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = body(exchange);
+        LocalDateTime[] times = times(body, null);
+        Event event = new Event(string(body, "name"), times[0], times[1],
+                string(body, "venue"), string(body, "organizer"));
+        // Checked and added under one lock, so two requests can't book the same slot
+        if (!data.addEvents(List.of(event)).isEmpty()) {
+            throw new ApiException(409, "Overlaps another event at the same venue");
+        }
+        send(exchange, 201, eventJson(new Json.Writer(), event));
+    }
+
+    private void updateEvent(HttpExchange exchange, Event event) throws IOException {
+        // Without a version from the client, at least don't mix with a change made while this one was read
+        long version = event.getVersion();
+        Map<String, Object> body = body(exchange);
+        if (body.containsKey("version")) version = integer(body, "version", 0, Long.MAX_VALUE);
+        String name = body.containsKey("name") ? string(body, "name") : event.getEventName();
+        String venue = body.containsKey("venue") ? string(body, "venue") : event.getVenue();
+        String organizer = body.containsKey("organizer") ? string(body, "organizer") : event.getOrganizer();
+        LocalDateTime[] times = times(body, event);
+        int capacity = body.containsKey("capacity") ? (int) integer(body, "capacity", 0, Integer.MAX_VALUE) : event.getRegistry().getCapacity();
+        boolean force = Boolean.TRUE.equals(body.get("force"));
+        switch (data.updateEvent(event, version, name, times[0], times[1], venue, organizer, capacity, force)) {
+            case NOT_FOUND: throw new ApiException(404, "No event " + event.getEventId());
+            case STALE: throw new ApiException(409, "The event has changed since version " + version);
+            case CONFLICT: throw new ApiException(409, "Overlaps another event at the same venue");
+            default: break;
+        }
+        send(exchange, 200, eventJson(new Json.Writer(), event));
+    }
+
+    private void register(HttpExchange exchange, Event event) throws IOException {
+        Map<String, Object> body = body(exchange);
+        Participant.Type type = Participant.Type.STUDENT;
+        if (body.containsKey("type")) {
+            type = Participant.Type.fromLabel(string(body, "type"));
+            if (type == null) throw new IllegalArgumentException("Unknown participant type");
+        }
+        Participant participant = new Participant(string(body, "name"), type);
+        ParticipantRegistry.Result result = data.addParticipant(event, participant);
+        if (result == ParticipantRegistry.Result.NOT_FOUND) throw new ApiException(404, "No event " + event.getEventId());
+        if (result == ParticipantRegistry.Result.DUPLICATE) {
+            throw new ApiException(409, participant.getName() + " is already registered");
+        }
+        send(exchange, 201, new Json.Writer().beginObject().field("result", result.name())
+                .field("participants", event.getParticipantCount())
+                .field("waitlisted", event.getRegistry().waitlistSize()).endObject());
+    }
+
+    private void export(HttpExchange exchange, String q) throws IOException {
+        List<Event> events = q == null || q.isBlank() ? data.getAllEvents() : data.searchEvents(q);
+        exchange.getResponseHeaders().set("Content-Type", "text/csv; charset=UTF-8");
+        exchange.getResponseHeaders().set("Content-Disposition", "attachment; filename=\"events.csv\"");
+        exchange.sendResponseHeaders(200, 0);   // chunked, written as it is produced
+        new CsvExporter().export(events, exchange.getResponseBody());
+    }
+
+    // ---- JSON ----
+
+    private static Json.Writer summaryJson(Json.Writer json, EventSummary summary) {
+        return json.beginObject()
+                .field("id", summary.getEventId())
+                .field("name", summary.getEventName())
+                .field("start", summary.getStart().toString())
+                .field("end", summary.getEnd().toString())
+                .field("venue", summary.getVenue())
+                .field("participants", summary.getParticipantCount())
+                .endObject();
+    }
+
+    private static Json.Writer eventJson(Json.Writer json, Event event) {
+        json.beginObject()
+                .field("id", event.getEventId())
+                .field("version", event.getVersion())
+                .field("name", event.getEventName())
+                .field("start", event.getStart().toString())
+                .field("end", event.getEnd().toString())
+                .name("allDay").value(event.isAllDay())
+                .field("venue", event.getVenue())
+                .field("organizer", event.getOrganizer())
+                .field("capacity", event.getRegistry().getCapacity());
+        json.name("participants");
+        participantsJson(json, event.getParticipants());
+        json.name("waitlist");
+        participantsJson(json, event.getRegistry().getWaitlist());
+        return json.endObject();
+    }
+
+    private static void participantsJson(Json.Writer json, List<Participant> participants) {
+        json.beginArray();
+        for (Participant participant : participants) {
+            json.beginObject()
+                    .field("name", participant.getName())
+                    .field("type", participant.getType().toString())
+                    .field("registeredAt", participant.getRegisteredAt().toString())
+                    .endObject();
+        }
+        json.endArray();
+    }
+
+    // ---- request parsing ----
+
+    private static Map<String, Object> body(HttpExchange exchange) throws IOException {
+        byte[] bytes;
+        try (InputStream in = exchange.getRequestBody()) {
+            bytes = in.readNBytes(MAX_BODY + 1);
+        }
+        if (bytes.length > MAX_BODY) throw new ApiException(413, "Request body too large");
+        if (bytes.length == 0) throw new IllegalArgumentException("Expected a JSON body");
+        return Json.parseObject(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    // Start and end from "start"/"end". On a new event a date alone is all day; on an
+    // existing one a missing value is kept, and a date alone moves it keeping its times.
+    private static LocalDateTime[] times(Map<String, Object> body, Event current) {
+        LocalDateTime start;
+        LocalDateTime end;
+        if (current == null) {
+            String startText = string(body, "start");
+            start = dateTime(startText, false);
+            if (body.containsKey("end")) {
+                end = dateTime(string(body, "end"), true);
+            } else {
+                end = startText.contains("T") ? start.plusHours(1) : start.plusDays(1);
+            }
+        } else {
+            start = current.getStart();
+            if (body.containsKey("start")) {
+                String startText = string(body, "start");
+                start = startText.contains("T") ? dateTime(startText, false)
+                        : dateTime(startText, false).toLocalDate().atTime(current.getStart().toLocalTime());
+            }
+            end = body.containsKey("end") ? dateTime(string(body, "end"), true)
+                    : start.plus(Duration.between(current.getStart(), current.getEnd()));
+        }
+        if (!end.isAfter(start)) throw new IllegalArgumentException("The event must end after it starts");
+        return new LocalDateTime[]{start, end};
+    }
+
+    // An end date alone means the end of that day
+    private static LocalDateTime dateTime(String text, boolean isEnd) {
+        try {
+            if (text.contains("T")) return LocalDateTime.parse(text);
+            LocalDate date = LocalDate.parse(text);
+            return isEnd ? date.plusDays(1).atStartOfDay() : date.atStartOfDay();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Bad date or time: " + text);
+        }
+    }
+
+    private static String string(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (value instanceof String && !((String) value).isBlank()) return ((String) value).trim();
+        throw new IllegalArgumentException("\"" + name + "\" must be a non-empty string");
+    }
+
+    private static double number(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (value instanceof Double) return (Double) value;
+        throw new IllegalArgumentException("\"" + name + "\" must be a number");
+    }
+
+    // A whole number in [min, max]; casting would quietly truncate 2.7 or wrap 1e12
+    private static long integer(Map<String, Object> body, String name, long min, long max) {
+        double value = number(body, name);
+        if (value != Math.rint(value) || value < min || value > max) {
+            throw new IllegalArgumentException("\"" + name + "\" must be a whole number from " + min + " to " + max);
+        }
+        return (long) value;
+    }
+
+    private static int parseId(String text) {
+        return parseInt(text, "event ID");
+    }
+
+    private static int parseInt(String text, String what) {
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad " + what + ": " + text);
+        }
+    }
+
+    private static Map<String, String> query(String raw) {
+        Map<String, String> result = new HashMap<>();
+        if (raw == null) return result;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq < 0) continue;
+            result.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return result;
+    }
+
+    private static void requireMethod(String method, String expected) {
+        if (!method.equals(expected)) throw new ApiException(405, "Use " + expected);
+    }
+
+    // ---- responses ----
+
+    private static void send(HttpExchange exchange, int status, Json.Writer json) throws IOException {
+        byte[] bytes = json.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) {
+        try {
+            send(exchange, status, new Json.Writer().beginObject().field("error", message).endObject());
+        } catch (IOException | IllegalStateException e) {
+            // Headers already sent (e.g. an export failed part way); the client sees a cut-off response
+        }
+    }
+
+    /**
+     * A request that can't be served, with the HTTP status to answer
+     */
+    private static final class ApiException extends RuntimeException {
+        final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
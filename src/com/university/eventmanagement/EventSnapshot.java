@@ -0,0 +1,432 @@
+package com.university.eventmanagement;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Binary snapshot of all events, read into memory in one go.
+ * Events are only decoded when something asks for them, so opening
+ * a large snapshot costs little more than reading the file. It is read
+ * rather than memory-mapped because a mapping keeps the file locked on
+ * Windows, where saving could then not replace it.
+ *
+ * Layout (big-endian ints):
+ *   header        MAGIC, VERSION, eventCount, stringCount, maxEventId, recordTablePos, stringTablePos
+ *   record table  eventCount offsets, one per event record
+ *   records       id, epochDay, name, venue, organizer, capacity, registeredCount, waitlistCount,
+ *                 startSecondOfDay, endEpochDay, endSecondOfDay,
+ *                 then per participant (registered, then waitlist): name, type, registeredAt (2 ints)
+ *   string table  stringCount offsets, one per pooled string
+ *   strings       byteLength, UTF-8 bytes
+ * Name, venue, organizer and participant names are indexes into the string pool,
+ * so a venue used by a thousand events is stored once.
+ */
+public class EventSnapshot {
+    private static final int MAGIC = 0x45564E54; // "EVNT"
+    private static final int VERSION = 3;
+    private static final int HEADER_SIZE = 7 * Integer.BYTES;
+    private static final int RECORD_FIXED_SIZE = 11 * Integer.BYTES;
+    private static final int PARTICIPANT_SIZE = 4 * Integer.BYTES;
+    private static final Participant.Type[] TYPES = Participant.Type.values();
+
+    private final ByteBuffer buffer;
+    private final int eventCount;
+    private final int recordTablePos;
+    private final int stringTablePos;
+    private final String[] strings;   // decoded (and shared) on first use
+
+    private EventSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not an event snapshot");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported snapshot version " + buffer.getInt(4));
+        }
+        eventCount = buffer.getInt(8);
+        strings = new String[buffer.getInt(12)];
+        Event.reserveIds(buffer.getInt(16));
+        recordTablePos = buffer.getInt(20);
+        stringTablePos = buffer.getInt(24);
+    }
+
+    /**
+     * Read a snapshot file; nothing but the header is decoded here
+     */
+    public static EventSnapshot open(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot larger than 2GB is not supported");
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading until full
+            }
+            return new EventSnapshot(buffer);
+        }
+    }
+
+    public int size() {
+        return eventCount;
+    }
+
+    /**
+     * The ID of event number i, without decoding it
+     */
+    public int eventId(int i) {
+        return buffer.getInt(record(i));
+    }
+
+    private int record(int i) {
+        return buffer.getInt(recordTablePos + i * Integer.BYTES);
+    }
+
+    // First day, last day and registered count of event number i, without decoding it
+    private void days(int i, DaysVisitor visitor) {
+        int pos = record(i);
+        // The end is exclusive, so an end at midnight means the day before
+        int endDay = buffer.getInt(pos + 36);
+        LocalDate last = LocalDate.ofEpochDay(buffer.getInt(pos + 40) == 0 ? endDay - 1 : endDay);
+        visitor.visit(LocalDate.ofEpochDay(buffer.getInt(pos + 4)), last, buffer.getInt(pos + 24));
+    }
+
+    /**
+     * Decode event number i of the snapshot
+     */
+    public Event decode(int i) {
+        int pos = record(i);
+        Event event = new Event(buffer.getInt(pos),
+                string(buffer.getInt(pos + 8)),
+                LocalDate.ofEpochDay(buffer.getInt(pos + 4)),
+                string(buffer.getInt(pos + 12)),
+                string(buffer.getInt(pos + 16)));
+
+        event.setTimes(event.getDate().atStartOfDay().plusSeconds(buffer.getInt(pos + 32)),
+                LocalDate.ofEpochDay(buffer.getInt(pos + 36)).atStartOfDay().plusSeconds(buffer.getInt(pos + 40)));
+
+        ParticipantRegistry registry = event.getRegistry();
+        int registered = buffer.getInt(pos + 24);
+        int waitlisted = buffer.getInt(pos + 28);
+        int p = pos + RECORD_FIXED_SIZE;
+        for (int j = 0; j < registered; j++, p += PARTICIPANT_SIZE) {
+            registry.addRegistered(participant(p));
+        }
+        registry.setCapacity(buffer.getInt(pos + 20));
+        for (int j = 0; j < waitlisted; j++, p += PARTICIPANT_SIZE) {
+            registry.addToWaitlist(participant(p));
+        }
+        return event;
+    }
+
+    private Participant participant(int pos) {
+        long registeredAt = ((long) buffer.getInt(pos + 8) << 32) | (buffer.getInt(pos + 12) & 0xFFFFFFFFL);
+        return new Participant(string(buffer.getInt(pos)), TYPES[buffer.getInt(pos + 4)],
+                Instant.ofEpochMilli(registeredAt));
+    }
+
+    private String string(int ref) {
+        String s = strings[ref];
+        if (s == null) {
+            int pos = buffer.getInt(stringTablePos + ref * Integer.BYTES);
+            byte[] bytes = new byte[buffer.getInt(pos)];
+            buffer.get(pos + Integer.BYTES, bytes);
+            s = new String(bytes, StandardCharsets.UTF_8);
+            strings[ref] = s;
+        }
+        return s;
+    }
+
+    /**
+     * A list view that decodes each event the first time it is read.
+     * The first add or remove decodes the rest and switches to a plain ArrayList.
+     */
+    public List<Event> asList() {
+        return new LazyEventList(this);
+    }
+
+    /**
+     * The list made read-only. A list from asList stays one, so the lookups
+     * below still work on it.
+     */
+    static List<Event> readOnly(List<Event> events) {
+        if (events instanceof LazyEventList) {
+            ((LazyEventList) events).readOnly = true;
+            return events;
+        }
+        return Collections.unmodifiableList(events);
+    }
+
+    /**
+     * What the dashboard totals need of an event
+     */
+    interface DaysVisitor {
+        void visit(LocalDate firstDay, LocalDate lastDay, int registered);
+    }
+
+    /**
+     * Give the visitor each event's first and last day and registered count.
+     * For a list from asList these are read from the snapshot for events
+     * not decoded yet, so nothing is decoded here.
+     */
+    static void forEachDays(List<Event> events, DaysVisitor visitor) {
+        if (events instanceof LazyEventList) {
+            ((LazyEventList) events).forEachDays(visitor);
+            return;
+        }
+        for (Event event : events) {
+            visitor.visit(event.getDate(), event.getEndDate(), event.getParticipantCount());
+        }
+    }
+
+    /**
+     * The IDs of the events, in list order; read from the snapshot for
+     * events a list from asList has not decoded
+     */
+    static int[] eventIds(List<Event> events) {
+        int[] ids = new int[events.size()];
+        LazyEventList lazy = events instanceof LazyEventList ? (LazyEventList) events : null;
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = lazy != null ? lazy.eventId(i) : events.get(i).getEventId();
+        }
+        return ids;
+    }
+
+    /**
+     * Whether findById works on the list: it came from asList and nothing has
+     * been added to or removed from it
+     */
+    static boolean canFindById(List<Event> events) {
+        return events instanceof LazyEventList && ((LazyEventList) events).materialized == null;
+    }
+
+    /**
+     * The event with this ID, or null, decoding only that one; see canFindById
+     */
+    static Event findById(List<Event> events, int eventId) {
+        return ((LazyEventList) events).findById(eventId);
+    }
+
+    /**
+     * Write events to a snapshot file
+     */
+    public static void write(List<Event> events, File file) throws IOException {
+        // First pass: encode each event once (it may still be changing on another
+        // thread), pool the strings and work out where every record will go
+        Map<String, Integer> pool = new HashMap<>();
+        List<byte[]> poolBytes = new ArrayList<>();
+        int[][] records = new int[events.size()][];
+        int[] recordOffsets = new int[events.size()];
+        long pos = HEADER_SIZE + (long) events.size() * Integer.BYTES;
+        int maxId = 0;
+
+        for (int i = 0; i < events.size(); i++) {
+            Event event = events.get(i);
+            ParticipantRegistry registry = event.getRegistry();
+            int capacity;
+            List<Participant> registered;
+            List<Participant> waitlist;
+            synchronized (registry) {   // one consistent view of the registry
+                capacity = registry.getCapacity();
+                registered = registry.getRegistered();
+                waitlist = registry.getWaitlist();
+            }
+            int[] record = new int[(RECORD_FIXED_SIZE + (registered.size() + waitlist.size()) * PARTICIPANT_SIZE)
+                    / Integer.BYTES];
+            LocalDateTime start = event.getStart();
+            LocalDateTime end = event.getEnd();
+            record[0] = event.getEventId();
+            record[1] = (int) start.toLocalDate().toEpochDay();
+            record[2] = intern(event.getEventName(), pool, poolBytes);
+            record[3] = intern(event.getVenue(), pool, poolBytes);
+            record[4] = intern(event.getOrganizer(), pool, poolBytes);
+            record[5] = capacity;
+            record[6] = registered.size();
+            record[7] = waitlist.size();
+            record[8] = start.toLocalTime().toSecondOfDay();
+            record[9] = (int) end.toLocalDate().toEpochDay();
+            record[10] = end.toLocalTime().toSecondOfDay();
+            int r = RECORD_FIXED_SIZE / Integer.BYTES;
+            for (List<Participant> participants : List.of(registered, waitlist)) {
+                for (Participant participant : participants) {
+                    long registeredAt = participant.getRegisteredAt().toEpochMilli();
+                    record[r++] = intern(participant.getName(), pool, poolBytes);
+                    record[r++] = participant.getType().ordinal();
+                    record[r++] = (int) (registeredAt >>> 32);
+                    record[r++] = (int) registeredAt;
+                }
+            }
+            records[i] = record;
+            recordOffsets[i] = (int) pos;
+            pos += (long) record.length * Integer.BYTES;
+            maxId = Math.max(maxId, record[0]);
+        }
+
+        long stringTablePos = pos;
+        pos += (long) poolBytes.size() * Integer.BYTES;
+        int[] stringOffsets = new int[poolBytes.size()];
+        for (int i = 0; i < poolBytes.size(); i++) {
+            stringOffsets[i] = (int) pos;
+            pos += Integer.BYTES + poolBytes.get(i).length;
+        }
+        if (pos > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot larger than 2GB is not supported");
+        }
+
+        // Second pass: write everything in file order
+        try (FileOutputStream fileOut = new FileOutputStream(file);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(events.size());
+            out.writeInt(poolBytes.size());
+            out.writeInt(maxId);
+            out.writeInt(HEADER_SIZE);
+            out.writeInt((int) stringTablePos);
+
+            for (int offset : recordOffsets) {
+                out.writeInt(offset);
+            }
+            for (int[] record : records) {
+                for (int value : record) {
+                    out.writeInt(value);
+                }
+            }
+            for (int offset : stringOffsets) {
+                out.writeInt(offset);
+            }
+            for (byte[] bytes : poolBytes) {
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            out.flush();
+            fileOut.getFD().sync();
+        }
+    }
+
+    private static int intern(String value, Map<String, Integer> pool, List<byte[]> poolBytes) {
+        Integer ref = pool.get(value);
+        if (ref == null) {
+            ref = poolBytes.size();
+            pool.put(value, ref);
+            poolBytes.add(value.getBytes(StandardCharsets.UTF_8));
+        }
+        return ref;
+    }
+
+    private static class LazyEventList extends AbstractList<Event> implements RandomAccess {
+        private final EventSnapshot snapshot;
+        // Several threads may read at once; the first decoded copy of an event wins
+        private final AtomicReferenceArray<Event> decoded;
+        private List<Event> materialized;
+        private volatile Map<Integer, Integer> positions;   // event ID -> index, built on first findById
+        private boolean readOnly;   // set before the list is shared between threads
+
+        LazyEventList(EventSnapshot snapshot) {
+            this.snapshot = snapshot;
+            this.decoded = new AtomicReferenceArray<>(snapshot.size());
+        }
+
+        @Override
+        public Event get(int index) {
+            if (materialized != null) return materialized.get(index);
+            Event event = decoded.get(index);
+            if (event == null) {
+                Event fresh = snapshot.decode(index);
+                event = decoded.compareAndExchange(index, null, fresh);
+                if (event == null) event = fresh;
+            }
+            return event;
+        }
+
+        @Override
+        public int size() {
+            return materialized != null ? materialized.size() : decoded.length();
+        }
+
+        int eventId(int index) {
+            if (materialized != null) return materialized.get(index).getEventId();
+            Event event = decoded.get(index);
+            return event != null ? event.getEventId() : snapshot.eventId(index);
+        }
+
+        Event findById(int eventId) {
+            Map<Integer, Integer> byId = positions;
+            if (byId == null) {
+                byId = new HashMap<>(decoded.length() * 2);
+                for (int i = 0; i < decoded.length(); i++) {
+                    byId.put(snapshot.eventId(i), i);
+                }
+                positions = byId;
+            }
+            Integer index = byId.get(eventId);
+            return index == null ? null : get(index);
+        }
+
+        void forEachDays(DaysVisitor visitor) {
+            for (int i = 0; i < size(); i++) {
+                Event event = materialized != null ? materialized.get(i) : decoded.get(i);
+                if (event == null) {
+                    snapshot.days(i, visitor);
+                } else {
+                    visitor.visit(event.getDate(), event.getEndDate(), event.getParticipantCount());
+                }
+            }
+        }
+
+        @Override
+        public Event set(int index, Event event) {
+            checkWritable();
+            if (materialized != null) return materialized.set(index, event);
+            Event previous = get(index);
+            decoded.set(index, event);
+            return previous;
+        }
+
+        @Override
+        public void add(int index, Event event) {
+            checkWritable();
+            materialize().add(index, event);
+            modCount++;
+        }
+
+        @Override
+        public Event remove(int index) {
+            checkWritable();
+            modCount++;
+            return materialize().remove(index);
+        }
+
+        private void checkWritable() {
+            if (readOnly) throw new UnsupportedOperationException();
+        }
+
+        private List<Event> materialize() {
+            if (materialized == null) {
+                List<Event> list = new ArrayList<>(decoded.length() + 16);
+                for (int i = 0; i < decoded.length(); i++) {
+                    list.add(get(i));
+                }
+                materialized = list;
+            }
+            return materialized;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.university.eventmanagement;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dashboard totals, updated as events change instead of recounted on every refresh.
+ * Upcoming, today and completed follow Event.statusOn, so they agree with the
+ * table's status column. The date-relative counts are recalculated from
+ * tallies of first and last days when the day rolls over at midnight.
+ */
+public class EventStatistics {
+    private final NavigableMap<LocalDate, Integer> eventsPerStartDate = new TreeMap<>();
+    private final NavigableMap<LocalDate, Integer> eventsPerEndDate = new TreeMap<>();
+    private LocalDate today = LocalDate.now();
+    private int totalEvents;
+    private int totalParticipants;
+    private int upcoming;
+    private int todayCount;
+    private int completed;
+    private int thisMonth;     // starting this month
+
+    private final ScheduledExecutorService midnight = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "statistics-rollover");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public EventStatistics(List<Event> events) {
+        // Read from the snapshot where the events are still undecoded, so counting decodes nothing
+        EventSnapshot.forEachDays(events, (first, last, participants) -> tally(first, last, participants, 1));
+        scheduleRollover();
+    }
+
+    public synchronized void add(Event event) {
+        tally(event.getDate(), event.getEndDate(), event.getParticipantCount(), 1);
+    }
+
+    /**
+     * Remove an event; call this before changing its times
+     */
+    public synchronized void remove(Event event) {
+        tally(event.getDate(), event.getEndDate(), event.getParticipantCount(), -1);
+    }
+
+    /**
+     * Registered participants went up (or down) by delta
+     */
+    public synchronized void participantsChanged(int delta) {
+        totalParticipants += delta;
+    }
+
+    private synchronized void tally(LocalDate firstDay, LocalDate lastDay, int participants, int delta) {
+        totalEvents += delta;
+        totalParticipants += delta * participants;
+        eventsPerStartDate.merge(firstDay, delta, (n, d) -> n + d == 0 ? null : n + d);
+        eventsPerEndDate.merge(lastDay, delta, (n, d) -> n + d == 0 ? null : n + d);
+        switch (Event.statusOn(firstDay, lastDay, today)) {
+            case COMPLETED: completed += delta; break;
+            case TODAY: todayCount += delta; break;
+            default: upcoming += delta; break;
+        }
+        if (YearMonth.from(firstDay).equals(YearMonth.from(today))) thisMonth += delta;
+    }
+
+    /**
+     * Recount the date-relative totals for a new day
+     */
+    synchronized void rollover(LocalDate newToday) {
+        today = newToday;
+        YearMonth month = YearMonth.from(today);
+        upcoming = sum(eventsPerStartDate.tailMap(today, false));
+        completed = sum(eventsPerEndDate.headMap(today, false));
+        todayCount = totalEvents - upcoming - completed;
+        thisMonth = sum(eventsPerStartDate.subMap(month.atDay(1), true, month.atEndOfMonth(), true));
+    }
+
+    private static int sum(Map<LocalDate, Integer> tally) {
+        int total = 0;
+        for (int n : tally.values()) {
+            total += n;
+        }
+        return total;
+    }
+
+    private void scheduleRollover() {
+        LocalDateTime now = LocalDateTime.now();
+        long delay = Duration.between(now, now.toLocalDate().plusDays(1).atStartOfDay()).toMillis();
+        midnight.schedule(() -> {
+            rollover(LocalDate.now());
+            scheduleRollover();
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized int getTotalEvents() { return totalEvents; }
+    public synchronized int getTotalParticipants() { return totalParticipants; }
+    public synchronized int getUpcoming() { return upcoming; }
+    public synchronized int getToday() { return todayCount; }
+    public synchronized int getCompleted() { return completed; }
+    public synchronized int getThisMonth() { return thisMonth; }
+
+    public synchronized double getAverageParticipants() {
+        return totalEvents == 0 ? 0 : (double) totalParticipants / totalEvents;
+    }
+}
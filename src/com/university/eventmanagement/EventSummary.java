@@ -0,0 +1,37 @@
+package com.university.eventmanagement;
+
+import java.time.LocalDateTime;
+
+/**
+ * The fields lists and reports show for an event, without its participants
+ */
+public final class EventSummary {
+    private final int eventId;
+    private final String eventName;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final String venue;
+    private final int participantCount;
+
+    public EventSummary(int eventId, String eventName, LocalDateTime start, LocalDateTime end, String venue,
+                        int participantCount) {
+        this.eventId = eventId;
+        this.eventName = eventName;
+        this.start = start;
+        this.end = end;
+        this.venue = venue;
+        this.participantCount = participantCount;
+    }
+
+    public static EventSummary of(Event event) {
+        return new EventSummary(event.getEventId(), event.getEventName(), event.getStart(), event.getEnd(),
+                event.getVenue(), event.getParticipantCount());
+    }
+
+    public int getEventId() { return eventId; }
+    public String getEventName() { return eventName; }
+    public LocalDateTime getStart() { return start; }
+    public LocalDateTime getEnd() { return end; }
+    public String getVenue() { return venue; }
+    public int getParticipantCount() { return participantCount; }
+}
@@ -0,0 +1,91 @@
+package com.university.eventmanagement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The repository over DataManager's own store (the snapshot and event log in
+ * the data directory). Pages are read straight from the current event list,
+ * so from a lazily loaded snapshot only the events on a page are decoded.
+ * Writes go through DataManager, which keeps its indexes and the log up to date.
+ */
+public class FileEventRepository implements EventRepository {
+    private final DataManager data;
+
+    public FileEventRepository(DataManager data) {
+        this.data = data;
+    }
+
+    @Override
+    public int count() {
+        return data.getAllEvents().size();
+    }
+
+    @Override
+    public Event find(int eventId) {
+        return data.getEventById(eventId);
+    }
+
+    @Override
+    public Page<Event> page(Cursor after, int size) {
+        return page(after, size, event -> event);
+    }
+
+    @Override
+    public Page<EventSummary> summaries(Cursor after, int size) {
+        return page(after, size, EventSummary::of);
+    }
+
+    private <T> Page<T> page(Cursor after, int size, Function<Event, T> project) {
+        if (size <= 0) throw new IllegalArgumentException("Page size must be positive");
+        List<Event> events = data.getAllEvents();   // one snapshot for the whole page
+        int from = resume(events, after);
+        int to = Math.min(events.size(), from + size);
+        List<T> items = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            items.add(project.apply(events.get(i)));
+        }
+        Cursor next = to < events.size() ? new Cursor(to - 1, events.get(to - 1).getEventId()) : null;
+        return new Page<>(items, next);
+    }
+
+    // Index of the first event after the cursor. Removals only move events
+    // towards the front, so a moved cursor event is found by looking back;
+    // if it was removed itself, the page carries on from the same place.
+    private static int resume(List<Event> events, Cursor after) {
+        if (after.position < 0) return 0;
+        int position = (int) Math.min(after.position, events.size() - 1);
+        for (int i = position; i >= 0; i--) {
+            if (events.get(i).getEventId() == after.eventId) return i + 1;
+        }
+        return Math.min((int) after.position, events.size());
+    }
+
+    @Override
+    public void save(Event event) {
+        Event existing = data.getEventById(event.getEventId());
+        // Already stored: log its current fields, unless it was removed in the meantime
+        if (existing == event && data.updateEvent(event, event.getEventName(), event.getStart(), event.getEnd(),
+                event.getVenue(), event.getOrganizer())) {
+            return;
+        }
+        if (existing != null) data.removeEvent(existing);
+        data.addEvent(event);
+    }
+
+    @Override
+    public boolean delete(int eventId) {
+        Event existing = data.getEventById(eventId);
+        if (existing == null) return false;
+        data.removeEvent(existing);
+        return true;
+    }
+
+    /**
+     * Nothing to release; DataManager owns the files
+     */
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,191 @@
+package com.university.eventmanagement;
+
+import java.util.List;
+
+/**
+ * The bookings of one venue, as an AVL tree ordered by start time in which
+ * every node also keeps the latest end in its subtree. An overlap query skips
+ * any subtree that ends before the window or starts after it, so it costs
+ * about O(log n + k) for k matches (O(k log n) at worst, when the matches are
+ * spread thinly through the tree) instead of a scan of every booking.
+ * Times are seconds on the local time line; intervals are [start, end).
+ * Not thread-safe: EventIndex locks each tree while using it.
+ */
+class IntervalTree {
+    private Node root;
+    private int size;
+
+    /**
+     * Add an event; it is found again by its start and ID
+     */
+    void add(long start, long end, Event event) {
+        root = insert(root, new Node(start, end, event));
+    }
+
+    /**
+     * Remove the event added with this start; returns false if it wasn't there
+     */
+    boolean remove(long start, Event event) {
+        int before = size;
+        root = delete(root, start, event.getEventId());
+        return size < before;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Any one event in the tree, or null if it is empty
+     */
+    Event any() {
+        return root == null ? null : root.event;
+    }
+
+    /**
+     * Add the events overlapping [from, to) to the list, in start order
+     */
+    void overlapping(long from, long to, List<Event> out) {
+        collect(root, from, to, out);
+    }
+
+    /**
+     * Whether an event other than 'except' (which may be null) overlaps [from, to)
+     */
+    boolean overlaps(long from, long to, Event except) {
+        return find(root, from, to, except);
+    }
+
+    private static void collect(Node node, long from, long to, List<Event> out) {
+        if (node == null || node.maxEnd <= from) return;   // everything below ends too early
+        collect(node.left, from, to, out);
+        if (node.start >= to) return;   // this and everything to the right start too late
+        if (node.end > from) out.add(node.event);
+        collect(node.right, from, to, out);
+    }
+
+    private static boolean find(Node node, long from, long to, Event except) {
+        if (node == null || node.maxEnd <= from) return false;
+        if (find(node.left, from, to, except)) return true;
+        if (node.start >= to) return false;
+        if (node.end > from && node.event != except) return true;
+        return find(node.right, from, to, except);
+    }
+
+    private Node insert(Node node, Node added) {
+        if (node == null) {
+            size++;
+            return added;
+        }
+        int c = compare(added.start, added.id, node);
+        if (c < 0) {
+            node.left = insert(node.left, added);
+        } else if (c > 0) {
+            node.right = insert(node.right, added);
+        } else {
+            return node;   // already there
+        }
+        return balance(node);
+    }
+
+    private Node delete(Node node, long start, int id) {
+        if (node == null) return null;
+        int c = compare(start, id, node);
+        if (c < 0) {
+            node.left = delete(node.left, start, id);
+        } else if (c > 0) {
+            node.right = delete(node.right, start, id);
+        } else {
+            size--;
+            if (node.left == null) return node.right;
+            if (node.right == null) return node.left;
+            // Put the next node in this one's place
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = deleteFirst(node.right);
+            successor.left = node.left;
+            node = successor;
+        }
+        return balance(node);
+    }
+
+    private static Node deleteFirst(Node node) {
+        if (node.left == null) return node.right;
+        node.left = deleteFirst(node.left);
+        return balance(node);
+    }
+
+    // Ties on start time are broken by event ID, so every event has its own place
+    private static int compare(long start, int id, Node node) {
+        int c = Long.compare(start, node.start);
+        return c != 0 ? c : Integer.compare(id, node.id);
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int skew = height(node.left) - height(node.right);
+        if (skew > 1) {
+            if (height(node.left.left) < height(node.left.right)) node.left = rotateLeft(node.left);
+            return rotateRight(node);
+        }
+        if (skew < -1) {
+            if (height(node.right.right) < height(node.right.left)) node.right = rotateRight(node.right);
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node top = node.left;
+        node.left = top.right;
+        top.right = node;
+        update(node);
+        update(top);
+        return top;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node top = node.right;
+        node.right = top.left;
+        top.left = node;
+        update(node);
+        update(top);
+        return top;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long maxEnd = node.end;
+        if (node.left != null) maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        if (node.right != null) maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        node.maxEnd = maxEnd;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static class Node {
+        final long start;
+        final long end;
+        final int id;
+        final Event event;
+        long maxEnd;      // latest end in this subtree
+        int height = 1;
+        Node left, right;
+
+        Node(long start, long end, Event event) {
+            this.start = start;
+            this.end = end;
+            this.id = event.getEventId();
+            this.event = event;
+            this.maxEnd = end;
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.university.eventmanagement;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Events in a JDBC database, e.g. an embedded H2 file
+ * ("jdbc:h2:./eventmanagement_data/events") or SQLite. Only plain SQL is
+ * used, so any driver on the classpath will do; none is needed to build.
+ *
+ * Each event has a sequence number in the order it was added. Pages are
+ * read by sequence ("after the last one seen"), which an index answers
+ * directly however deep the page is. Times are stored as epoch seconds
+ * (UTC), as in the event log. Any database error becomes an
+ * IllegalStateException.
+ */
+public class JdbcEventRepository implements EventRepository {
+    /**
+     * An H2 file next to the other data, unless -Deventmanagement.database gives another URL
+     */
+    public static final String DEFAULT_URL = System.getProperty("eventmanagement.database",
+            "jdbc:h2:" + Path.of(DatabaseManager.DATA_DIR, "events").toAbsolutePath());
+
+    private static final String EVENT_COLUMNS = "e.seq, e.id, e.name, e.start_time, e.end_time, e.venue, e.organizer, e.capacity";
+    private static final String SUMMARY_COLUMNS = "e.seq, e.id, e.name, e.start_time, e.end_time, e.venue, "
+            + "(SELECT COUNT(*) FROM participants p WHERE p.event_id = e.id AND p.waitlisted = 0)";
+
+    private final Connection connection;
+
+    public JdbcEventRepository(String url) {
+        try {
+            connection = DriverManager.getConnection(url);
+            createTables();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot open " + url + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void createTables() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE IF NOT EXISTS events ("
+                    + "id INTEGER PRIMARY KEY, seq BIGINT NOT NULL, name VARCHAR(1000) NOT NULL, "
+                    + "start_time BIGINT NOT NULL, end_time BIGINT NOT NULL, "
+                    + "venue VARCHAR(1000) NOT NULL, organizer VARCHAR(1000) NOT NULL, capacity INTEGER NOT NULL)");
+            statement.executeUpdate("CREATE UNIQUE INDEX IF NOT EXISTS events_seq ON events (seq)");
+            statement.executeUpdate("CREATE TABLE IF NOT EXISTS participants ("
+                    + "event_id INTEGER NOT NULL, waitlisted INTEGER NOT NULL, position INTEGER NOT NULL, "
+                    + "name VARCHAR(1000) NOT NULL, type INTEGER NOT NULL, registered_at BIGINT NOT NULL, "
+                    + "PRIMARY KEY (event_id, waitlisted, position))");
+        }
+    }
+
+    @Override
+    public synchronized int count() {
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT COUNT(*) FROM events")) {
+            rows.next();
+            return rows.getInt(1);
+        } catch (SQLException e) {
+            throw failed("count events", e);
+        }
+    }
+
+    @Override
+    public synchronized Event find(int eventId) {
+        try (PreparedStatement query = connection.prepareStatement(
+                "SELECT " + EVENT_COLUMNS + " FROM events e WHERE e.id = ?")) {
+            query.setInt(1, eventId);
+            List<Event> found = new ArrayList<>(1);
+            readEvents(query, found);
+            return found.isEmpty() ? null : found.get(0);
+        } catch (SQLException e) {
+            throw failed("read event " + eventId, e);
+        }
+    }
+
+    @Override
+    public synchronized Page<Event> page(Cursor after, int size) {
+        if (size <= 0) throw new IllegalArgumentException("Page size must be positive");
+        // One row more than asked for tells whether another page follows
+        try (PreparedStatement query = connection.prepareStatement(
+                "SELECT " + EVENT_COLUMNS + " FROM events e WHERE e.seq > ? ORDER BY e.seq LIMIT ?")) {
+            query.setLong(1, after.position);
+            query.setInt(2, size + 1);
+            List<Event> events = new ArrayList<>(size + 1);
+            long[] lastSeq = readEvents(query, events);
+            return toPage(events, size, lastSeq, Event::getEventId);
+        } catch (SQLException e) {
+            throw failed("read events", e);
+        }
+    }
+
+    @Override
+    public synchronized Page<EventSummary> summaries(Cursor after, int size) {
+        if (size <= 0) throw new IllegalArgumentException("Page size must be positive");
+        try (PreparedStatement query = connection.prepareStatement(
+                "SELECT " + SUMMARY_COLUMNS + " FROM events e WHERE e.seq > ? ORDER BY e.seq LIMIT ?")) {
+            query.setLong(1, after.position);
+            query.setInt(2, size + 1);
+            List<EventSummary> summaries = new ArrayList<>(size + 1);
+            List<Long> seqs = new ArrayList<>(size + 1);
+            try (ResultSet rows = query.executeQuery()) {
+                while (rows.next()) {
+                    seqs.add(rows.getLong(1));
+                    summaries.add(new EventSummary(rows.getInt(2), rows.getString(3), dateTime(rows.getLong(4)),
+                            dateTime(rows.getLong(5)), rows.getString(6), rows.getInt(7)));
+                }
+            }
+            long[] lastSeq = seqs.stream().mapToLong(Long::longValue).toArray();
+            return toPage(summaries, size, lastSeq, EventSummary::getEventId);
+        } catch (SQLException e) {
+            throw failed("read event summaries", e);
+        }
+    }
+
+    private static <T> Page<T> toPage(List<T> items, int size, long[] seqs, ToIntFunction<T> id) {
+        if (items.size() <= size) return new Page<>(items, null);
+        List<T> page = new ArrayList<>(items.subList(0, size));
+        return new Page<>(page, new Cursor(seqs[size - 1], id.applyAsInt(page.get(size - 1))));
+    }
+
+    // Reads the events a query selects (EVENT_COLUMNS) with their participants;
+    // returns their sequence numbers
+    private long[] readEvents(PreparedStatement query, List<Event> out) throws SQLException {
+        List<Integer> capacities = new ArrayList<>();
+        List<Long> seqs = new ArrayList<>();
+        try (ResultSet rows = query.executeQuery()) {
+            while (rows.next()) {
+                seqs.add(rows.getLong(1));
+                out.add(new Event(rows.getInt(2), rows.getString(3), dateTime(rows.getLong(4)),
+                        dateTime(rows.getLong(5)), rows.getString(6), rows.getString(7)));
+                capacities.add(rows.getInt(8));
+            }
+        }
+        if (!out.isEmpty()) readParticipants(out, capacities);
+        return seqs.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    // One query for the participants of all the events, registered before waitlisted,
+    // so the capacity can be set between the two as the snapshot loader does
+    private void readParticipants(List<Event> events, List<Integer> capacities) throws SQLException {
+        Map<Integer, Event> byId = new HashMap<>();
+        StringBuilder sql = new StringBuilder(
+                "SELECT event_id, waitlisted, name, type, registered_at FROM participants WHERE event_id IN (");
+        for (int i = 0; i < events.size(); i++) {
+            byId.put(events.get(i).getEventId(), events.get(i));
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(") ORDER BY waitlisted, event_id, position");
+
+        Participant.Type[] types = Participant.Type.values();
+        boolean capacitySet = false;
+        try (PreparedStatement query = connection.prepareStatement(sql.toString())) {
+            for (int i = 0; i < events.size(); i++) {
+                query.setInt(i + 1, events.get(i).getEventId());
+            }
+            try (ResultSet rows = query.executeQuery()) {
+                while (rows.next()) {
+                    boolean waitlisted = rows.getInt(2) != 0;
+                    if (waitlisted && !capacitySet) {
+                        setCapacities(events, capacities);
+                        capacitySet = true;
+                    }
+                    Participant participant = new Participant(rows.getString(3), types[rows.getInt(4)],
+                            Instant.ofEpochMilli(rows.getLong(5)));
+                    ParticipantRegistry registry = byId.get(rows.getInt(1)).getRegistry();
+                    if (waitlisted) {
+                        registry.addToWaitlist(participant);
+                    } else {
+                        registry.addRegistered(participant);
+                    }
+                }
+            }
+        }
+        if (!capacitySet) setCapacities(events, capacities);
+    }
+
+    private static void setCapacities(List<Event> events, List<Integer> capacities) {
+        for (int i = 0; i < events.size(); i++) {
+            events.get(i).getRegistry().setCapacity(capacities.get(i));
+        }
+    }
+
+    /**
+     * Insert or replace the event and its participants in one transaction.
+     * A replaced event keeps its place in the page order.
+     */
+    @Override
+    public synchronized void save(Event event) {
+        try {
+            connection.setAutoCommit(false);
+            try {
+                write(event);
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw failed("save event " + event.getEventId(), e);
+        }
+    }
+
+    private void write(Event event) throws SQLException {
+        int id = event.getEventId();
+        int updated;
+        try (PreparedStatement update = connection.prepareStatement("UPDATE events SET name = ?, start_time = ?, "
+                + "end_time = ?, venue = ?, organizer = ?, capacity = ? WHERE id = ?")) {
+            bindFields(update, event, 1);
+            update.setInt(7, id);
+            updated = update.executeUpdate();
+        }
+        if (updated == 0) {
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO events (name, start_time, "
+                    + "end_time, venue, organizer, capacity, id, seq) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, (SELECT COALESCE(MAX(seq), 0) + 1 FROM events))")) {
+                bindFields(insert, event, 1);
+                insert.setInt(7, id);
+                insert.executeUpdate();
+            }
+        } else {
+            deleteParticipants(id);
+        }
+
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO participants "
+                + "(event_id, waitlisted, position, name, type, registered_at) VALUES (?, ?, ?, ?, ?, ?)")) {
+            ParticipantRegistry registry = event.getRegistry();
+            addParticipants(insert, id, 0, registry.getRegistered());
+            addParticipants(insert, id, 1, registry.getWaitlist());
+            insert.executeBatch();
+        }
+    }
+
+    private static void bindFields(PreparedStatement statement, Event event, int first) throws SQLException {
+        statement.setString(first, event.getEventName());
+        statement.setLong(first + 1, event.getStart().toEpochSecond(ZoneOffset.UTC));
+        statement.setLong(first + 2, event.getEnd().toEpochSecond(ZoneOffset.UTC));
+        statement.setString(first + 3, event.getVenue());
+        statement.setString(first + 4, event.getOrganizer());
+        statement.setInt(first + 5, event.getRegistry().getCapacity());
+    }
+
+    private static void addParticipants(PreparedStatement insert, int eventId, int waitlisted,
+                                        List<Participant> participants) throws SQLException {
+        for (int i = 0; i < participants.size(); i++) {
+            Participant participant = participants.get(i);
+            insert.setInt(1, eventId);
+            insert.setInt(2, waitlisted);
+            insert.setInt(3, i);
+            insert.setString(4, participant.getName());
+            insert.setInt(5, participant.getType().ordinal());
+            insert.setLong(6, participant.getRegisteredAt().toEpochMilli());
+            insert.addBatch();
+        }
+    }
+
+    @Override
+    public synchronized boolean delete(int eventId) {
+        try {
+            connection.setAutoCommit(false);
+            try {
+                deleteParticipants(eventId);
+                int deleted;
+                try (PreparedStatement delete = connection.prepareStatement("DELETE FROM events WHERE id = ?")) {
+                    delete.setInt(1, eventId);
+                    deleted = delete.executeUpdate();
+                }
+                connection.commit();
+                return deleted > 0;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw failed("delete event " + eventId, e);
+        }
+    }
+
+    private void deleteParticipants(int eventId) throws SQLException {
+        try (PreparedStatement delete = connection.prepareStatement("DELETE FROM participants WHERE event_id = ?")) {
+            delete.setInt(1, eventId);
+            delete.executeUpdate();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing event database: " + e.getMessage());
+        }
+    }
+
+    private static LocalDateTime dateTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    private static IllegalStateException failed(String action, SQLException e) {
+        return new IllegalStateException("Could not " + action + ": " + e.getMessage(), e);
+    }
+}
@@ -0,0 +1,270 @@
+package com.university.eventmanagement;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The little JSON the HTTP API needs, without a library.
+ * Parsing gives Map (objects, in order), List, String, Double, Boolean and
+ * null; malformed input throws IllegalArgumentException. Writing is a
+ * builder that appends values as it goes.
+ */
+final class Json {
+    // Deeper input is refused; each level is a parser stack frame
+    static final int MAX_DEPTH = 64;
+
+    private final String text;
+    private int pos;
+    private int depth;
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    static Object parse(String text) {
+        Json parser = new Json(text);
+        Object value = parser.value();
+        parser.skipSpace();
+        if (parser.pos != text.length()) throw parser.error("Unexpected text after the value");
+        return value;
+    }
+
+    /**
+     * Parse a JSON object, as request bodies are
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> parseObject(String text) {
+        Object value = parse(text);
+        if (!(value instanceof Map)) throw new IllegalArgumentException("Expected a JSON object");
+        return (Map<String, Object>) value;
+    }
+
+    private Object value() {
+        skipSpace();
+        if (pos >= text.length()) throw error("Unexpected end of input");
+        char c = text.charAt(pos);
+        switch (c) {
+            case '{':
+            case '[':
+                if (depth == MAX_DEPTH) throw error("Nested more than " + MAX_DEPTH + " deep");
+                depth++;
+                Object nested = c == '{' ? object() : array();
+                depth--;
+                return nested;
+            case '"': return string();
+            case 't': return literal("true", Boolean.TRUE);
+            case 'f': return literal("false", Boolean.FALSE);
+            case 'n': return literal("null", null);
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) return number();
+                throw error("Unexpected '" + c + "'");
+        }
+    }
+
+    private Map<String, Object> object() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        pos++;
+        skipSpace();
+        if (peek('}')) return result;
+        do {
+            skipSpace();
+            if (pos >= text.length() || text.charAt(pos) != '"') throw error("Expected a name");
+            String name = string();
+            skipSpace();
+            expect(':');
+            result.put(name, value());
+            skipSpace();
+        } while (peek(','));
+        expect('}');
+        return result;
+    }
+
+    private List<Object> array() {
+        List<Object> result = new ArrayList<>();
+        pos++;
+        skipSpace();
+        if (peek(']')) return result;
+        do {
+            result.add(value());
+            skipSpace();
+        } while (peek(','));
+        expect(']');
+        return result;
+    }
+
+    private String string() {
+        StringBuilder out = new StringBuilder();
+        pos++;
+        while (pos < text.length()) {
+            char c = text.charAt(pos++);
+            if (c == '"') return out.toString();
+            if (c != '\\') {
+                out.append(c);
+                continue;
+            }
+            if (pos >= text.length()) break;
+            char escaped = text.charAt(pos++);
+            switch (escaped) {
+                case 'b': out.append('\b'); break;
+                case 'f': out.append('\f'); break;
+                case 'n': out.append('\n'); break;
+                case 'r': out.append('\r'); break;
+                case 't': out.append('\t'); break;
+                case 'u':
+                    if (pos + 4 > text.length()) throw error("Bad \\u escape");
+                    try {
+                        out.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("Bad \\u escape");
+                    }
+                    pos += 4;
+                    break;
+                default: out.append(escaped); break;   // \" \\ \/
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private Double number() {
+        int start = pos;
+        while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) pos++;
+        try {
+            return Double.valueOf(text.substring(start, pos));
+        } catch (NumberFormatException e) {
+            throw error("Bad number");
+        }
+    }
+
+    private Object literal(String word, Object value) {
+        if (!text.startsWith(word, pos)) throw error("Unexpected '" + text.charAt(pos) + "'");
+        pos += word.length();
+        return value;
+    }
+
+    private void skipSpace() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) pos++;
+    }
+
+    private boolean peek(char c) {
+        if (pos < text.length() && text.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        if (!peek(c)) throw error("Expected '" + c + "'");
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at character " + pos);
+    }
+
+    /**
+     * Appends JSON; the caller keeps names and values paired and brackets balanced
+     */
+    static final class Writer {
+        private final StringBuilder out = new StringBuilder();
+        private boolean needComma;
+
+        Writer beginObject() {
+            separate();
+            out.append('{');
+            needComma = false;
+            return this;
+        }
+
+        Writer endObject() {
+            out.append('}');
+            needComma = true;
+            return this;
+        }
+
+        Writer beginArray() {
+            separate();
+            out.append('[');
+            needComma = false;
+            return this;
+        }
+
+        Writer endArray() {
+            out.append(']');
+            needComma = true;
+            return this;
+        }
+
+        Writer name(String name) {
+            separate();
+            quote(name);
+            out.append(':');
+            needComma = false;
+            return this;
+        }
+
+        Writer value(String value) {
+            separate();
+            if (value == null) {
+                out.append("null");
+            } else {
+                quote(value);
+            }
+            needComma = true;
+            return this;
+        }
+
+        Writer value(long value) {
+            separate();
+            out.append(value);
+            needComma = true;
+            return this;
+        }
+
+        Writer value(boolean value) {
+            separate();
+            out.append(value);
+            needComma = true;
+            return this;
+        }
+
+        Writer field(String name, String value) {
+            return name(name).value(value);
+        }
+
+        Writer field(String name, long value) {
+            return name(name).value(value);
+        }
+
+        private void separate() {
+            if (needComma) out.append(',');
+        }
+
+        private void quote(String value) {
+            out.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"': out.append("\\\""); break;
+                    case '\\': out.append("\\\\"); break;
+                    case '\n': out.append("\\n"); break;
+                    case '\r': out.append("\\r"); break;
+                    case '\t': out.append("\\t"); break;
+                    default:
+                        if (c < 0x20) {
+                            out.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            out.append(c);
+                        }
+                }
+            }
+            out.append('"');
+        }
+
+        @Override
+        public String toString() {
+            return out.toString();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.university.eventmanagement;
+
+/**
+ * Fields written as length:value, one after another on a line.
+ * Values can hold '|', ',' or any other character except a line break,
+ * and reading them back needs no splitting or escaping.
+ */
+class LineFields {
+    private final String line;
+    private int pos;
+
+    LineFields(String line, int start) {
+        this.line = line;
+        this.pos = start;
+    }
+
+    static StringBuilder put(StringBuilder out, String value) {
+        return out.append(value.length()).append(':').append(value);
+    }
+
+    static StringBuilder put(StringBuilder out, long value) {
+        return put(out, Long.toString(value));
+    }
+
+    boolean hasNext() {
+        return pos < line.length();
+    }
+
+    String next() {
+        int colon = line.indexOf(':', pos);
+        if (colon < 0) throw new IllegalArgumentException("Truncated record");
+        int length = Integer.parseInt(line, pos, colon, 10);
+        if (colon + 1 + length > line.length()) throw new IllegalArgumentException("Truncated record");
+        pos = colon + 1 + length;
+        return line.substring(colon + 1, pos);
+    }
+
+    int nextInt() {
+        return Integer.parseInt(next());
+    }
+
+    long nextLong() {
+        return Long.parseLong(next());
+    }
+}
@@ -2,12 +2,28 @@ package com.university.eventmanagement;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
 
 public class LoginFrame extends JFrame {
+    private static final String INFO_TEXT = "Default: admin/admin123";
+    private static final Metrics.Histogram LOGIN_TO_WINDOW = Metrics.histogram("startup.loginToWindow");
+
     private JTextField usernameField;
     private JPasswordField passwordField;
+    private final JButton loginButton = new JButton("Login");
+    private final JLabel infoLabel = new JLabel(INFO_TEXT);
+    // The store, possibly still loading in the background (see DataManager.preload)
+    private final CompletableFuture<DataManager> data;
 
     public LoginFrame() {
+        this(CompletableFuture.completedFuture(DataManager.getInstance()));
+    }
+
+    public LoginFrame(CompletableFuture<DataManager> data) {
+        this.data = data;
         setTitle("Event Management - Login");
         setSize(400, 250);
         setDefaultCloseOperation(EXIT_ON_CLOSE);
@@ -41,7 +57,6 @@ public class LoginFrame extends JFrame {
         panel.add(passwordField, gbc);
 
         // Login Button
-        JButton loginButton = new JButton("Login");
         loginButton.setBackground(new Color(0, 153, 76));
         loginButton.setForeground(Color.WHITE);
         loginButton.setFocusPainted(false);
@@ -49,7 +64,6 @@ public class LoginFrame extends JFrame {
         panel.add(loginButton, gbc);
 
         // Info Label
-        JLabel infoLabel = new JLabel("Default: admin/admin123");
         infoLabel.setFont(new Font("Arial", Font.ITALIC, 11));
         infoLabel.setForeground(Color.GRAY);
         gbc.gridy = 4;
@@ -59,18 +73,54 @@ public class LoginFrame extends JFrame {
         passwordField.addActionListener(e -> login());
 
         add(panel);
+
+        // Nobody can log in if the store can't be opened, so say why at once
+        data.whenComplete((dm, error) -> {
+            if (error != null) SwingUtilities.invokeLater(() -> showLoadError(error));
+        });
     }
 
+    /**
+     * Check the password off the Swing thread, waiting for the store to
+     * finish loading if it hasn't yet
+     */
     private void login() {
+        long clicked = Metrics.now();
         String username = usernameField.getText();
-        String password = new String(passwordField.getPassword());
-
-        if (DataManager.getInstance().authenticate(username, password)) {
-            dispose();
-            new MainFrame(username).setVisible(true);
-        } else {
-            JOptionPane.showMessageDialog(this,
-                    "Invalid credentials!", "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        char[] password = passwordField.getPassword();
+        loginButton.setEnabled(false);
+        if (!data.isDone()) infoLabel.setText("Loading events...");
+
+        // Async even once loaded, so hashing the password never runs here on the Swing thread
+        data.thenApplyAsync(dm -> {
+            try {
+                return dm.authenticate(username, password);
+            } finally {
+                Arrays.fill(password, '\0');
+            }
+        }, ForkJoinPool.commonPool()).whenComplete((valid, error) -> SwingUtilities.invokeLater(() -> {
+            loginButton.setEnabled(true);
+            infoLabel.setText(INFO_TEXT);
+            if (error != null) {
+                showLoadError(error);
+            } else if (valid) {
+                dispose();
+                new MainFrame(username).setVisible(true);
+                // Runs once the window's first layout and paint requests are done
+                SwingUtilities.invokeLater(() -> LOGIN_TO_WINDOW.recordSince(clicked));
+            } else {
+                JOptionPane.showMessageDialog(this,
+                        "Invalid credentials!", "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        }));
+    }
+
+    private void showLoadError(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        System.err.println("Error loading data: " + cause);
+        loginButton.setEnabled(false);
+        passwordField.setEnabled(false);
+        JOptionPane.showMessageDialog(this,
+                "Could not load the event data: " + cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
     }
 }
\ No newline at end of file
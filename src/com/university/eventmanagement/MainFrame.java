@@ -5,19 +5,47 @@ import javax.swing.*;
 import javax.swing.border.AbstractBorder;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import javax.swing.table.AbstractTableModel;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableModel;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.PlainDocument;
 import java.awt.*;
 import java.awt.geom.RoundRectangle2D;
 import java.awt.image.BufferedImage;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.util.Comparator;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 public class MainFrame extends JFrame {
     private static final Color PRIMARY = new Color(33, 150, 243);
@@ -29,8 +57,16 @@ public class MainFrame extends JFrame {
     private static final Color SUCCESS = new Color(0, 62, 2);
     private static final Color WARNING = new Color(255, 193, 7);
     private static final Color ACCENT = new Color(156, 39, 176);
-
-    private final DefaultTableModel tableModel;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("MMMM yyyy");
+    private static final int REPORT_PAGE_SIZE = 200;
+    private static final int MAX_ROW_CHANGES = 64;   // beyond this many changed events, search again instead
+    private static final String ALL_VENUES = "All venues";
+
+    private final EventTableModel tableModel = new EventTableModel();
+    private final TableSearch tableSearch = new TableSearch(tableModel);
+    private final ChangeFeed changeFeed = new ChangeFeed();
     private final JTable eventTable;
     private final JTextField searchField = new JTextField();
     private final JComboBox<String> statusFilter = new JComboBox<>(new String[]{"All", "Upcoming", "Today", "Completed"});
@@ -42,13 +78,28 @@ public class MainFrame extends JFrame {
 
     private final CardLayout cardLayout = new CardLayout();
     private final JPanel centerCards = new JPanel(cardLayout);
+    // Cards are built the first time they are shown, so the window opens with only the dashboard
+    private final Map<String, Supplier<JPanel>> cardBuilders = new HashMap<>();
+    private final Set<String> builtCards = new HashSet<>();
+    // The dashboard and events cards share the table; it moves into whichever is shown
+    private final Map<String, JScrollPane> tableHomes = new HashMap<>();
 
     private final JButton dashboardBtn = new JButton("Dashboard");
     private final JButton eventsBtn = new JButton("Events");
     private final JButton reportsBtn = new JButton("Reports");
+    private final JButton calendarBtn = new JButton("Calendar");
     private final JButton analyticsBtn = new JButton("Analytics");
     private final JButton settingsBtn = new JButton("Settings");
 
+    // Calendar card: the month shown, the day picked in it, and an optional venue filter
+    private YearMonth calendarMonth = YearMonth.now();
+    private LocalDate calendarDay = LocalDate.now();
+    private final JLabel calendarTitle = new JLabel("", SwingConstants.CENTER);
+    private final JPanel calendarGrid = new JPanel(new GridLayout(0, 7, 4, 4));
+    private final JComboBox<String> calendarVenue = new JComboBox<>(new String[]{ALL_VENUES});
+    private final JTextArea calendarDayArea = new JTextArea();
+    private boolean refreshingCalendar;   // ignore venue box events while refilling it
+
     public MainFrame(String username) {
         super("Event Management - Dashboard");
         setDefaultCloseOperation(EXIT_ON_CLOSE);
@@ -70,53 +121,48 @@ public class MainFrame extends JFrame {
         getContentPane().setBackground(SURFACE);
         add(split, BorderLayout.CENTER);
 
-        String[] columns = {"ID", "Event Name", "Date", "Venue", "Organizer", "Participants", "Status"};
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override public boolean isCellEditable(int row, int column) { return false; }
-        };
         eventTable = createTable(tableModel);
 
-        JPanel eventsCard = buildEventsCard();
-        JPanel dashboardCard = buildDashboardCard();
-        centerCards.add(dashboardCard, "dashboard");
-        centerCards.add(eventsCard, "events");
-        centerCards.add(buildReportsCard(), "reports");
-
-        centerCards.add(buildAnalyticsCard(), "analytics");
-
-        centerCards.add(buildSettingsCard(), "settings");
-
-
-        cardLayout.show(centerCards, "dashboard");
+        cardBuilders.put("dashboard", this::buildDashboardCard);
+        cardBuilders.put("events", this::buildEventsCard);
+        cardBuilders.put("reports", this::buildReportsCard);
+        cardBuilders.put("calendar", this::buildCalendarCard);
+        cardBuilders.put("analytics", this::buildAnalyticsCard);
+        cardBuilders.put("settings", this::buildSettingsCard);
+        showCard("dashboard");
 
         addListeners();
+        // Every change reaches the window through the event bus, including those made elsewhere
+        DataManager.getInstance().getChanges().subscribe("window", changeFeed);
         refreshStatsAndTable();
 
         pack();
         setVisible(true);
     }
 
+    /**
+     * Also stops following changes and ends the search thread, so a window
+     * closed by logging out leaves nothing running behind it
+     */
+    @Override
+    public void dispose() {
+        DataManager.getInstance().getChanges().unsubscribe(changeFeed);
+        tableSearch.close();
+        super.dispose();
+    }
+
     private JPanel buildAnalyticsCard() {
         JPanel panel = new RoundedPanel(10, Color.WHITE);
         panel.setLayout(new GridLayout(2, 2, 16, 16));
         panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
 
-        List<Event> events = DataManager.getInstance().getAllEvents();
-
-        long upcoming = events.stream()
-                .filter(e -> !e.getDate().isBefore(LocalDate.now()))
-                .count();
+        EventStatistics stats = DataManager.getInstance().getStatistics();
 
-        int totalParticipants = events.stream()
-                .mapToInt(Event::getParticipantCount)
-                .sum();
-
-        panel.add(makeStatCard("Total Events", new JLabel(String.valueOf(events.size())), PRIMARY));
-        panel.add(makeStatCard("Upcoming Events", new JLabel(String.valueOf(upcoming)), WARNING));
-        panel.add(makeStatCard("Participants", new JLabel(String.valueOf(totalParticipants)), SUCCESS));
+        panel.add(makeStatCard("Total Events", new JLabel(String.valueOf(stats.getTotalEvents())), PRIMARY));
+        panel.add(makeStatCard("Upcoming Events", new JLabel(String.valueOf(stats.getUpcoming())), WARNING));
+        panel.add(makeStatCard("Participants", new JLabel(String.valueOf(stats.getTotalParticipants())), SUCCESS));
         panel.add(makeStatCard("Avg Participants",
-                new JLabel(events.isEmpty() ? "0" :
-                        String.valueOf(totalParticipants / events.size())),
+                new JLabel(String.valueOf((int) stats.getAverageParticipants())),
                 ACCENT));
 
         return panel;
@@ -125,22 +171,27 @@ public class MainFrame extends JFrame {
 
     private JPanel buildSettingsCard() {
         JPanel panel = new RoundedPanel(10, Color.WHITE);
-        panel.setLayout(new GridLayout(3, 1, 12, 12));
+        panel.setLayout(new GridLayout(4, 1, 12, 12));
         panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
 
         panel.add(createMaterialButton(
                 "Backup Database",
                 PRIMARY,
-                e -> {
-                    DataManager.getInstance().createBackup();
-                    JOptionPane.showMessageDialog(this, "Backup created successfully");
-                }
+                e -> whenDone(DataManager.getInstance().createBackupAsync(),
+                        name -> "Backup " + name + " created successfully", "Backup failed")
         ));
 
         panel.add(createMaterialButton(
                 "Export CSV",
                 SUCCESS,
-                e -> DataManager.getInstance().exportToCSV("events_export.csv")
+                e -> whenDone(DataManager.getInstance().exportToCSVAsync("events_export.csv"),
+                        "Exported to events_export.csv", "Export failed")
+        ));
+
+        panel.add(createMaterialButton(
+                "Import CSV",
+                PRIMARY,
+                e -> importCSV()
         ));
 
         panel.add(createMaterialButton(
@@ -167,40 +218,221 @@ public class MainFrame extends JFrame {
         area.setFont(new Font("Monospaced", Font.PLAIN, 13));
 
         StringBuilder sb = new StringBuilder();
-        List<Event> events = DataManager.getInstance().getAllEvents();
-
         sb.append("EVENT REPORT SUMMARY\n");
         sb.append("====================\n\n");
-        sb.append("Total Events: ").append(events.size()).append("\n");
-
-        int totalParticipants = events.stream()
-                .mapToInt(Event::getParticipantCount)
-                .sum();
-
-        sb.append("Total Participants: ").append(totalParticipants).append("\n\n");
-
-        events.forEach(e -> {
-            sb.append(e.getEventName()).append("\n");
-            sb.append(" Date: ").append(e.getDate()).append("\n");
-            sb.append(" Venue: ").append(e.getVenue()).append("\n");
-            sb.append(" Participants: ").append(e.getParticipantCount()).append("\n\n");
-        });
-
+        EventStatistics stats = DataManager.getInstance().getStatistics();
+        sb.append("Total Events: ").append(stats.getTotalEvents()).append("\n");
+        sb.append("Total Participants: ").append(stats.getTotalParticipants()).append("\n\n");
         area.setText(sb.toString());
 
+        // Events are listed a page at a time, so a large store is never read in full
+        JButton more = createMaterialButton("Show More", PRIMARY, null);
+        EventRepository repository = DataManager.getInstance().getRepository();
+        EventRepository.Cursor[] cursor = {EventRepository.Cursor.START};
+        Runnable showPage = () -> {
+            EventRepository.Page<EventSummary> page = repository.summaries(cursor[0], REPORT_PAGE_SIZE);
+            StringBuilder lines = new StringBuilder();
+            for (EventSummary e : page.getItems()) {
+                lines.append(e.getEventName()).append("\n");
+                lines.append(" Date: ").append(e.getStart().toLocalDate()).append("\n");
+                lines.append(" Venue: ").append(e.getVenue()).append("\n");
+                lines.append(" Participants: ").append(e.getParticipantCount()).append("\n\n");
+            }
+            area.append(lines.toString());
+            cursor[0] = page.getNext();
+            more.setEnabled(page.hasMore());
+        };
+        more.addActionListener(e -> showPage.run());
+        showPage.run();
+        area.setCaretPosition(0);
+
         JButton export = createMaterialButton(
                 "Export CSV",
                 SUCCESS,
-                e -> DataManager.getInstance().exportToCSV("events_report.csv")
+                e -> whenDone(DataManager.getInstance().exportToCSVAsync("events_report.csv"),
+                        "Exported to events_report.csv", "Export failed")
+        );
+        JButton database = createMaterialButton(
+                "Copy to Database",
+                PRIMARY,
+                e -> whenDone(DataManager.getInstance().exportToDatabaseAsync(JdbcEventRepository.DEFAULT_URL),
+                        copied -> copied + " events copied to " + JdbcEventRepository.DEFAULT_URL, "Copy failed")
         );
+        JPanel buttons = new JPanel(new GridLayout(1, 3, 8, 0));
+        buttons.setOpaque(false);
+        buttons.add(more);
+        buttons.add(export);
+        buttons.add(database);
 
         panel.add(new JScrollPane(area), BorderLayout.CENTER);
-        panel.add(export, BorderLayout.SOUTH);
+        panel.add(buttons, BorderLayout.SOUTH);
+
+        return panel;
+    }
+
+
+
+    private JPanel buildCalendarCard() {
+        JPanel panel = new RoundedPanel(10, Color.WHITE);
+        panel.setLayout(new BorderLayout(12, 12));
+        panel.setBorder(BorderFactory.createEmptyBorder(12, 12, 12, 12));
 
+        JPanel header = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 0));
+        header.setOpaque(false);
+        calendarTitle.setFont(new Font("SansSerif", Font.BOLD, 16));
+        calendarTitle.setForeground(TEXT_PRIMARY);
+        calendarTitle.setPreferredSize(new Dimension(180, 36));
+        calendarVenue.setPreferredSize(new Dimension(200, 36));
+        calendarVenue.setFont(new Font("SansSerif", Font.PLAIN, 13));
+        calendarVenue.setBackground(Color.WHITE);
+        calendarVenue.addActionListener(e -> refreshCalendar());
+
+        header.add(createMaterialButton("<", PRIMARY, e -> {
+            calendarMonth = calendarMonth.minusMonths(1);
+            refreshCalendar();
+        }));
+        header.add(calendarTitle);
+        header.add(createMaterialButton(">", PRIMARY, e -> {
+            calendarMonth = calendarMonth.plusMonths(1);
+            refreshCalendar();
+        }));
+        header.add(calendarVenue);
+        header.add(createMaterialButton("Free Venues", SUCCESS, e -> showFreeVenues()));
+
+        calendarGrid.setOpaque(false);
+        calendarDayArea.setEditable(false);
+        calendarDayArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        calendarDayArea.setMargin(new Insets(8, 8, 8, 8));
+        JScrollPane dayScroll = new JScrollPane(calendarDayArea);
+        dayScroll.setPreferredSize(new Dimension(300, 0));
+
+        panel.add(header, BorderLayout.NORTH);
+        panel.add(calendarGrid, BorderLayout.CENTER);
+        panel.add(dayScroll, BorderLayout.EAST);
         return panel;
     }
 
+    /**
+     * Redraw the calendar month from one overlap query on the venue index
+     */
+    private void refreshCalendar() {
+        if (refreshingCalendar || !builtCards.contains("calendar")) return;   // drawn when first shown
+        refreshingCalendar = true;
+        try {
+            DataManager dm = DataManager.getInstance();
+            Object selected = calendarVenue.getSelectedItem();
+            List<String> venues = dm.getVenues();
+            DefaultComboBoxModel<String> venueChoices = new DefaultComboBoxModel<>();
+            venueChoices.addElement(ALL_VENUES);
+            venues.forEach(venueChoices::addElement);
+            venueChoices.setSelectedItem(venues.contains(selected) ? selected : ALL_VENUES);
+            calendarVenue.setModel(venueChoices);
+
+            LocalDate first = calendarMonth.atDay(1);
+            LocalDate afterLast = calendarMonth.plusMonths(1).atDay(1);
+            List<Event> events = calendarEvents(first, afterLast);
+
+            // A multi-day event is listed on every day of the month it runs on
+            List<List<Event>> days = new ArrayList<>();
+            for (int i = 0; i < calendarMonth.lengthOfMonth(); i++) {
+                days.add(new ArrayList<>());
+            }
+            for (Event event : events) {
+                LocalDate from = event.getDate().isBefore(first) ? first : event.getDate();
+                LocalDate to = event.getEndDate().isBefore(afterLast) ? event.getEndDate() : afterLast.minusDays(1);
+                for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                    days.get(day.getDayOfMonth() - 1).add(event);
+                }
+            }
+
+            calendarTitle.setText(calendarMonth.format(MONTH_FORMAT));
+            calendarGrid.removeAll();
+            for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+                JLabel name = new JLabel(dayOfWeek.getDisplayName(TextStyle.SHORT, Locale.getDefault()), SwingConstants.CENTER);
+                name.setFont(new Font("SansSerif", Font.BOLD, 12));
+                name.setForeground(TEXT_PRIMARY);
+                calendarGrid.add(name);
+            }
+            for (int i = 1; i < first.getDayOfWeek().getValue(); i++) {
+                calendarGrid.add(new JLabel());
+            }
+            for (int i = 0; i < days.size(); i++) {
+                calendarGrid.add(calendarCell(calendarMonth.atDay(i + 1), days.get(i)));
+            }
+            calendarGrid.revalidate();
+            calendarGrid.repaint();
+            showCalendarDay();
+        } finally {
+            refreshingCalendar = false;
+        }
+    }
+
+    private List<Event> calendarEvents(LocalDate from, LocalDate to) {
+        Object venue = calendarVenue.getSelectedItem();
+        DataManager dm = DataManager.getInstance();
+        return venue == null || ALL_VENUES.equals(venue)
+                ? dm.getEventsOverlapping(from.atStartOfDay(), to.atStartOfDay())
+                : dm.getBookings(venue.toString(), from.atStartOfDay(), to.atStartOfDay());
+    }
+
+    private JLabel calendarCell(LocalDate day, List<Event> events) {
+        StringBuilder text = new StringBuilder("<html><b>").append(day.getDayOfMonth()).append("</b>");
+        int shown = Math.min(events.size(), 3);
+        for (int i = 0; i < shown; i++) {
+            Event event = events.get(i);
+            String times = formatTimesOn(event, day);
+            text.append("<br/>").append(times.equals("All day") ? "" : times.substring(0, 5) + " ")
+                    .append(escapeHtml(event.getEventName()));
+        }
+        if (events.size() > shown) text.append("<br/>+").append(events.size() - shown).append(" more");
+
+        JLabel cell = new JLabel(text.append("</html>").toString());
+        cell.setVerticalAlignment(SwingConstants.TOP);
+        cell.setFont(new Font("SansSerif", Font.PLAIN, 11));
+        cell.setForeground(TEXT_PRIMARY);
+        cell.setOpaque(true);
+        cell.setBackground(day.equals(calendarDay) ? new Color(227, 242, 253) : Color.WHITE);
+        cell.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(day.equals(LocalDate.now()) ? PRIMARY : new Color(224, 224, 224)),
+                BorderFactory.createEmptyBorder(4, 6, 4, 6)));
+        cell.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        cell.addMouseListener(new java.awt.event.MouseAdapter() {
+            @Override public void mouseClicked(java.awt.event.MouseEvent e) {
+                calendarDay = day;
+                refreshCalendar();
+            }
+        });
+        return cell;
+    }
 
+    /**
+     * List the picked day's bookings beside the month
+     */
+    private void showCalendarDay() {
+        StringBuilder text = new StringBuilder(calendarDay.format(DateTimeFormatter.ofPattern("EEEE dd/MM/yyyy")));
+        text.append("\n\n");
+        List<Event> events = calendarEvents(calendarDay, calendarDay.plusDays(1));
+        if (events.isEmpty()) text.append("Nothing booked\n");
+        for (Event event : events) {
+            text.append(formatTimesOn(event, calendarDay)).append("  ").append(event.getEventName()).append("\n");
+            text.append("  ").append(event.getVenue()).append(" | ").append(event.getOrganizer()).append("\n\n");
+        }
+        calendarDayArea.setText(text.toString());
+        calendarDayArea.setCaretPosition(0);
+    }
+
+    private void showFreeVenues() {
+        List<String> free = DataManager.getInstance().getFreeVenues(calendarDay.atStartOfDay(),
+                calendarDay.plusDays(1).atStartOfDay());
+        String day = calendarDay.format(DATE_FORMAT);
+        JOptionPane.showMessageDialog(this, free.isEmpty() ? "No known venue is free all day on " + day
+                        : "Free all day on " + day + ":\n" + String.join("\n", free),
+                "Free Venues", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    private static String escapeHtml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
 
     private JPanel buildSidebar(String username) {
         JPanel root = new JPanel(new BorderLayout());
@@ -221,12 +453,14 @@ public class MainFrame extends JFrame {
         styleSidebarButton(dashboardBtn, true);
         styleSidebarButton(eventsBtn, false);
         styleSidebarButton(reportsBtn, false);
+        styleSidebarButton(calendarBtn, false);
         styleSidebarButton(analyticsBtn, false);
         styleSidebarButton(settingsBtn, false);
 
         menu.add(dashboardBtn);
         menu.add(eventsBtn);
         menu.add(reportsBtn);
+        menu.add(calendarBtn);
         menu.add(analyticsBtn);
         menu.add(settingsBtn);
         menu.add(Box.createVerticalGlue());
@@ -241,11 +475,12 @@ public class MainFrame extends JFrame {
         root.add(menu, BorderLayout.CENTER);
         root.add(bottom, BorderLayout.SOUTH);
 
-        dashboardBtn.addActionListener(e -> { selectMenu(dashboardBtn); cardLayout.show(centerCards, "dashboard"); });
-        eventsBtn.addActionListener(e -> { selectMenu(eventsBtn); cardLayout.show(centerCards, "events"); });
-        reportsBtn.addActionListener(e -> { selectMenu(reportsBtn); cardLayout.show(centerCards, "reports"); });
-        analyticsBtn.addActionListener(e -> { selectMenu(analyticsBtn); cardLayout.show(centerCards, "analytics"); });
-        settingsBtn.addActionListener(e -> { selectMenu(settingsBtn); cardLayout.show(centerCards, "settings"); });
+        dashboardBtn.addActionListener(e -> { selectMenu(dashboardBtn); showCard("dashboard"); });
+        eventsBtn.addActionListener(e -> { selectMenu(eventsBtn); showCard("events"); });
+        reportsBtn.addActionListener(e -> { selectMenu(reportsBtn); showCard("reports"); });
+        calendarBtn.addActionListener(e -> { selectMenu(calendarBtn); showCard("calendar"); refreshCalendar(); });
+        analyticsBtn.addActionListener(e -> { selectMenu(analyticsBtn); showCard("analytics"); });
+        settingsBtn.addActionListener(e -> { selectMenu(settingsBtn); showCard("settings"); });
 
         return root;
     }
@@ -279,6 +514,20 @@ public class MainFrame extends JFrame {
         }
     }
 
+    /**
+     * Show a card, building it first if this is the first time
+     */
+    private void showCard(String name) {
+        if (builtCards.add(name)) {
+            centerCards.add(cardBuilders.get(name).get(), name);
+        }
+        JScrollPane tableHome = tableHomes.get(name);
+        if (tableHome != null && tableHome.getViewport().getView() != eventTable) {
+            tableHome.setViewportView(eventTable);
+        }
+        cardLayout.show(centerCards, name);
+    }
+
     private JPanel buildContent() {
         JPanel root = new JPanel(new BorderLayout());
         root.setBackground(SURFACE);
@@ -352,6 +601,7 @@ public class MainFrame extends JFrame {
 
         JScrollPane scroll = new JScrollPane(eventTable);
         scroll.setBorder(BorderFactory.createEmptyBorder());
+        tableHomes.put("dashboard", scroll);
         panel.add(scroll, BorderLayout.CENTER);
 
         return panel;
@@ -375,6 +625,7 @@ public class MainFrame extends JFrame {
         actions.add(createMaterialButton("Edit", PRIMARY, e -> updateEvent()));
         actions.add(createMaterialButton("Delete", new Color(244, 67, 54), e -> deleteEvent()));
         actions.add(createMaterialButton("Register", ACCENT, e -> registerParticipant()));
+        actions.add(createMaterialButton("Tickets", PRIMARY, e -> saveTickets()));
         actions.add(createMaterialButton("Report", WARNING, e -> generateEnhancedReport()));
 
         header.add(title, BorderLayout.WEST);
@@ -382,6 +633,7 @@ public class MainFrame extends JFrame {
 
         JScrollPane scroll = new JScrollPane(eventTable);
         scroll.setBorder(BorderFactory.createEmptyBorder());
+        tableHomes.put("events", scroll);
         root.add(header, BorderLayout.NORTH);
         root.add(scroll, BorderLayout.CENTER);
 
@@ -399,7 +651,7 @@ public class MainFrame extends JFrame {
         return p;
     }
 
-    private JTable createTable(DefaultTableModel model) {
+    private JTable createTable(TableModel model) {
         JTable table = new JTable(model);
         table.setRowHeight(44);
         table.setFont(new Font("SansSerif", Font.PLAIN, 13));
@@ -452,10 +704,11 @@ public class MainFrame extends JFrame {
     }
 
     private void addListeners() {
+        // Typing waits for a pause before searching; the other triggers search at once
         searchField.getDocument().addDocumentListener(new DocumentListener() {
-            public void insertUpdate(DocumentEvent e) { filterTable(); }
-            public void removeUpdate(DocumentEvent e) { filterTable(); }
-            public void changedUpdate(DocumentEvent e) { filterTable(); }
+            public void insertUpdate(DocumentEvent e) { scheduleFilter(); }
+            public void removeUpdate(DocumentEvent e) { scheduleFilter(); }
+            public void changedUpdate(DocumentEvent e) { scheduleFilter(); }
         });
 
         statusFilter.addActionListener(e -> filterTable());
@@ -468,52 +721,75 @@ public class MainFrame extends JFrame {
     }
 
     private void refreshStatsAndTable() {
-        List<Event> events = DataManager.getInstance().getAllEvents();
-        totalEventsLabel.setText(String.valueOf(events.size()));
-        int totalParticipants = events.stream().mapToInt(Event::getParticipantCount).sum();
-        participantsLabel.setText(String.valueOf(totalParticipants));
-        long upcoming = events.stream().filter(ev -> !ev.getDate().isBefore(LocalDate.now())).count();
-        upcomingLabel.setText(String.valueOf(upcoming));
-        int thisMonth = (int) events.stream().filter(ev -> ev.getDate().getMonth().equals(LocalDate.now().getMonth())).count();
-        monthLabel.setText(String.valueOf(thisMonth));
+        updateStats();
         filterTable();
+        refreshCalendar();
     }
 
-    private void filterTable() {
-        String q = searchField.getText().trim().toLowerCase();
-        String status = statusFilter.getSelectedItem().toString();
-        tableModel.setRowCount(0);
-        LocalDate today = LocalDate.now();
-        for (Event event : DataManager.getInstance().getAllEvents()) {
-            String evStatus = event.getDate().isBefore(today) ? "Completed" :
-                    event.getDate().isEqual(today) ? "Today" : "Upcoming";
-
-            boolean statusOk = status.equals("All") || evStatus.equalsIgnoreCase(status);
-            boolean qOk = q.isEmpty() ||
-                    event.getEventName().toLowerCase().contains(q) ||
-                    event.getVenue().toLowerCase().contains(q) ||
-                    event.getOrganizer().toLowerCase().contains(q);
-
-            if (statusOk && qOk) {
-                tableModel.addRow(new Object[]{
-                        event.getEventId(),
-                        event.getEventName(),
-                        event.getDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")),
-                        event.getVenue(),
-                        event.getOrganizer(),
-                        event.getParticipantCount(),
-                        evStatus
-                });
-            }
+    private void updateStats() {
+        EventStatistics stats = DataManager.getInstance().getStatistics();
+        totalEventsLabel.setText(String.valueOf(stats.getTotalEvents()));
+        participantsLabel.setText(String.valueOf(stats.getTotalParticipants()));
+        upcomingLabel.setText(String.valueOf(stats.getUpcoming()));
+        monthLabel.setText(String.valueOf(stats.getThisMonth()));
+    }
+
+    /**
+     * Show changes to these events: only their rows are touched, unless there
+     * are so many that searching again is cheaper, or a search is on its way anyway
+     */
+    private void applyChanges(Collection<Integer> changedIds) {
+        updateStats();
+        if (changedIds.size() > MAX_ROW_CHANGES || tableSearch.isBusy()) {
+            filterTable();
+        } else {
+            tableModel.apply(changedIds, tableSearch::shows);
         }
+        refreshCalendar();
+    }
+
+    private void filterTable() {
+        tableSearch.runNow(searchField.getText().trim(), statusFilter.getSelectedItem().toString());
+    }
+
+    private void scheduleFilter() {
+        tableSearch.schedule(searchField.getText().trim(), statusFilter.getSelectedItem().toString());
+    }
+
+    private static String statusOf(Event event, LocalDate today) {
+        return event.statusOn(today).toString();
+    }
+
+    /**
+     * Date, plus start time unless the event is all day
+     */
+    private static String formatWhen(Event event) {
+        String when = event.getDate().format(DATE_FORMAT);
+        return event.isAllDay() ? when : when + " " + event.getStart().toLocalTime().format(TIME_FORMAT);
+    }
+
+    /**
+     * Time range within a day, e.g. "09:00-11:00"; "All day" when the event covers the whole day
+     */
+    private static String formatTimesOn(Event event, LocalDate day) {
+        LocalDateTime dayStart = day.atStartOfDay();
+        LocalDateTime dayEnd = day.plusDays(1).atStartOfDay();
+        if (!event.getStart().isAfter(dayStart) && !event.getEnd().isBefore(dayEnd)) return "All day";
+        String from = event.getStart().isAfter(dayStart) ? event.getStart().toLocalTime().format(TIME_FORMAT) : "00:00";
+        String to = event.getEnd().isBefore(dayEnd) ? event.getEnd().toLocalTime().format(TIME_FORMAT) : "24:00";
+        return from + "-" + to;
     }
 
     private void addEvent() {
         MaterialFormDialog d = new MaterialFormDialog(this, "Add New Event");
         JTextField name = d.addTextField("Event Name");
         JTextField date = d.addTextField("Date (DD/MM/YYYY)");
+        JTextField startTime = d.addTextField("Start Time (HH:MM, blank = all day)");
+        JTextField endTime = d.addTextField("End Time (HH:MM)");
+        JTextField endDate = d.addTextField("End Date (DD/MM/YYYY, blank = same day)");
         JTextField venue = d.addTextField("Venue");
         JTextField organizer = d.addTextField("Organizer");
+        JTextField capacity = d.addTextField("Capacity (blank = no limit)");
 
         d.setPrimaryAction("Save Event", e -> {
             try {
@@ -526,14 +802,14 @@ public class MainFrame extends JFrame {
                     return;
                 }
                 LocalDate dt = LocalDate.parse(ds, DateTimeFormatter.ofPattern("dd/MM/yyyy"));
-                List<Event> conflicts = DataManager.getInstance().getConflictingEvents(dt, v);
-                if (!conflicts.isEmpty()) {
-                    int r = JOptionPane.showConfirmDialog(d, "Event exists same date/venue. Continue?", "Conflict", JOptionPane.YES_NO_OPTION);
-                    if (r != JOptionPane.YES_OPTION) return;
-                }
-                Event ev = new Event(n, dt, v, o);
+                LocalDateTime[] times = parseTimes(d, dt, startTime.getText(), endTime.getText(), endDate.getText());
+                if (times == null) return;
+                Integer cap = parseCapacity(d, capacity.getText());
+                if (cap == null) return;
+                if (!confirmNoConflict(d, null, times, v)) return;
+                Event ev = new Event(n, times[0], times[1], v, o);
+                ev.getRegistry().setCapacity(cap);
                 DataManager.getInstance().addEvent(ev);
-                refreshStatsAndTable();
                 d.dispose();
                 JOptionPane.showMessageDialog(this, "Event added");
             } catch (DateTimeParseException ex) {
@@ -541,16 +817,77 @@ public class MainFrame extends JFrame {
             }
         });
 
+        d.pack();
         d.setVisible(true);
     }
 
+    /**
+     * Start and end typed into a form (see Event.resolveEnd), or null (after telling the user) if invalid
+     */
+    private LocalDateTime[] parseTimes(Component parent, LocalDate date, String startText, String endTimeText,
+                                       String endDateText) {
+        try {
+            LocalTime start = startText.isBlank() ? null : LocalTime.parse(startText.trim(), TIME_FORMAT);
+            LocalTime endTime = endTimeText.isBlank() ? null : LocalTime.parse(endTimeText.trim(), TIME_FORMAT);
+            LocalDate endDate = endDateText.isBlank() ? null : LocalDate.parse(endDateText.trim(), DATE_FORMAT);
+            LocalDateTime end = Event.resolveEnd(date, start, endDate, endTime);
+            return new LocalDateTime[]{date.atTime(start != null ? start : LocalTime.MIDNIGHT), end};
+        } catch (DateTimeParseException ex) {
+            JOptionPane.showMessageDialog(parent, "Invalid time or end date. Use HH:MM and DD/MM/YYYY", "Error", JOptionPane.ERROR_MESSAGE);
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(parent, ex.getMessage(), "Validation", JOptionPane.WARNING_MESSAGE);
+        }
+        return null;
+    }
+
+    /**
+     * Ask before double-booking a venue; true if there is no clash or the user goes ahead anyway
+     */
+    private boolean confirmNoConflict(Component parent, Event self, LocalDateTime[] times, String venue) {
+        List<Event> conflicts = DataManager.getInstance().getConflictingEvents(times[0], times[1], venue);
+        StringBuilder clashes = new StringBuilder();
+        for (Event other : conflicts) {
+            if (other == self) continue;
+            clashes.append("\n").append(other.getEventName()).append(" (").append(formatWhen(other)).append(")");
+        }
+        if (clashes.length() == 0) return true;
+        int r = JOptionPane.showConfirmDialog(parent, venue + " is already booked at that time:" + clashes + "\n\nContinue?",
+                "Conflict", JOptionPane.YES_NO_OPTION);
+        return r == JOptionPane.YES_OPTION;
+    }
+
+    /**
+     * Capacity typed into a form: 0 for blank, null (after telling the user) if invalid
+     */
+    private Integer parseCapacity(Component parent, String text) {
+        if (text.isBlank()) return 0;
+        try {
+            int capacity = Integer.parseInt(text.trim());
+            if (capacity >= 0) return capacity;
+        } catch (NumberFormatException ignored) {
+        }
+        JOptionPane.showMessageDialog(parent, "Capacity must be a whole number", "Validation", JOptionPane.WARNING_MESSAGE);
+        return null;
+    }
+
+    private void importCSV() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new FileNameExtensionFilter("CSV files", "csv"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+        whenDone(DataManager.getInstance().importCSVAsync(chooser.getSelectedFile().getPath()), result -> {
+            String message = "Imported " + result.getImported().size() + " events";
+            if (result.getReport() != null) {
+                message += "\n" + result.getRejected().size() + " rows rejected, see " + result.getReport().getName();
+            }
+            return message;
+        }, "Import failed");
+    }
+
     private Event getSelectedEvent() {
         int row = eventTable.getSelectedRow();
         if (row == -1) return null;
-        int id = (int) tableModel.getValueAt(row, 0);
-        return DataManager.getInstance().getAllEvents().stream()
-                .filter(ev -> ev.getEventId() == id)
-                .findFirst().orElse(null);
+        return tableModel.getEventAt(row);
     }
 
     private void updateEvent() {
@@ -563,8 +900,18 @@ public class MainFrame extends JFrame {
         MaterialFormDialog d = new MaterialFormDialog(this, "Update Event");
         JTextField name = d.addTextField("Event Name", ev.getEventName());
         JTextField date = d.addTextField("Date (DD/MM/YYYY)", ev.getDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
+        boolean allDay = ev.isAllDay();
+        LocalDate lastDay = allDay ? ev.getEndDate() : ev.getEnd().toLocalDate();
+        JTextField startTime = d.addTextField("Start Time (HH:MM, blank = all day)",
+                allDay ? "" : ev.getStart().toLocalTime().format(TIME_FORMAT));
+        JTextField endTime = d.addTextField("End Time (HH:MM)", allDay ? "" : ev.getEnd().toLocalTime().format(TIME_FORMAT));
+        JTextField endDate = d.addTextField("End Date (DD/MM/YYYY, blank = same day)",
+                lastDay.equals(ev.getDate()) ? "" : lastDay.format(DATE_FORMAT));
         JTextField venue = d.addTextField("Venue", ev.getVenue());
         JTextField organizer = d.addTextField("Organizer", ev.getOrganizer());
+        int oldCapacity = ev.getRegistry().getCapacity();
+        long version = ev.getVersion();   // what the form shows; saving fails if it has moved on
+        JTextField capacity = d.addTextField("Capacity (blank = no limit)", oldCapacity == 0 ? "" : String.valueOf(oldCapacity));
 
         d.setPrimaryAction("Update Event", a -> {
             try {
@@ -577,11 +924,23 @@ public class MainFrame extends JFrame {
                     return;
                 }
                 LocalDate dt = LocalDate.parse(ds, DateTimeFormatter.ofPattern("dd/MM/yyyy"));
-                ev.setEventName(n);
-                ev.setDate(dt);
-                ev.setVenue(v);
-                ev.setOrganizer(o);
-                refreshStatsAndTable();
+                LocalDateTime[] times = parseTimes(d, dt, startTime.getText(), endTime.getText(), endDate.getText());
+                if (times == null) return;
+                Integer cap = parseCapacity(d, capacity.getText());
+                if (cap == null) return;
+                DataManager dm = DataManager.getInstance();
+                DataManager.UpdateResult result = dm.updateEvent(ev, version, n, times[0], times[1], v, o, cap, false);
+                // Saved over a clash only once the user has seen it and agreed
+                if (result == DataManager.UpdateResult.CONFLICT) {
+                    if (!confirmNoConflict(d, ev, times, v)) return;
+                    result = dm.updateEvent(ev, version, n, times[0], times[1], v, o, cap, true);
+                }
+                if (result != DataManager.UpdateResult.UPDATED) {
+                    JOptionPane.showMessageDialog(d, "This event was changed or removed while you were editing it.\n"
+                            + "Open it again to see the latest details.", "Event Changed", JOptionPane.WARNING_MESSAGE);
+                    d.dispose();
+                    return;
+                }
                 d.dispose();
                 JOptionPane.showMessageDialog(this, "Event updated");
             } catch (DateTimeParseException ex) {
@@ -589,6 +948,7 @@ public class MainFrame extends JFrame {
             }
         });
 
+        d.pack();
         d.setVisible(true);
     }
 
@@ -601,7 +961,6 @@ public class MainFrame extends JFrame {
         int r = JOptionPane.showConfirmDialog(this, "Delete selected event?", "Confirm", JOptionPane.YES_NO_OPTION);
         if (r == JOptionPane.YES_OPTION) {
             DataManager.getInstance().removeEvent(ev);
-            refreshStatsAndTable();
             JOptionPane.showMessageDialog(this, "Event removed");
         }
     }
@@ -615,7 +974,7 @@ public class MainFrame extends JFrame {
 
         MaterialFormDialog d = new MaterialFormDialog(this, "Register Participant");
         JTextField name = d.addTextField("Participant Name");
-        JComboBox<String> typeBox = new JComboBox<>(new String[]{"Student", "Staff"});
+        JComboBox<Participant.Type> typeBox = new JComboBox<>(new Participant.Type[]{Participant.Type.STUDENT, Participant.Type.STAFF});
         typeBox.setPreferredSize(new Dimension(260, 36));
         d.addComponentRow("Type", typeBox);
 
@@ -625,10 +984,30 @@ public class MainFrame extends JFrame {
                 JOptionPane.showMessageDialog(d, "Enter participant name", "Validation", JOptionPane.WARNING_MESSAGE);
                 return;
             }
-            ev.addParticipant(n + " - " + typeBox.getSelectedItem());
-            refreshStatsAndTable();
+            Participant participant;
+            try {
+                participant = new Participant(n, (Participant.Type) typeBox.getSelectedItem());
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(d, ex.getMessage(), "Validation", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            ParticipantRegistry.Result result = DataManager.getInstance().addParticipant(ev, participant);
+            if (result == ParticipantRegistry.Result.NOT_FOUND) {
+                d.dispose();
+                JOptionPane.showMessageDialog(this, "This event has been removed", "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            if (result == ParticipantRegistry.Result.DUPLICATE) {
+                JOptionPane.showMessageDialog(d, n + " is already registered", "Validation", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
             d.dispose();
-            JOptionPane.showMessageDialog(this, "Participant added");
+            if (result == ParticipantRegistry.Result.WAITLISTED) {
+                JOptionPane.showMessageDialog(this, "Event is full - added to the waitlist (position "
+                        + ev.getRegistry().waitlistSize() + ")");
+            } else {
+                JOptionPane.showMessageDialog(this, "Participant added");
+            }
         });
 
         d.setVisible(true);
@@ -648,31 +1027,26 @@ public class MainFrame extends JFrame {
         reportArea.setEditable(false);
         reportArea.setMargin(new Insets(12, 12, 12, 12));
 
-        StringBuilder rep = new StringBuilder();
-        rep.append("UNIVERSITY EVENT MANAGEMENT REPORT\n");
-        rep.append("Generated on: ").append(LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"))).append("\n\n");
-
-        List<Event> events = DataManager.getInstance().getAllEvents();
-        rep.append("Total Events: ").append(events.size()).append("\n\n");
-        rep.append("UPCOMING EVENTS\n");
-        rep.append("----------------\n");
-        events.stream()
-                .filter(e -> !e.getDate().isBefore(LocalDate.now()))
-                .sorted(Comparator.comparing(Event::getDate))
-                .forEach(e -> {
-                    rep.append(e.getEventName()).append(" (").append(e.getDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"))).append(")\n");
-                    rep.append("Venue: ").append(e.getVenue()).append(" | Organizer: ").append(e.getOrganizer()).append("\n");
-                    rep.append("Participants: ").append(e.getParticipantCount()).append("\n\n");
-                });
-
-        int totalParticipants = events.stream().mapToInt(Event::getParticipantCount).sum();
-        rep.append("Total Participants (All Events): ").append(totalParticipants).append("\n");
-        if (!events.isEmpty()) {
-            rep.append("Average Participants per Event: ").append(String.format("%.1f", (double) totalParticipants / events.size())).append("\n");
-        }
-
-        reportArea.setText(rep.toString());
-        reportArea.setCaretPosition(0);
+        reportArea.setText("Building report...");
+        EventStatistics stats = DataManager.getInstance().getStatistics();
+        // Built and written into a detached document off the Swing thread, then shown
+        CompletableFuture<Report> report = DataManager.getInstance().reportAsync();
+        report.thenApply(r -> {
+            PlainDocument document = new PlainDocument();
+            try (Writer out = new DocumentWriter(document)) {
+                r.writeTo(out, Report.Format.TEXT);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return document;
+        }).whenComplete((document, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                reportArea.setText("Could not build the report: " + error.getMessage());
+                return;
+            }
+            reportArea.setDocument(document);
+            reportArea.setCaretPosition(0);
+        }));
 
         JScrollPane scroll = new JScrollPane(reportArea);
         scroll.setBorder(BorderFactory.createEmptyBorder());
@@ -686,14 +1060,14 @@ public class MainFrame extends JFrame {
         qrTitle.setFont(new Font("SansSerif", Font.BOLD, 13));
         qrPanel.add(qrTitle, BorderLayout.NORTH);
 
-        BufferedImage qrImage = generateSimpleQRCode("Report:" + events.size() + ":" + LocalDate.now(), 220, 220);
+        BufferedImage qrImage = QrCode.encode("Report:" + stats.getTotalEvents() + ":" + LocalDate.now()).toImage(220);
         JLabel qrLabel = new JLabel(new ImageIcon(qrImage));
         qrLabel.setHorizontalAlignment(SwingConstants.CENTER);
         qrPanel.add(qrLabel, BorderLayout.CENTER);
 
         JPanel qrBtns = new JPanel(new FlowLayout(FlowLayout.CENTER, 8, 8));
         qrBtns.setOpaque(false);
-        JButton save = createMaterialButton("Save Report", SUCCESS, e -> saveReportToFile(rep.toString(), qrImage));
+        JButton save = createMaterialButton("Save Report", SUCCESS, e -> saveReportToFile(report, qrImage));
         JButton saveQr = createMaterialButton("Save QR", PRIMARY, e -> saveQRCode(qrImage));
         qrBtns.add(save);
         qrBtns.add(saveQr);
@@ -706,39 +1080,44 @@ public class MainFrame extends JFrame {
         dialog.setVisible(true);
     }
 
-    private BufferedImage generateSimpleQRCode(String data, int width, int height) {
-        BufferedImage qr = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-        Graphics2D g = qr.createGraphics();
-        g.setColor(Color.WHITE);
-        g.fillRect(0, 0, width, height);
-        int blocks = 20;
-        int blockSize = Math.max(4, width / blocks);
-        for (int i = 0; i < Math.min(data.length(), blocks * blocks); i++) {
-            int x = (i % blocks) * blockSize;
-            int y = (i / blocks) * blockSize;
-            if (data.charAt(i % data.length()) % 2 == 0) {
-                g.setColor(Color.BLACK);
-                g.fillRect(x, y, blockSize, blockSize);
-            }
-        }
-        g.dispose();
-        return qr;
-    }
-
-    private void saveReportToFile(String reportText, BufferedImage qrImage) {
+    private void saveReportToFile(CompletableFuture<Report> report, BufferedImage qrImage) {
         JFileChooser chooser = new JFileChooser();
         chooser.setSelectedFile(new File("Event_Report_" + LocalDate.now().format(DateTimeFormatter.ofPattern("ddMMyyyy")) + ".txt"));
+        chooser.addChoosableFileFilter(new FileNameExtensionFilter("Text, CSV or HTML", "txt", "csv", "html", "htm"));
         int sel = chooser.showSaveDialog(this);
         if (sel == JFileChooser.APPROVE_OPTION) {
-            try {
-                File file = chooser.getSelectedFile();
-                try (FileWriter writer = new FileWriter(file)) { writer.write(reportText); }
-                String qrFileName = file.getAbsolutePath().replace(".txt", "_QR.png");
-                ImageIO.write(qrImage, "png", new File(qrFileName));
-                JOptionPane.showMessageDialog(this, "Report and QR saved", "Success", JOptionPane.INFORMATION_MESSAGE);
-            } catch (IOException ex) {
-                JOptionPane.showMessageDialog(this, "Error saving: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            File file = chooser.getSelectedFile();
+            // The format follows the file's extension
+            Report.Format format = Report.Format.forFileName(file.getName());
+            whenDone(report.thenAcceptAsync(r -> {
+                try {
+                    try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+                        r.writeTo(writer, format);
+                    }
+                    String name = file.getAbsolutePath();
+                    int dot = name.lastIndexOf('.');
+                    String qrFileName = (dot > name.lastIndexOf(File.separatorChar) ? name.substring(0, dot) : name) + "_QR.png";
+                    ImageIO.write(qrImage, "png", new File(qrFileName));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }), "Report and QR saved", "Error saving");
+        }
+    }
+
+    private void saveTickets() {
+        Event ev = getSelectedEvent();
+        if (ev == null) {
+            JOptionPane.showMessageDialog(this, "Select an event to print tickets for", "Info", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Folder for the tickets");
+        chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        if (chooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
+            File dir = chooser.getSelectedFile();
+            whenDone(CompletableFuture.supplyAsync(() -> TicketPrinter.writeTickets(ev, dir)),
+                    count -> count + " tickets saved to " + dir.getName(), "Error saving tickets");
         }
     }
 
@@ -747,13 +1126,297 @@ public class MainFrame extends JFrame {
         chooser.setSelectedFile(new File("Event_Report_QR_" + LocalDate.now().format(DateTimeFormatter.ofPattern("ddMMyyyy")) + ".png"));
         int sel = chooser.showSaveDialog(this);
         if (sel == JFileChooser.APPROVE_OPTION) {
+            File file = chooser.getSelectedFile();
+            whenDone(CompletableFuture.runAsync(() -> {
+                try {
+                    ImageIO.write(qrImage, "png", file);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }), "QR saved: " + file.getName(), "Error saving QR");
+        }
+    }
+
+    /**
+     * Show a wait cursor while a background task runs, then report
+     * the result back on the Swing thread. A result of false counts as failure.
+     */
+    private void whenDone(CompletableFuture<?> task, String successMessage, String failureMessage) {
+        whenDone(task, result -> successMessage, failureMessage);
+    }
+
+    /**
+     * As above, with the success message built from the task's result
+     */
+    private <T> void whenDone(CompletableFuture<T> task, Function<T, String> successMessage, String failureMessage) {
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        task.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            setCursor(Cursor.getDefaultCursor());
+            if (error == null && !Boolean.FALSE.equals(result)) {
+                JOptionPane.showMessageDialog(this, successMessage.apply(result), "Success", JOptionPane.INFORMATION_MESSAGE);
+            } else {
+                String detail = error == null ? "" : ": " + (error.getCause() != null ? error.getCause() : error).getMessage();
+                JOptionPane.showMessageDialog(this, failureMessage + detail, "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        }));
+    }
+
+    /**
+     * Table model over a list of event IDs.
+     * Cells are looked up and formatted only when the table paints them,
+     * and a new filter result is swapped in with a single change event.
+     */
+    static class EventTableModel extends AbstractTableModel {
+        private static final String[] COLUMNS = {"ID", "Event Name", "Date", "Venue", "Organizer", "Participants", "Status"};
+        private int[] eventIds = new int[0];   // ascending, so a row is found by binary search
+
+        /**
+         * Show these events; the IDs must be in ascending order
+         */
+        void setEventIds(int[] eventIds) {
+            this.eventIds = eventIds;
+            fireTableDataChanged();
+        }
+
+        Event getEventAt(int row) {
+            return DataManager.getInstance().getEventById(eventIds[row]);
+        }
+
+        /**
+         * Bring the rows of these events up to date: each is repainted, dropped
+         * or inserted in ID order depending on whether it still exists and is to be shown
+         */
+        void apply(Collection<Integer> changedIds, Predicate<Event> shown) {
+            DataManager dm = DataManager.getInstance();
+            for (int id : changedIds) {
+                int row = Arrays.binarySearch(eventIds, id);
+                Event event = dm.getEventById(id);
+                boolean keep = event != null && shown.test(event);
+                if (row >= 0 && keep) {
+                    fireTableRowsUpdated(row, row);
+                } else if (row >= 0) {
+                    // New arrays throughout: eventIds may be a cached search result
+                    int[] next = new int[eventIds.length - 1];
+                    System.arraycopy(eventIds, 0, next, 0, row);
+                    System.arraycopy(eventIds, row + 1, next, row, next.length - row);
+                    eventIds = next;
+                    fireTableRowsDeleted(row, row);
+                } else if (keep) {
+                    // An edit can bring an old event into the filter, so it goes where its ID belongs
+                    int at = -row - 1;
+                    int[] next = new int[eventIds.length + 1];
+                    System.arraycopy(eventIds, 0, next, 0, at);
+                    next[at] = id;
+                    System.arraycopy(eventIds, at, next, at + 1, eventIds.length - at);
+                    eventIds = next;
+                    fireTableRowsInserted(at, at);
+                }
+            }
+        }
+
+        @Override public int getRowCount() { return eventIds.length; }
+        @Override public int getColumnCount() { return COLUMNS.length; }
+        @Override public String getColumnName(int column) { return COLUMNS[column]; }
+        @Override public boolean isCellEditable(int row, int column) { return false; }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            if (column == 0) return eventIds[row];
+            Event event = getEventAt(row);
+            if (event == null) return "";   // removed since the last refresh
+            switch (column) {
+                case 1: return event.getEventName();
+                case 2: return formatWhen(event);
+                case 3: return event.getVenue();
+                case 4: return event.getOrganizer();
+                case 5: return event.getParticipantCount();
+                default: return statusOf(event, LocalDate.now());
+            }
+        }
+    }
+
+    /**
+     * Appends to a Swing document, in chunks. Only for documents not yet shown,
+     * as it is used off the Swing thread.
+     */
+    private static class DocumentWriter extends Writer {
+        private final Document document;
+        private final StringBuilder pending = new StringBuilder();
+
+        DocumentWriter(Document document) {
+            this.document = document;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) throws IOException {
+            pending.append(chars, offset, length);
+            if (pending.length() >= 8192) flush();
+        }
+
+        @Override
+        public void flush() throws IOException {
             try {
-                File file = chooser.getSelectedFile();
-                ImageIO.write(qrImage, "png", file);
-                JOptionPane.showMessageDialog(this, "QR saved: " + file.getName(), "Saved", JOptionPane.INFORMATION_MESSAGE);
-            } catch (IOException ex) {
-                JOptionPane.showMessageDialog(this, "Error saving QR: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                document.insertString(document.getLength(), pending.toString(), null);
+            } catch (BadLocationException e) {
+                throw new IOException(e);
+            }
+            pending.setLength(0);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+    /**
+     * Keeps the window in step with DataManager's event bus. Batches that
+     * arrive before the Swing thread gets to them are gathered into one pass.
+     * Only queues work for the Swing thread, so it never holds the bus up.
+     */
+    private class ChangeFeed implements EventBus.Subscriber<EventChange> {
+        private Set<Integer> pending = new LinkedHashSet<>();   // guarded by this
+
+        @Override
+        public void onBatch(List<EventChange> batch) {
+            boolean first;
+            synchronized (this) {
+                first = pending.isEmpty();
+                for (EventChange change : batch) {
+                    pending.add(change.getEventId());
+                }
+            }
+            if (first) SwingUtilities.invokeLater(this::apply);
+        }
+
+        private void apply() {
+            Set<Integer> changed;
+            synchronized (this) {
+                changed = pending;
+                pending = new LinkedHashSet<>();
+            }
+            applyChanges(changed);
+        }
+    }
+
+    /**
+     * Runs the table's search and status filter on a background thread.
+     * Typing is debounced; a newer search makes an older one stop early and
+     * drop its result; and a query that only got longer is answered from the
+     * previous matches (see SearchIndex.search). Results reach the table model
+     * in one go, on the Swing thread.
+     */
+    static class TableSearch {
+        private static final int DEBOUNCE_MS = 150;
+        private static final int CANCEL_CHECK_INTERVAL = 4096;   // rows filtered between checks
+
+        private final EventTableModel model;
+        private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "table-search");
+            t.setDaemon(true);
+            return t;
+        });
+        // Only the search with the latest number may publish its result
+        private final AtomicLong generation = new AtomicLong();
+        private final Timer debounce;
+        private String pendingQuery = "";
+        private String pendingStatus = "All";
+        private SearchIndex.Result previous;   // only touched on the search thread
+        private long shown;                    // the search whose result the model holds
+
+        TableSearch(EventTableModel model) {
+            this.model = model;
+            debounce = new Timer(DEBOUNCE_MS, e -> submit());
+            debounce.setRepeats(false);
+        }
+
+        /**
+         * Search once no new call has come for a moment; call on the Swing thread
+         */
+        void schedule(String query, String status) {
+            pendingQuery = query;
+            pendingStatus = status;
+            debounce.restart();
+        }
+
+        /**
+         * Search now, dropping any search still waiting or running
+         */
+        void runNow(String query, String status) {
+            debounce.stop();
+            pendingQuery = query;
+            pendingStatus = status;
+            submit();
+        }
+
+        /**
+         * Drop any waiting or running search and end the search thread
+         */
+        void close() {
+            debounce.stop();
+            generation.incrementAndGet();
+            executor.shutdownNow();
+        }
+
+        private void submit() {
+            long id = generation.incrementAndGet();
+            String query = pendingQuery;
+            String status = pendingStatus;
+            executor.execute(() -> run(id, query, status));
+        }
+
+        private void run(long id, String query, String status) {
+            if (isStale(id)) return;
+            DataManager dm = DataManager.getInstance();
+            int[] ids;
+            if (query.isEmpty()) {
+                ids = dm.getAllEventIds();
+                Arrays.sort(ids);   // added order; the table keeps rows in ID order
+            } else {
+                previous = dm.searchEventIds(query, previous);
+                ids = previous.getIds();
+            }
+
+            if (!status.equals("All")) {
+                LocalDate today = LocalDate.now();
+                int[] kept = new int[ids.length];   // a new array: ids may be the cached result
+                int count = 0;
+                for (int i = 0; i < ids.length; i++) {
+                    if (i % CANCEL_CHECK_INTERVAL == 0 && isStale(id)) return;
+                    Event event = dm.getEventById(ids[i]);
+                    if (event != null && statusOf(event, today).equals(status)) {
+                        kept[count++] = ids[i];
+                    }
+                }
+                ids = Arrays.copyOf(kept, count);
             }
+
+            int[] result = ids;
+            SwingUtilities.invokeLater(() -> {
+                if (!isStale(id)) {
+                    model.setEventIds(result);
+                    shown = id;
+                }
+            });
+        }
+
+        /**
+         * Whether a search is waiting or running that will replace the table's rows
+         */
+        boolean isBusy() {
+            return debounce.isRunning() || generation.get() != shown;
+        }
+
+        /**
+         * Whether the event passes the filter the table's rows were chosen by
+         */
+        boolean shows(Event event) {
+            if (!pendingStatus.equals("All") && !statusOf(event, LocalDate.now()).equals(pendingStatus)) return false;
+            return pendingQuery.isEmpty() || DataManager.getInstance().matchesSearch(event.getEventId(), pendingQuery);
+        }
+
+        private boolean isStale(long id) {
+            return generation.get() != id;
         }
     }
 
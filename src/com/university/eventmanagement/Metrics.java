@@ -0,0 +1,322 @@
+package com.university.eventmanagement;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Counters, latency histograms and gauges for the hot paths: saves and loads,
+ * exports, backups, searches, conflict checks and the Swing thread.
+ * Recording never locks or allocates. Switched off with
+ * -Deventmanagement.metrics=false, in which case every call is a no-op the
+ * JIT removes. Published as the JMX MBean
+ * com.university.eventmanagement:type=Metrics and written to metrics.txt in
+ * the data directory every minute (-Deventmanagement.metrics.dumpSeconds).
+ *
+ * Typical use:
+ *   long start = Metrics.now();
+ *   ... work ...
+ *   SAVE_TIME.recordSince(start);
+ */
+public final class Metrics {
+    static final boolean ENABLED = !"false".equals(System.getProperty("eventmanagement.metrics"));
+    private static final long DUMP_SECONDS = Long.getLong("eventmanagement.metrics.dumpSeconds", 60);
+    private static final String DUMP_FILE = "metrics.txt";
+
+    private static final Map<String, Object> REGISTRY = new ConcurrentHashMap<>();
+    private static final AtomicLong reportingStarted = new AtomicLong();
+
+    private Metrics() {
+    }
+
+    public static Counter counter(String name) {
+        return (Counter) REGISTRY.computeIfAbsent(name, k -> new Counter());
+    }
+
+    /**
+     * A histogram of durations in nanoseconds
+     */
+    public static Histogram histogram(String name) {
+        return (Histogram) REGISTRY.computeIfAbsent(name, k -> new Histogram());
+    }
+
+    /**
+     * A value read whenever the metrics are reported; replaces any gauge of the same name
+     */
+    public static void gauge(String name, LongSupplier value) {
+        if (ENABLED) REGISTRY.put(name, (Gauge) value::getAsLong);
+    }
+
+    /**
+     * Start time for Histogram.recordSince; 0 when metrics are off
+     */
+    public static long now() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Register the MBean and start writing metrics.txt into the directory.
+     * Only the first call does anything.
+     */
+    public static void startReporting(File dataDir) {
+        if (!ENABLED || !reportingStarted.compareAndSet(0, 1)) return;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(new MetricsMBean(), new ObjectName("com.university.eventmanagement:type=Metrics"));
+        } catch (JMException e) {
+            System.err.println("Error registering metrics MBean: " + e.getMessage());
+        }
+        if (DUMP_SECONDS > 0) {
+            ScheduledExecutorService dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "metrics-dump");
+                t.setDaemon(true);
+                return t;
+            });
+            File file = new File(dataDir, DUMP_FILE);
+            dumper.scheduleWithFixedDelay(() -> dump(file), DUMP_SECONDS, DUMP_SECONDS, TimeUnit.SECONDS);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> dump(file), "metrics-final-dump"));
+        }
+    }
+
+    /**
+     * Every metric as "name value" lines, sorted by name.
+     * Histograms show count, mean, p50, p90, p99 and max in milliseconds.
+     */
+    public static String report() {
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<String, Object> entry : new TreeMap<>(REGISTRY).entrySet()) {
+            Object metric = entry.getValue();
+            out.append(entry.getKey()).append(' ');
+            if (metric instanceof Counter) {
+                out.append(((Counter) metric).get());
+            } else if (metric instanceof Gauge) {
+                out.append(((Gauge) metric).get());
+            } else {
+                Histogram h = (Histogram) metric;
+                out.append(String.format("count=%d mean=%.3fms p50=%.3fms p90=%.3fms p99=%.3fms max=%.3fms",
+                        h.count(), h.mean() / 1e6, h.percentile(0.50) / 1e6, h.percentile(0.90) / 1e6,
+                        h.percentile(0.99) / 1e6, h.max() / 1e6));
+            }
+            out.append('\n');
+        }
+        return out.toString();
+    }
+
+    // Written whole to a temporary file and swapped in, so readers never see half a report
+    private static void dump(File file) {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("# " + LocalDateTime.now().withNano(0));
+            writer.newLine();
+            writer.write(report());
+        } catch (IOException e) {
+            System.err.println("Error writing metrics: " + e.getMessage());
+            return;
+        }
+        try {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Error writing metrics: " + e.getMessage());
+        }
+    }
+
+    public static final class Counter {
+        private final LongAdder value = new LongAdder();
+
+        public void increment() {
+            if (ENABLED) value.increment();
+        }
+
+        public void add(long amount) {
+            if (ENABLED) value.add(amount);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Gauge {
+        long get();
+    }
+
+    /**
+     * Log-linear buckets in the style of HdrHistogram: each power of two is
+     * split into 8 buckets, so any value is reported within 12.5%, from
+     * nanoseconds to hours, in under 500 counters.
+     */
+    public static final class Histogram {
+        private static final int SUB_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BITS;
+        private static final int BUCKETS = (63 - SUB_BITS) * SUB_BUCKETS + SUB_BUCKETS;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        public void record(long nanos) {
+            if (!ENABLED) return;
+            long value = Math.max(0, nanos);
+            counts.incrementAndGet(bucket(value));
+            count.increment();
+            sum.add(value);
+            long current = max.get();
+            while (value > current && !max.compareAndSet(current, value)) {
+                current = max.get();
+            }
+        }
+
+        /**
+         * Record the time since a Metrics.now() reading
+         */
+        public void recordSince(long start) {
+            if (ENABLED) record(System.nanoTime() - start);
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        public double mean() {
+            long n = count.sum();
+            return n == 0 ? 0 : (double) sum.sum() / n;
+        }
+
+        public long max() {
+            return max.get();
+        }
+
+        /**
+         * Value below which the fraction p of recordings fall (middle of its bucket)
+         */
+        public long percentile(double p) {
+            long n = count.sum();
+            if (n == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(p * n));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts.get(i);
+                if (seen >= rank) return Math.min(max.get(), middle(i));
+            }
+            return max.get();
+        }
+
+        static int bucket(long value) {
+            if (value < 2 * SUB_BUCKETS) return (int) value;   // small values get a bucket each
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BITS) * SUB_BUCKETS + SUB_BUCKETS + sub;
+        }
+
+        private static long middle(int bucket) {
+            if (bucket < 2 * SUB_BUCKETS) return bucket;
+            int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+            long width = 1L << (exponent - SUB_BITS);
+            long low = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BITS);
+            return low + width / 2;
+        }
+    }
+
+    /**
+     * Exposes every metric as read-only attributes: counters and gauges by
+     * name, histograms as name.count, name.meanMs, name.p50Ms, name.p99Ms and name.maxMs
+     */
+    private static class MetricsMBean implements DynamicMBean {
+        private static final String[] HISTOGRAM_FIELDS = {"count", "meanMs", "p50Ms", "p99Ms", "maxMs"};
+
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            Object metric = REGISTRY.get(attribute);
+            if (metric instanceof Counter) return ((Counter) metric).get();
+            if (metric instanceof Gauge) return ((Gauge) metric).get();
+            int dot = attribute.lastIndexOf('.');
+            if (dot > 0 && REGISTRY.get(attribute.substring(0, dot)) instanceof Histogram) {
+                Histogram h = (Histogram) REGISTRY.get(attribute.substring(0, dot));
+                switch (attribute.substring(dot + 1)) {
+                    case "count": return (double) h.count();
+                    case "meanMs": return h.mean() / 1e6;
+                    case "p50Ms": return h.percentile(0.50) / 1e6;
+                    case "p99Ms": return h.percentile(0.99) / 1e6;
+                    case "maxMs": return h.max() / 1e6;
+                    default: break;
+                }
+            }
+            throw new AttributeNotFoundException(attribute);
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            AttributeList list = new AttributeList();
+            for (String name : attributes) {
+                try {
+                    list.add(new Attribute(name, getAttribute(name)));
+                } catch (AttributeNotFoundException ignored) {
+                    // left out, as the JMX contract allows
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("Metrics are read-only");
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) {
+            throw new UnsupportedOperationException(actionName);
+        }
+
+        // Built on every call, so metrics created later still show up
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            List<MBeanAttributeInfo> attributes = new ArrayList<>();
+            for (Map.Entry<String, Object> entry : new TreeMap<>(REGISTRY).entrySet()) {
+                String name = entry.getKey();
+                if (entry.getValue() instanceof Histogram) {
+                    for (String field : HISTOGRAM_FIELDS) {
+                        attributes.add(new MBeanAttributeInfo(name + "." + field, "double", name + " " + field,
+                                true, false, false));
+                    }
+                } else {
+                    attributes.add(new MBeanAttributeInfo(name, "long", name, true, false, false));
+                }
+            }
+            return new MBeanInfo(Metrics.class.getName(), "Event management metrics",
+                    attributes.toArray(new MBeanAttributeInfo[0]), null, null, null);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.university.eventmanagement;
+
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Someone registered for (or waitlisted on) an event.
+ * Immutable, so it can be shared between threads freely.
+ */
+public class Participant {
+    // Snapshots store the ordinal: add new types at the end
+    public enum Type {
+        STUDENT("Student"),
+        STAFF("Staff"),
+        OTHER("Other");   // registrations from before types were recorded
+
+        private final String label;
+
+        Type(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+
+        /**
+         * The type with this label (ignoring case), or null
+         */
+        public static Type fromLabel(String label) {
+            for (Type type : values()) {
+                if (type.label.equalsIgnoreCase(label.trim())) return type;
+            }
+            return null;
+        }
+    }
+
+    private final String name;
+    private final Type type;
+    private final Instant registeredAt;
+
+    public Participant(String name, Type type, Instant registeredAt) {
+        if (name.isBlank()) throw new IllegalArgumentException("Participant name is empty");
+        // Stored one record per line, so a line break would split the record
+        if (name.indexOf('\n') >= 0 || name.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("Participant name contains a line break");
+        }
+        this.name = name.trim();
+        this.type = type;
+        this.registeredAt = registeredAt;
+    }
+
+    public Participant(String name, Type type) {
+        this(name, type, Instant.now());
+    }
+
+    /**
+     * Read the old "John Doe - Student" form; anything without a known type is OTHER
+     */
+    public static Participant parse(String text, Instant registeredAt) {
+        int dash = text.lastIndexOf(" - ");
+        if (dash > 0) {
+            Type type = Type.fromLabel(text.substring(dash + 3));
+            if (type != null) return new Participant(text.substring(0, dash), type, registeredAt);
+        }
+        return new Participant(text, Type.OTHER, registeredAt);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Instant getRegisteredAt() {
+        return registeredAt;
+    }
+
+    /**
+     * Two registrations with the same key are the same person
+     */
+    String key() {
+        return key(name);
+    }
+
+    static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public String toString() {
+        return name + " - " + type;
+    }
+}
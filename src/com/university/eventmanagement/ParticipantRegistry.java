@@ -0,0 +1,118 @@
+package com.university.eventmanagement;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The participants of one event: the registered list in registration order,
+ * a waitlist once the event is full, and a hash index over both so a
+ * duplicate registration is caught in constant time however large the event.
+ * All methods are synchronized; the list getters return copies.
+ */
+public class ParticipantRegistry {
+    // NOT_FOUND only comes from DataManager, for an event that has been removed
+    public enum Result { REGISTERED, WAITLISTED, DUPLICATE, NOT_FOUND }
+
+    private final List<Participant> registered = new ArrayList<>();
+    private final Deque<Participant> waitlist = new ArrayDeque<>();
+    private final Map<String, Participant> byKey = new HashMap<>();   // registered and waitlisted
+    private int capacity;   // 0 = no limit
+
+    /**
+     * Register someone, or waitlist them if the event is full
+     */
+    public synchronized Result register(Participant participant) {
+        if (byKey.putIfAbsent(participant.key(), participant) != null) return Result.DUPLICATE;
+        if (isFull()) {
+            waitlist.addLast(participant);
+            return Result.WAITLISTED;
+        }
+        registered.add(participant);
+        return Result.REGISTERED;
+    }
+
+    /**
+     * Register someone whatever the capacity (used when loading saved data)
+     */
+    synchronized void addRegistered(Participant participant) {
+        if (byKey.putIfAbsent(participant.key(), participant) == null) {
+            registered.add(participant);
+        }
+    }
+
+    /**
+     * Put someone straight on the waitlist (used when loading saved data)
+     */
+    synchronized void addToWaitlist(Participant participant) {
+        if (byKey.putIfAbsent(participant.key(), participant) == null) {
+            waitlist.addLast(participant);
+        }
+    }
+
+    /**
+     * Cancel a registration or waitlist place by name.
+     * Returns the participants moved up from the waitlist to fill the freed place
+     * (empty if none), or null if nobody of that name was found.
+     */
+    public synchronized List<Participant> cancel(String name) {
+        Participant participant = byKey.remove(Participant.key(name));
+        if (participant == null) return null;
+        if (!waitlist.remove(participant)) {
+            registered.remove(participant);
+            return promote();
+        }
+        return List.of();
+    }
+
+    public synchronized boolean contains(String name) {
+        return byKey.containsKey(Participant.key(name));
+    }
+
+    public synchronized int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Change the capacity (0 for no limit). Raising it moves people up from
+     * the waitlist, who are returned; lowering it never unregisters anyone.
+     */
+    public synchronized List<Participant> setCapacity(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("Capacity must not be negative");
+        this.capacity = capacity;
+        return promote();
+    }
+
+    private List<Participant> promote() {
+        List<Participant> promoted = new ArrayList<>();
+        while (!waitlist.isEmpty() && !isFull()) {
+            Participant next = waitlist.removeFirst();
+            registered.add(next);
+            promoted.add(next);
+        }
+        return promoted;
+    }
+
+    private boolean isFull() {
+        return capacity > 0 && registered.size() >= capacity;
+    }
+
+    public synchronized int size() {
+        return registered.size();
+    }
+
+    public synchronized int waitlistSize() {
+        return waitlist.size();
+    }
+
+    public synchronized List<Participant> getRegistered() {
+        return List.copyOf(registered);
+    }
+
+    public synchronized List<Participant> getWaitlist() {
+        return List.copyOf(waitlist);
+    }
+}
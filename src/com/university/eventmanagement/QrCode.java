@@ -0,0 +1,558 @@
+package com.university.eventmanagement;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * QR codes (ISO/IEC 18004, model 2) for text payloads: byte mode, versions
+ * 1 to 40, Reed-Solomon error correction, and the mask with the lowest
+ * penalty score. The modules are kept in a packed BitMatrix and rendered
+ * to 1-bit images.
+ *
+ * Codes are cached by payload in a small LRU, so the same ticket or report
+ * code is encoded once:
+ *   BufferedImage image = QrCode.encode("TICKET:12:Jane Smith").toImage(220);
+ */
+public final class QrCode {
+    public enum Ecc {
+        LOW(1), MEDIUM(0), QUARTILE(3), HIGH(2);   // roughly 7%, 15%, 25% and 30% recoverable
+
+        final int formatBits;
+
+        Ecc(int formatBits) {
+            this.formatBits = formatBits;
+        }
+    }
+
+    public static final int MIN_VERSION = 1;
+    public static final int MAX_VERSION = 40;
+    private static final int QUIET_ZONE = 4;   // modules of white round the code, as the standard asks
+    private static final int CACHE_SIZE = 256;
+
+    // Indexed [Ecc.ordinal()][version]; from the standard's table 9
+    private static final int[][] ECC_CODEWORDS_PER_BLOCK = {
+            {-1, 7, 10, 15, 20, 26, 18, 20, 24, 30, 18, 20, 24, 26, 30, 22, 24, 28, 30, 28, 28, 28, 28, 30, 30, 26, 28, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30},
+            {-1, 10, 16, 26, 18, 24, 16, 18, 22, 22, 26, 30, 22, 22, 24, 24, 28, 28, 26, 26, 26, 26, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28},
+            {-1, 13, 22, 18, 26, 18, 24, 18, 22, 20, 24, 28, 26, 24, 20, 30, 24, 28, 28, 26, 30, 28, 30, 30, 30, 30, 28, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30},
+            {-1, 17, 28, 22, 16, 22, 28, 26, 26, 24, 28, 24, 28, 22, 24, 24, 30, 28, 28, 26, 28, 30, 24, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30},
+    };
+    private static final int[][] ERROR_CORRECTION_BLOCKS = {
+            {-1, 1, 1, 1, 1, 1, 2, 2, 2, 2, 4, 4, 4, 4, 4, 6, 6, 6, 6, 7, 8, 8, 9, 9, 10, 12, 12, 12, 13, 14, 15, 16, 17, 18, 19, 19, 20, 21, 22, 24, 25},
+            {-1, 1, 1, 1, 2, 2, 4, 4, 4, 5, 5, 5, 8, 9, 9, 10, 10, 11, 13, 14, 16, 17, 17, 18, 20, 21, 23, 25, 26, 28, 29, 31, 33, 35, 37, 38, 40, 43, 45, 47, 49},
+            {-1, 1, 1, 2, 2, 4, 4, 6, 6, 8, 8, 8, 10, 12, 16, 12, 17, 16, 18, 21, 20, 23, 23, 25, 27, 29, 34, 34, 35, 38, 40, 43, 45, 48, 51, 53, 56, 59, 62, 65, 68},
+            {-1, 1, 1, 2, 4, 4, 4, 5, 6, 8, 8, 11, 11, 16, 16, 18, 16, 19, 21, 25, 25, 25, 34, 30, 32, 35, 37, 40, 42, 45, 48, 51, 54, 57, 60, 63, 66, 70, 74, 77, 81},
+    };
+
+    // GF(256) with the QR polynomial x^8 + x^4 + x^3 + x^2 + 1
+    private static final int[] EXP = new int[512];
+    private static final int[] LOG = new int[256];
+
+    static {
+        int x = 1;
+        for (int i = 0; i < 255; i++) {
+            EXP[i] = x;
+            LOG[x] = i;
+            x <<= 1;
+            if (x >= 0x100) x ^= 0x11D;
+        }
+        for (int i = 255; i < EXP.length; i++) {
+            EXP[i] = EXP[i - 255];
+        }
+    }
+
+    private static final Map<String, QrCode> CACHE = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, QrCode> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private final int version;
+    private final Ecc ecc;
+    private final int mask;
+    private final BitMatrix modules;   // set = dark
+
+    private QrCode(int version, Ecc ecc, int mask, BitMatrix modules) {
+        this.version = version;
+        this.ecc = ecc;
+        this.mask = mask;
+        this.modules = modules;
+    }
+
+    /**
+     * The code for a payload at MEDIUM error correction, from the cache if it was made recently
+     */
+    public static QrCode encode(String payload) {
+        return encode(payload, Ecc.MEDIUM);
+    }
+
+    public static QrCode encode(String payload, Ecc ecc) {
+        String key = ecc.ordinal() + payload;
+        synchronized (CACHE) {
+            QrCode cached = CACHE.get(key);
+            if (cached != null) return cached;
+        }
+        // Encoded outside the lock, so batch generation runs in parallel
+        QrCode code = encodeBytes(payload.getBytes(StandardCharsets.UTF_8), ecc);
+        synchronized (CACHE) {
+            CACHE.put(key, code);
+        }
+        return code;
+    }
+
+    /**
+     * Encode without the cache, in the smallest version that fits.
+     * Throws IllegalArgumentException if the data is too long for version 40.
+     */
+    public static QrCode encodeBytes(byte[] data, Ecc ecc) {
+        int version = MIN_VERSION;
+        while (true) {
+            int capacityBits = dataCodewords(version, ecc) * 8;
+            int usedBits = 4 + countBits(version) + data.length * 8;
+            if (usedBits <= capacityBits) break;
+            if (version == MAX_VERSION) {
+                throw new IllegalArgumentException("Too much data for a QR code: " + data.length + " bytes");
+            }
+            version++;
+        }
+        return new Builder(version, ecc).build(codewords(data, version, ecc));
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public Ecc getEcc() {
+        return ecc;
+    }
+
+    public int getMask() {
+        return mask;
+    }
+
+    /**
+     * Modules per side
+     */
+    public int getSize() {
+        return modules.size;
+    }
+
+    public boolean isDark(int x, int y) {
+        return modules.get(x, y);
+    }
+
+    /**
+     * A black and white image no larger than 'pixels' square (unless a module
+     * would be under one pixel), with whole pixels per module and a quiet zone.
+     */
+    public BufferedImage toImage(int pixels) {
+        int side = modules.size + 2 * QUIET_ZONE;
+        return toImage(Math.max(1, pixels / side), QUIET_ZONE);
+    }
+
+    /**
+     * A 1-bit image at 'scale' pixels per module with 'border' modules of white round it
+     */
+    public BufferedImage toImage(int scale, int border) {
+        int width = (modules.size + 2 * border) * scale;
+        BufferedImage image = new BufferedImage(width, width, BufferedImage.TYPE_BYTE_BINARY);
+        // Default palette: bit 0 is black, 1 is white; pixels packed 8 to a byte, first pixel in the high bit
+        byte[] pixelData = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        int stride = (width + 7) >>> 3;
+        Arrays.fill(pixelData, (byte) 0xFF);
+        byte[] line = new byte[stride];
+        for (int y = 0; y < modules.size; y++) {
+            Arrays.fill(line, (byte) 0xFF);
+            for (int x = 0; x < modules.size; x++) {
+                if (!modules.get(x, y)) continue;
+                int from = (border + x) * scale;
+                for (int px = from; px < from + scale; px++) {
+                    line[px >>> 3] &= (byte) ~(0x80 >>> (px & 7));
+                }
+            }
+            int top = (border + y) * scale;
+            for (int row = top; row < top + scale; row++) {
+                System.arraycopy(line, 0, pixelData, row * stride, stride);
+            }
+        }
+        return image;
+    }
+
+    // ---- data codewords ----
+
+    private static int countBits(int version) {
+        return version <= 9 ? 8 : 16;   // byte mode character count
+    }
+
+    // Mode, count, data, terminator and padding, then split into blocks with their error correction
+    private static byte[] codewords(byte[] data, int version, Ecc ecc) {
+        int capacity = dataCodewords(version, ecc);
+        BitBuffer bits = new BitBuffer(capacity * 8);
+        bits.append(0b0100, 4);
+        bits.append(data.length, countBits(version));
+        for (byte b : data) {
+            bits.append(b & 0xFF, 8);
+        }
+        bits.append(0, Math.min(4, capacity * 8 - bits.length));
+        bits.append(0, (8 - bits.length % 8) % 8);
+        for (int pad = 0xEC; bits.length < capacity * 8; pad ^= 0xEC ^ 0x11) {
+            bits.append(pad, 8);
+        }
+        return interleave(bits.bytes, version, ecc);
+    }
+
+    private static byte[] interleave(byte[] data, int version, Ecc ecc) {
+        int blocks = ERROR_CORRECTION_BLOCKS[ecc.ordinal()][version];
+        int eccLength = ECC_CODEWORDS_PER_BLOCK[ecc.ordinal()][version];
+        int raw = rawDataModules(version) / 8;
+        int shortBlocks = blocks - raw % blocks;
+        int shortLength = raw / blocks;   // data plus error correction in a short block
+        int[] divisor = generator(eccLength);
+
+        // Long blocks have one more data codeword; short ones get a gap there to line up
+        byte[][] withEcc = new byte[blocks][];
+        for (int i = 0, k = 0; i < blocks; i++) {
+            int dataLength = shortLength - eccLength + (i < shortBlocks ? 0 : 1);
+            byte[] block = new byte[shortLength + 1];
+            byte[] ecBytes = remainder(data, k, dataLength, divisor);
+            System.arraycopy(data, k, block, 0, dataLength);
+            System.arraycopy(ecBytes, 0, block, shortLength + 1 - eccLength, eccLength);
+            withEcc[i] = block;
+            k += dataLength;
+        }
+
+        byte[] result = new byte[raw];
+        int n = 0;
+        for (int i = 0; i <= shortLength; i++) {
+            for (int j = 0; j < blocks; j++) {
+                if (i != shortLength - eccLength || j >= shortBlocks) result[n++] = withEcc[j][i];
+            }
+        }
+        return result;
+    }
+
+    // Generator polynomial of the given degree, highest coefficient (always 1) left out
+    private static int[] generator(int degree) {
+        int[] result = new int[degree];
+        result[degree - 1] = 1;
+        int root = 1;
+        for (int i = 0; i < degree; i++) {
+            for (int j = 0; j < degree; j++) {
+                result[j] = multiply(result[j], root);
+                if (j + 1 < degree) result[j] ^= result[j + 1];
+            }
+            root = multiply(root, 2);
+        }
+        return result;
+    }
+
+    private static byte[] remainder(byte[] data, int offset, int length, int[] divisor) {
+        int[] result = new int[divisor.length];
+        for (int i = offset; i < offset + length; i++) {
+            int factor = (data[i] & 0xFF) ^ result[0];
+            System.arraycopy(result, 1, result, 0, result.length - 1);
+            result[result.length - 1] = 0;
+            if (factor == 0) continue;
+            int logFactor = LOG[factor];
+            for (int j = 0; j < result.length; j++) {
+                if (divisor[j] != 0) result[j] ^= EXP[LOG[divisor[j]] + logFactor];
+            }
+        }
+        byte[] bytes = new byte[result.length];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) result[i];
+        }
+        return bytes;
+    }
+
+    private static int multiply(int a, int b) {
+        return a == 0 || b == 0 ? 0 : EXP[LOG[a] + LOG[b]];
+    }
+
+    // Modules left for data and error correction once the function patterns are placed
+    private static int rawDataModules(int version) {
+        int result = (16 * version + 128) * version + 64;
+        if (version >= 2) {
+            int align = version / 7 + 2;
+            result -= (25 * align - 10) * align - 55;
+            if (version >= 7) result -= 36;
+        }
+        return result;
+    }
+
+    private static int dataCodewords(int version, Ecc ecc) {
+        return rawDataModules(version) / 8
+                - ECC_CODEWORDS_PER_BLOCK[ecc.ordinal()][version] * ERROR_CORRECTION_BLOCKS[ecc.ordinal()][version];
+    }
+
+    private static int[] alignmentPositions(int version) {
+        if (version == 1) return new int[0];
+        int count = version / 7 + 2;
+        int step = version == 32 ? 26 : (version * 4 + count * 2 + 1) / (count * 2 - 2) * 2;
+        int[] result = new int[count];
+        result[0] = 6;
+        for (int i = count - 1, pos = version * 4 + 10; i >= 1; i--, pos -= step) {
+            result[i] = pos;
+        }
+        return result;
+    }
+
+    private static final class BitBuffer {
+        final byte[] bytes;
+        int length;
+
+        BitBuffer(int capacityBits) {
+            bytes = new byte[(capacityBits + 7) / 8];
+        }
+
+        void append(int value, int count) {
+            for (int i = count - 1; i >= 0; i--, length++) {
+                if (((value >>> i) & 1) != 0) bytes[length >>> 3] |= (byte) (0x80 >>> (length & 7));
+            }
+        }
+    }
+
+    // ---- the symbol ----
+
+    /**
+     * Lays out one symbol: function patterns, then the data, then the best mask
+     */
+    private static final class Builder {
+        private static final int PENALTY_RUN = 3;
+        private static final int PENALTY_BLOCK = 3;
+        private static final int PENALTY_FINDER = 40;
+        private static final int PENALTY_BALANCE = 10;
+
+        private final int version;
+        private final Ecc ecc;
+        private final int size;
+        private final BitMatrix modules;
+        private final BitMatrix function;   // set where a module is part of a fixed pattern
+
+        Builder(int version, Ecc ecc) {
+            this.version = version;
+            this.ecc = ecc;
+            this.size = version * 4 + 17;
+            this.modules = new BitMatrix(size);
+            this.function = new BitMatrix(size);
+        }
+
+        QrCode build(byte[] codewords) {
+            drawFunctionPatterns();
+            drawCodewords(codewords);
+
+            int bestMask = 0;
+            BitMatrix best = null;
+            int bestPenalty = Integer.MAX_VALUE;
+            for (int mask = 0; mask < 8; mask++) {
+                BitMatrix candidate = modules.copy();
+                applyMask(candidate, mask);
+                drawFormatBits(candidate, mask);
+                int penalty = penalty(candidate);
+                if (penalty < bestPenalty) {
+                    bestPenalty = penalty;
+                    bestMask = mask;
+                    best = candidate;
+                }
+            }
+            return new QrCode(version, ecc, bestMask, best);
+        }
+
+        private void setFunction(int x, int y, boolean dark) {
+            modules.set(x, y, dark);
+            function.set(x, y, true);
+        }
+
+        private void drawFunctionPatterns() {
+            for (int i = 0; i < size; i++) {
+                setFunction(6, i, i % 2 == 0);
+                setFunction(i, 6, i % 2 == 0);
+            }
+            drawFinder(3, 3);
+            drawFinder(size - 4, 3);
+            drawFinder(3, size - 4);
+
+            int[] positions = alignmentPositions(version);
+            int last = positions.length - 1;
+            for (int i = 0; i < positions.length; i++) {
+                for (int j = 0; j < positions.length; j++) {
+                    // Not where the finders are
+                    if ((i == 0 && j == 0) || (i == 0 && j == last) || (i == last && j == 0)) continue;
+                    for (int dy = -2; dy <= 2; dy++) {
+                        for (int dx = -2; dx <= 2; dx++) {
+                            setFunction(positions[i] + dx, positions[j] + dy, Math.max(Math.abs(dx), Math.abs(dy)) != 1);
+                        }
+                    }
+                }
+            }
+
+            drawFormatBits(modules, 0);   // reserves the area; redrawn for each mask
+            if (version >= 7) drawVersion();
+        }
+
+        // Finder with its separator, clipped at the edges
+        private void drawFinder(int x, int y) {
+            for (int dy = -4; dy <= 4; dy++) {
+                for (int dx = -4; dx <= 4; dx++) {
+                    int distance = Math.max(Math.abs(dx), Math.abs(dy));
+                    int xx = x + dx;
+                    int yy = y + dy;
+                    if (xx >= 0 && xx < size && yy >= 0 && yy < size) {
+                        setFunction(xx, yy, distance != 2 && distance != 4);
+                    }
+                }
+            }
+        }
+
+        // Error correction level and mask, BCH(15,5) coded, in two copies
+        private void drawFormatBits(BitMatrix target, int mask) {
+            int data = ecc.formatBits << 3 | mask;
+            int rem = data;
+            for (int i = 0; i < 10; i++) {
+                rem = (rem << 1) ^ ((rem >>> 9) * 0x537);
+            }
+            int bits = (data << 10 | rem) ^ 0x5412;
+
+            for (int i = 0; i <= 5; i++) {
+                setFormat(target, 8, i, bit(bits, i));
+            }
+            setFormat(target, 8, 7, bit(bits, 6));
+            setFormat(target, 8, 8, bit(bits, 7));
+            setFormat(target, 7, 8, bit(bits, 8));
+            for (int i = 9; i < 15; i++) {
+                setFormat(target, 14 - i, 8, bit(bits, i));
+            }
+            for (int i = 0; i < 8; i++) {
+                setFormat(target, size - 1 - i, 8, bit(bits, i));
+            }
+            for (int i = 8; i < 15; i++) {
+                setFormat(target, 8, size - 15 + i, bit(bits, i));
+            }
+            setFormat(target, 8, size - 8, true);   // the dark module
+        }
+
+        private void setFormat(BitMatrix target, int x, int y, boolean dark) {
+            target.set(x, y, dark);
+            function.set(x, y, true);
+        }
+
+        // Version number, BCH(18,6) coded, in two 6x3 blocks
+        private void drawVersion() {
+            int rem = version;
+            for (int i = 0; i < 12; i++) {
+                rem = (rem << 1) ^ ((rem >>> 11) * 0x1F25);
+            }
+            int bits = version << 12 | rem;
+            for (int i = 0; i < 18; i++) {
+                boolean dark = bit(bits, i);
+                int a = size - 11 + i % 3;
+                int b = i / 3;
+                setFunction(a, b, dark);
+                setFunction(b, a, dark);
+            }
+        }
+
+        // Two-module columns from the right, zigzagging up and down, skipping the timing column
+        private void drawCodewords(byte[] codewords) {
+            int i = 0;
+            int total = codewords.length * 8;
+            for (int right = size - 1; right >= 1; right -= 2) {
+                if (right == 6) right = 5;
+                for (int vert = 0; vert < size; vert++) {
+                    for (int j = 0; j < 2; j++) {
+                        int x = right - j;
+                        boolean upward = ((right + 1) & 2) == 0;
+                        int y = upward ? size - 1 - vert : vert;
+                        if (!function.get(x, y) && i < total) {
+                            modules.set(x, y, ((codewords[i >>> 3] >>> (7 - (i & 7))) & 1) != 0);
+                            i++;
+                        }
+                    }
+                }
+            }
+        }
+
+        // Mask bits for a row are built once and applied a word at a time, missing the function patterns
+        private void applyMask(BitMatrix target, int mask) {
+            for (int y = 0; y < size; y++) {
+                for (int w = 0; w < target.rowWords; w++) {
+                    long pattern = 0;
+                    int end = Math.min(size, (w + 1) * 64);
+                    for (int x = w * 64; x < end; x++) {
+                        if (masked(mask, x, y)) pattern |= 1L << x;
+                    }
+                    target.flip(y, w, pattern & ~function.word(y, w));
+                }
+            }
+        }
+
+        private static boolean masked(int mask, int x, int y) {
+            switch (mask) {
+                case 0: return (x + y) % 2 == 0;
+                case 1: return y % 2 == 0;
+                case 2: return x % 3 == 0;
+                case 3: return (x + y) % 3 == 0;
+                case 4: return (x / 3 + y / 2) % 2 == 0;
+                case 5: return x * y % 2 + x * y % 3 == 0;
+                case 6: return (x * y % 2 + x * y % 3) % 2 == 0;
+                default: return ((x + y) % 2 + x * y % 3) % 2 == 0;
+            }
+        }
+
+        // The standard's four rules: long runs, 2x2 blocks, finder-like patterns, dark/light balance
+        private int penalty(BitMatrix m) {
+            int result = 0;
+            for (int y = 0; y < size; y++) {
+                result += linePenalty(m, y, true);
+            }
+            for (int x = 0; x < size; x++) {
+                result += linePenalty(m, x, false);
+            }
+            for (int y = 0; y < size - 1; y++) {
+                for (int x = 0; x < size - 1; x++) {
+                    boolean dark = m.get(x, y);
+                    if (dark == m.get(x + 1, y) && dark == m.get(x, y + 1) && dark == m.get(x + 1, y + 1)) {
+                        result += PENALTY_BLOCK;
+                    }
+                }
+            }
+            int dark = m.cardinality();
+            int total = size * size;
+            int k = (Math.abs(dark * 20 - total * 10) + total - 1) / total - 1;
+            return result + k * PENALTY_BALANCE;
+        }
+
+        private int linePenalty(BitMatrix m, int line, boolean row) {
+            int result = 0;
+            int run = 0;
+            boolean previous = false;
+            int window = 0;   // last 11 modules, newest in bit 0
+            for (int i = 0; i < size; i++) {
+                boolean dark = row ? m.get(i, line) : m.get(line, i);
+                if (i > 0 && dark == previous) {
+                    run++;
+                    if (run == 5) {
+                        result += PENALTY_RUN;
+                    } else if (run > 5) {
+                        result++;
+                    }
+                } else {
+                    run = 1;
+                    previous = dark;
+                }
+                window = ((window << 1) | (dark ? 1 : 0)) & 0x7FF;
+                // 1:1:3:1:1 finder shape with four light modules on either side
+                if (i >= 10 && (window == 0b00001011101 || window == 0b10111010000)) result += PENALTY_FINDER;
+            }
+            return result;
+        }
+
+        private static boolean bit(int value, int i) {
+            return ((value >>> i) & 1) != 0;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.university.eventmanagement;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A finished report from ReportEngine: a title and a list of sections, each a
+ * small table. Written section by section and row by row straight to a
+ * Writer as plain text, CSV or HTML, so the whole report never has to be
+ * held as one String.
+ */
+public final class Report {
+    public enum Format {
+        TEXT("txt"), CSV("csv"), HTML("html");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * The format for a file name's extension, TEXT if it has no known one
+         */
+        public static Format forFileName(String name) {
+            String lower = name.toLowerCase();
+            for (Format format : values()) {
+                if (lower.endsWith("." + format.extension)) return format;
+            }
+            return lower.endsWith(".htm") ? HTML : TEXT;
+        }
+    }
+
+    private final String title;
+    private final LocalDateTime generatedAt;
+    private final List<Section> sections;
+
+    Report(String title, LocalDateTime generatedAt, List<Section> sections) {
+        this.title = title;
+        this.generatedAt = generatedAt;
+        this.sections = sections;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public List<Section> getSections() {
+        return sections;
+    }
+
+    /**
+     * Write the report; the writer is flushed but not closed
+     */
+    public void writeTo(Writer out, Format format) throws IOException {
+        switch (format) {
+            case CSV: writeCsv(out); break;
+            case HTML: writeHtml(out); break;
+            default: writeText(out); break;
+        }
+        out.flush();
+    }
+
+    private void writeText(Writer out) throws IOException {
+        out.write(title);
+        out.write("\nGenerated on: ");
+        out.write(ReportEngine.DATE_FORMAT.format(generatedAt));
+        out.write("\n");
+        for (Section section : sections) {
+            out.write("\n");
+            out.write(section.title.toUpperCase());
+            out.write("\n");
+            out.write("-".repeat(section.title.length()));
+            out.write("\n");
+            // Columns padded to their widest value; the last one is left ragged
+            int[] widths = new int[section.columns.length];
+            for (int i = 0; i < widths.length; i++) {
+                widths[i] = section.columns[i].length();
+            }
+            for (String[] row : section.rows) {
+                for (int i = 0; i < widths.length; i++) {
+                    widths[i] = Math.max(widths[i], row[i].length());
+                }
+            }
+            if (section.hasHeader()) writeTextRow(out, section.columns, widths);
+            for (String[] row : section.rows) {
+                writeTextRow(out, row, widths);
+            }
+            if (section.rows.isEmpty()) out.write("(none)\n");
+        }
+    }
+
+    private static void writeTextRow(Writer out, String[] values, int[] widths) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            out.write(values[i]);
+            if (i < values.length - 1) {
+                out.write(" ".repeat(widths[i] - values[i].length() + 2));
+            }
+        }
+        out.write("\n");
+    }
+
+    // One table after another: section title, header, rows, then a blank line
+    private void writeCsv(Writer out) throws IOException {
+        for (Section section : sections) {
+            writeCsvRow(out, new String[]{section.title});
+            if (section.hasHeader()) writeCsvRow(out, section.columns);
+            for (String[] row : section.rows) {
+                writeCsvRow(out, row);
+            }
+            out.write("\r\n");
+        }
+    }
+
+    private static void writeCsvRow(Writer out, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) out.write(',');
+            String value = values[i];
+            out.write(CsvExporter.needsQuotes(value) ? "\"" + value.replace("\"", "\"\"") + "\"" : value);
+        }
+        out.write("\r\n");
+    }
+
+    private void writeHtml(Writer out) throws IOException {
+        out.write("<!DOCTYPE html>\n<html><head><meta charset=\"UTF-8\"><title>");
+        writeEscaped(out, title);
+        out.write("</title>\n<style>body{font-family:sans-serif}table{border-collapse:collapse;margin-bottom:1.5em}"
+                + "th,td{border:1px solid #ccc;padding:4px 8px;text-align:left}th{background:#f0f0f0}</style>\n"
+                + "</head><body>\n<h1>");
+        writeEscaped(out, title);
+        out.write("</h1>\n<p>Generated on ");
+        out.write(ReportEngine.DATE_FORMAT.format(generatedAt));
+        out.write("</p>\n");
+        for (Section section : sections) {
+            out.write("<h2>");
+            writeEscaped(out, section.title);
+            out.write("</h2>\n<table>\n");
+            if (section.hasHeader()) writeHtmlRow(out, section.columns, "th");
+            for (String[] row : section.rows) {
+                writeHtmlRow(out, row, "td");
+            }
+            out.write("</table>\n");
+        }
+        out.write("</body></html>\n");
+    }
+
+    private static void writeHtmlRow(Writer out, String[] values, String cell) throws IOException {
+        out.write("<tr>");
+        for (String value : values) {
+            out.write('<');
+            out.write(cell);
+            out.write('>');
+            writeEscaped(out, value);
+            out.write("</");
+            out.write(cell);
+            out.write('>');
+        }
+        out.write("</tr>\n");
+    }
+
+    private static void writeEscaped(Writer out, String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<': out.write("&lt;"); break;
+                case '>': out.write("&gt;"); break;
+                case '&': out.write("&amp;"); break;
+                case '"': out.write("&quot;"); break;
+                default: out.write(c); break;
+            }
+        }
+    }
+
+    /**
+     * One table of the report. Summary sections have blank column names.
+     */
+    public static final class Section {
+        final int index;   // place in the engine's section order
+        private final String title;
+        private final String[] columns;
+        private final List<String[]> rows;
+
+        Section(int index, String title, String[] columns, List<String[]> rows) {
+            this.index = index;
+            this.title = title;
+            this.columns = columns;
+            this.rows = Collections.unmodifiableList(rows);
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String[] getColumns() {
+            return columns.clone();
+        }
+
+        public List<String[]> getRows() {
+            return rows;
+        }
+
+        boolean hasHeader() {
+            for (String column : columns) {
+                if (!column.isEmpty()) return true;
+            }
+            return false;
+        }
+    }
+}
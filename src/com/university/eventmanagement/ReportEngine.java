@@ -0,0 +1,375 @@
+package com.university.eventmanagement;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Builds the event report as sections: summary, upcoming events, venues,
+ * organizers and participant types.
+ *
+ * The first report reads every event in parallel (fork-join over the event
+ * list) into per-event rows and running totals. After that DataManager
+ * reports each changed event, and only those rows are re-read, their old
+ * figures taken off the totals and the new ones added. Finished sections
+ * are kept until an event that appears in them changes, and the sections
+ * that need rebuilding are built in parallel.
+ */
+public class ReportEngine {
+    static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final int SPLIT_BELOW = 2048;   // events one fork-join task reads itself
+    private static final Participant.Type[] TYPES = Participant.Type.values();
+
+    private static final int SUMMARY = 0;
+    private static final int UPCOMING = 1;
+    private static final int VENUES = 2;
+    private static final int ORGANIZERS = 3;
+    private static final int PARTICIPANTS = 4;
+    private static final int SECTION_COUNT = 5;
+
+    private static final Metrics.Histogram REPORT_TIME = Metrics.histogram("report");
+
+    private final DataManager data;
+    // IDs of events changed since the last report; DataManager adds to it on every change
+    private final Set<Integer> changed = ConcurrentHashMap.newKeySet();
+
+    // Everything below is guarded by 'this'
+    private boolean built;
+    private final Map<Integer, Row> rows = new HashMap<>();
+    private final TreeSet<Row> byStart = new TreeSet<>(Row.BY_START);
+    private Totals totals = new Totals();
+    private final Report.Section[] sections = new Report.Section[SECTION_COUNT];   // null when out of date
+    private LocalDate sectionsDay;   // "upcoming" is relative to the day the sections were built
+
+    ReportEngine(DataManager data) {
+        this.data = data;
+    }
+
+    /**
+     * Note that an event was added, changed or removed. DataManager calls this
+     * as part of every change, so the next report always includes it.
+     */
+    void eventChanged(int eventId) {
+        changed.add(eventId);
+    }
+
+    /**
+     * The report as of now. Cheap when little has changed since the last one.
+     */
+    public synchronized Report report() {
+        long start = Metrics.now();
+        if (!built) {
+            buildAll();
+        } else if (!changed.isEmpty()) {
+            applyChanges();
+        }
+        LocalDate today = LocalDate.now();
+        if (!today.equals(sectionsDay)) {
+            Arrays.fill(sections, null);
+            sectionsDay = today;
+        }
+        rebuildSections(today);
+        Report report = new Report("UNIVERSITY EVENT MANAGEMENT REPORT", LocalDateTime.now(), List.of(sections));
+        REPORT_TIME.recordSince(start);
+        return report;
+    }
+
+    private void buildAll() {
+        // Changes from here on are applied by the next report
+        changed.clear();
+        List<Event> events = data.getAllEvents();
+        Row[] read = new Row[events.size()];
+        totals = ForkJoinPool.commonPool().invoke(new ReadTask(events, read, 0, read.length));
+        for (Row row : read) {
+            rows.put(row.eventId, row);
+            byStart.add(row);
+        }
+        built = true;
+    }
+
+    private void applyChanges() {
+        for (Integer eventId : changed.toArray(new Integer[0])) {
+            // Removed before reading, so a change made meanwhile is seen next time
+            changed.remove(eventId);
+            Event event = data.getEventById(eventId);
+            Row now = event == null ? null : new Row(event);
+            Row before = event == null ? rows.remove(eventId) : rows.put(eventId, now);
+            if (Objects.equals(before, now)) continue;
+            if (before != null) {
+                byStart.remove(before);
+                totals.remove(before);
+            }
+            if (now != null) {
+                byStart.add(now);
+                totals.add(now);
+            }
+            invalidate(before);
+            invalidate(now);
+        }
+    }
+
+    // Drop the sections a row appears in
+    private void invalidate(Row row) {
+        if (row == null) return;
+        sections[SUMMARY] = null;
+        sections[VENUES] = null;
+        sections[ORGANIZERS] = null;
+        sections[PARTICIPANTS] = null;
+        if (sectionsDay == null || !row.start.toLocalDate().isBefore(sectionsDay)) sections[UPCOMING] = null;
+    }
+
+    private void rebuildSections(LocalDate today) {
+        List<ForkJoinTask<Report.Section>> tasks = new ArrayList<>();
+        Totals current = totals;
+        for (int i = 0; i < SECTION_COUNT; i++) {
+            if (sections[i] != null) continue;
+            int section = i;
+            tasks.add(ForkJoinTask.adapt(() -> buildSection(section, current, today)));
+        }
+        if (tasks.isEmpty()) return;
+        ForkJoinTask.invokeAll(tasks);   // from outside a pool the rest run in the common pool
+        for (ForkJoinTask<Report.Section> task : tasks) {
+            Report.Section section = task.join();
+            sections[section.index] = section;
+        }
+    }
+
+    private Report.Section buildSection(int section, Totals totals, LocalDate today) {
+        switch (section) {
+            case SUMMARY: return summary(totals);
+            case UPCOMING: return upcoming(today);
+            case VENUES: return tallies(VENUES, "Venues", "Venue", totals.byVenue);
+            case ORGANIZERS: return tallies(ORGANIZERS, "Organizers", "Organizer", totals.byOrganizer);
+            default: return participants(totals);
+        }
+    }
+
+    private static Report.Section summary(Totals totals) {
+        List<String[]> lines = new ArrayList<>();
+        lines.add(new String[]{"Total Events", String.valueOf(totals.events)});
+        lines.add(new String[]{"Total Participants", String.valueOf(totals.registered())});
+        if (totals.events > 0) {
+            lines.add(new String[]{"Average Participants per Event",
+                    String.format("%.1f", (double) totals.registered() / totals.events)});
+        }
+        lines.add(new String[]{"Waitlisted", String.valueOf(totals.waitlisted)});
+        lines.add(new String[]{"Venues", String.valueOf(totals.byVenue.size())});
+        lines.add(new String[]{"Organizers", String.valueOf(totals.byOrganizer.size())});
+        return new Report.Section(SUMMARY, "Summary", new String[]{"", ""}, lines);
+    }
+
+    // Rows are kept in start order, so this is a walk from today's first event
+    private Report.Section upcoming(LocalDate today) {
+        Row from = new Row(Integer.MIN_VALUE, today.atStartOfDay());
+        List<String[]> lines = new ArrayList<>();
+        for (Row row : byStart.tailSet(from, true)) {
+            lines.add(new String[]{row.name, (row.allDay ? DATE_FORMAT : DATE_TIME_FORMAT).format(row.start),
+                    row.venue, row.organizer, String.valueOf(row.registered())});
+        }
+        return new Report.Section(UPCOMING, "Upcoming Events",
+                new String[]{"Event", "When", "Venue", "Organizer", "Participants"}, lines);
+    }
+
+    // Busiest first
+    private static Report.Section tallies(int index, String title, String label, Map<String, Tally> tallies) {
+        List<Map.Entry<String, Tally>> sorted = new ArrayList<>(tallies.entrySet());
+        sorted.sort(Comparator.comparingInt((Map.Entry<String, Tally> e) -> -e.getValue().registered)
+                .thenComparing(Map.Entry::getKey));
+        List<String[]> lines = new ArrayList<>(sorted.size());
+        for (Map.Entry<String, Tally> entry : sorted) {
+            Tally tally = entry.getValue();
+            lines.add(new String[]{entry.getKey(), String.valueOf(tally.events), String.valueOf(tally.registered),
+                    String.valueOf(tally.waitlisted)});
+        }
+        return new Report.Section(index, title, new String[]{label, "Events", "Participants", "Waitlisted"}, lines);
+    }
+
+    private static Report.Section participants(Totals totals) {
+        int registered = totals.registered();
+        List<String[]> lines = new ArrayList<>();
+        for (Participant.Type type : TYPES) {
+            int count = totals.byType[type.ordinal()];
+            lines.add(new String[]{type.toString(), String.valueOf(count),
+                    registered == 0 ? "-" : String.format("%.1f%%", 100.0 * count / registered)});
+        }
+        lines.add(new String[]{"Waitlisted", String.valueOf(totals.waitlisted), "-"});
+        return new Report.Section(PARTICIPANTS, "Participants", new String[]{"Type", "Registered", "Share"}, lines);
+    }
+
+    /**
+     * Reads a range of the event list into rows, splitting while the range is
+     * large; each half returns its totals and the halves are merged.
+     */
+    private static class ReadTask extends RecursiveTask<Totals> {
+        private final List<Event> events;
+        private final Row[] out;
+        private final int from;
+        private final int to;
+
+        ReadTask(List<Event> events, Row[] out, int from, int to) {
+            this.events = events;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from <= SPLIT_BELOW) {
+                Totals totals = new Totals();
+                for (int i = from; i < to; i++) {
+                    out[i] = new Row(events.get(i));
+                    totals.add(out[i]);
+                }
+                return totals;
+            }
+            int middle = (from + to) >>> 1;
+            ReadTask left = new ReadTask(events, out, from, middle);
+            left.fork();
+            Totals right = new ReadTask(events, out, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * What one event adds to the report, read once when it changes
+     */
+    private static final class Row {
+        static final Comparator<Row> BY_START = Comparator.comparing((Row r) -> r.start)
+                .thenComparingInt(r -> r.eventId);
+
+        final int eventId;
+        final String name;
+        final LocalDateTime start;
+        final boolean allDay;
+        final String venue;
+        final String organizer;
+        final int[] registeredByType = new int[TYPES.length];
+        final int waitlisted;
+
+        Row(Event event) {
+            eventId = event.getEventId();
+            name = event.getEventName();
+            start = event.getStart();
+            allDay = event.isAllDay();
+            venue = event.getVenue();
+            organizer = event.getOrganizer();
+            for (Participant participant : event.getParticipants()) {
+                registeredByType[participant.getType().ordinal()]++;
+            }
+            waitlisted = event.getRegistry().waitlistSize();
+        }
+
+        // Search key for a start time
+        Row(int eventId, LocalDateTime start) {
+            this.eventId = eventId;
+            this.start = start;
+            name = venue = organizer = "";
+            allDay = false;
+            waitlisted = 0;
+        }
+
+        int registered() {
+            int sum = 0;
+            for (int count : registeredByType) sum += count;
+            return sum;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Row)) return false;
+            Row other = (Row) o;
+            return eventId == other.eventId && allDay == other.allDay && waitlisted == other.waitlisted
+                    && name.equals(other.name) && start.equals(other.start) && venue.equals(other.venue)
+                    && organizer.equals(other.organizer) && Arrays.equals(registeredByType, other.registeredByType);
+        }
+
+        @Override
+        public int hashCode() {
+            return eventId;
+        }
+    }
+
+    private static final class Tally {
+        int events;
+        int registered;
+        int waitlisted;
+    }
+
+    /**
+     * Running totals over all rows; a row is added or taken off as a whole
+     */
+    private static final class Totals {
+        int events;
+        int waitlisted;
+        final int[] byType = new int[TYPES.length];
+        final Map<String, Tally> byVenue = new HashMap<>();
+        final Map<String, Tally> byOrganizer = new HashMap<>();
+
+        void add(Row row) {
+            apply(row, 1);
+        }
+
+        void remove(Row row) {
+            apply(row, -1);
+        }
+
+        private void apply(Row row, int sign) {
+            events += sign;
+            waitlisted += sign * row.waitlisted;
+            for (int i = 0; i < byType.length; i++) {
+                byType[i] += sign * row.registeredByType[i];
+            }
+            tally(byVenue, row.venue, sign, row);
+            tally(byOrganizer, row.organizer, sign, row);
+        }
+
+        private static void tally(Map<String, Tally> tallies, String key, int sign, Row row) {
+            Tally tally = tallies.computeIfAbsent(key, k -> new Tally());
+            tally.events += sign;
+            tally.registered += sign * row.registered();
+            tally.waitlisted += sign * row.waitlisted;
+            if (tally.events == 0) tallies.remove(key);
+        }
+
+        int registered() {
+            int sum = 0;
+            for (int count : byType) sum += count;
+            return sum;
+        }
+
+        Totals merge(Totals other) {
+            events += other.events;
+            waitlisted += other.waitlisted;
+            for (int i = 0; i < byType.length; i++) {
+                byType[i] += other.byType[i];
+            }
+            mergeTallies(byVenue, other.byVenue);
+            mergeTallies(byOrganizer, other.byOrganizer);
+            return this;
+        }
+
+        private static void mergeTallies(Map<String, Tally> into, Map<String, Tally> from) {
+            from.forEach((key, tally) -> into.merge(key, tally, (a, b) -> {
+                a.events += b.events;
+                a.registered += b.registered;
+                a.waitlisted += b.waitlisted;
+                return a;
+            }));
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.university.eventmanagement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over event name, venue and organizer for the search box.
+ * Every 1-, 2- and 3-character gram of those fields maps to the IDs of the
+ * events containing it; substring queries intersect the postings of the
+ * query's grams and then check the few candidates left.
+ * Results are event IDs in ascending order. A search can also start from an
+ * earlier result: when the new query extends the old one, only the old
+ * matches need checking.
+ * Any number of searches can run at once; an add or remove waits for them.
+ */
+public class SearchIndex {
+    private static final int MAX_GRAM = 3;
+    private static final char FIELD_SEPARATOR = '\u0000';   // stops matches running across fields
+
+    private final Map<String, Postings> grams = new HashMap<>();
+    private final Map<Integer, String> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long version;   // bumped by every add and remove, under the write lock
+
+    public SearchIndex(Collection<Event> events) {
+        for (Event event : events) {
+            add(event);
+        }
+    }
+
+    public void add(Event event) {
+        int id = event.getEventId();
+        String text = document(event);
+        Set<String> eventGrams = gramsOf(text);
+        lock.writeLock().lock();
+        try {
+            documents.put(id, text);
+            version++;
+            for (String gram : eventGrams) {
+                grams.computeIfAbsent(gram, k -> new Postings()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove an event; call this before changing its name, venue or organizer
+     */
+    public void remove(Event event) {
+        int id = event.getEventId();
+        lock.writeLock().lock();
+        try {
+            String text = documents.remove(id);
+            if (text == null) return;
+            version++;
+            for (String gram : gramsOf(text)) {
+                removePosting(grams, gram, id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * IDs of events whose name, venue or organizer contains the query (ignoring case)
+     */
+    public int[] search(String query) {
+        String q = query.trim().toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            return searchLocked(q);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * As search, but reusing the previous result (which may be null) when nothing
+     * has changed since and the query contains the previous one: every match
+     * of the new query is then among the previous matches.
+     */
+    public Result search(String query, Result previous) {
+        String q = query.trim().toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            if (previous != null && previous.version == version && q.equals(previous.query)) {
+                return previous;
+            }
+            // Up to MAX_GRAM characters one gram lookup is already exact, so narrowing only pays beyond that
+            if (previous != null && previous.version == version && !previous.query.isEmpty()
+                    && q.length() > MAX_GRAM && q.contains(previous.query)) {
+                return new Result(q, version, narrow(previous.ids, q));
+            }
+            return new Result(q, version, searchLocked(q));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the event matches the query, as search would find it
+     */
+    public boolean matches(int eventId, String query) {
+        String q = query.trim().toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            String text = documents.get(eventId);
+            return text != null && text.contains(q);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] narrow(int[] candidates, String q) {
+        int[] matches = new int[candidates.length];
+        int count = 0;
+        for (int id : candidates) {
+            String text = documents.get(id);
+            if (text != null && text.contains(q)) {
+                matches[count++] = id;
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    private int[] searchLocked(String q) {
+        if (q.isEmpty()) return toArray(documents.keySet(), true);
+
+        if (q.length() <= MAX_GRAM) {
+            Postings postings = grams.get(q);
+            return postings == null ? new int[0] : postings.toArray();
+        }
+
+        // Intersect the trigram postings, starting from the shortest list
+        List<Postings> lists = new ArrayList<>();
+        for (String gram : gramsOf(q)) {
+            if (gram.length() != MAX_GRAM) continue;
+            Postings postings = grams.get(gram);
+            if (postings == null) return new int[0];
+            lists.add(postings);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+
+        Postings shortest = lists.get(0);
+        int[] matches = new int[shortest.size];
+        int count = 0;
+        for (int j = 0; j < shortest.size; j++) {
+            int id = shortest.ids[j];
+            boolean inAll = true;
+            for (int i = 1; i < lists.size() && inAll; i++) {
+                inAll = lists.get(i).contains(id);
+            }
+            // The grams can all appear without the whole query appearing
+            if (inAll && documents.get(id).contains(q)) {
+                matches[count++] = id;
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    private static String document(Event event) {
+        return (event.getEventName() + FIELD_SEPARATOR + event.getVenue() + FIELD_SEPARATOR + event.getOrganizer())
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> gramsOf(String text) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i < text.length(); i++) {
+            for (int n = 1; n <= MAX_GRAM && i + n <= text.length(); n++) {
+                String gram = text.substring(i, i + n);
+                if (gram.indexOf(FIELD_SEPARATOR) >= 0) break;
+                result.add(gram);
+            }
+        }
+        return result;
+    }
+
+    private static <K> void removePosting(Map<K, Postings> map, K key, int id) {
+        Postings postings = map.get(key);
+        if (postings != null) {
+            postings.remove(id);
+            if (postings.size == 0) map.remove(key);
+        }
+    }
+
+    private static int[] toArray(Collection<Integer> ids, boolean sort) {
+        int[] result = new int[ids.size()];
+        int i = 0;
+        for (Integer id : ids) {
+            result[i++] = id;
+        }
+        if (sort) Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Matching event IDs, with what is needed to narrow them for a longer query
+     */
+    public static final class Result {
+        private final String query;
+        private final long version;
+        private final int[] ids;
+
+        private Result(String query, long version, int[] ids) {
+            this.query = query;
+            this.version = version;
+            this.ids = ids;
+        }
+
+        /**
+         * The IDs in ascending order; not copied, so don't change them
+         */
+        public int[] getIds() {
+            return ids;
+        }
+    }
+
+    /**
+     * Sorted list of event IDs. New events get the highest ID so adds are nearly always appends.
+     */
+    private static class Postings {
+        private int[] ids = new int[2];
+        private int size;
+
+        void add(int id) {
+            int pos = size == 0 || ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0 && pos < size) return; // already there
+            if (pos < 0) pos = -pos - 1;
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = id;
+            size++;
+        }
+
+        void remove(int id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) return;
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+        }
+
+        boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
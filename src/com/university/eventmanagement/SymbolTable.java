@@ -0,0 +1,79 @@
+package com.university.eventmanagement;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary of repeated strings such as venues and organizers.
+ * Each distinct value gets a small int code and is kept once, however many
+ * events use it. Every code also has a "folded" code - the code of its
+ * lower-case form - so case-insensitive equality is an int comparison.
+ * Codes are never reused or removed; the table only grows with new values.
+ * Lookups never lock; adding a new value does.
+ */
+public class SymbolTable {
+    static final SymbolTable SHARED = new SymbolTable();
+
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    // Replaced (never changed in place at an index already handed out) when they grow
+    private volatile String[] values = new String[256];
+    private volatile int[] folded = new int[256];
+    private int size;
+
+    /**
+     * The code for a value, adding it if new
+     */
+    public int intern(String value) {
+        Integer code = codes.get(value);
+        return code != null ? code : add(value);
+    }
+
+    private synchronized int add(String value) {
+        Integer existing = codes.get(value);
+        if (existing != null) return existing;
+
+        String lower = value.toLowerCase(Locale.ROOT);
+        int foldedCode = lower.equals(value) ? size : intern(lower);
+        int code = size++;
+        if (code == values.length) {
+            String[] grownValues = Arrays.copyOf(values, code * 2);
+            int[] grownFolded = Arrays.copyOf(folded, code * 2);
+            grownValues[code] = value;
+            grownFolded[code] = foldedCode;
+            folded = grownFolded;
+            values = grownValues;
+        } else {
+            values[code] = value;
+            folded[code] = foldedCode;
+        }
+        // Published last: whoever finds the code also sees the arrays filled in
+        codes.put(value, code);
+        return code;
+    }
+
+    public String value(int code) {
+        return values[code];
+    }
+
+    /**
+     * Code of the lower-case form; equal for values that differ only in case
+     */
+    public int folded(int code) {
+        return folded[code];
+    }
+
+    /**
+     * Folded code for a value that may not be in the table, or -1 if no value
+     * in the table matches it ignoring case
+     */
+    public int findFolded(String value) {
+        Integer code = codes.get(value.toLowerCase(Locale.ROOT));
+        return code == null ? -1 : code;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+}
@@ -0,0 +1,81 @@
+package com.university.eventmanagement;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Check-in tickets: a QR code of "TICKET:<event id>:<participant name>" with
+ * the participant and event written underneath, as a 1-bit image.
+ * A whole event's tickets are drawn and saved across all cores.
+ */
+public final class TicketPrinter {
+    private static final int QR_PIXELS = 240;
+    private static final int TEXT_HEIGHT = 44;
+    private static final Font NAME_FONT = new Font("SansSerif", Font.BOLD, 14);
+    private static final Font EVENT_FONT = new Font("SansSerif", Font.PLAIN, 11);
+
+    private TicketPrinter() {
+    }
+
+    public static String payload(Event event, Participant participant) {
+        return "TICKET:" + event.getEventId() + ":" + participant.getName();
+    }
+
+    public static BufferedImage ticket(Event event, Participant participant) {
+        // Not through QrCode's cache: every ticket is different and would only push out the rest
+        QrCode code = QrCode.encodeBytes(payload(event, participant).getBytes(StandardCharsets.UTF_8), QrCode.Ecc.QUARTILE);
+        BufferedImage qr = code.toImage(QR_PIXELS);
+        BufferedImage ticket = new BufferedImage(qr.getWidth(), qr.getHeight() + TEXT_HEIGHT, BufferedImage.TYPE_BYTE_BINARY);
+        Graphics2D g = ticket.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, ticket.getWidth(), ticket.getHeight());
+            g.drawImage(qr, 0, 0, null);
+            g.setColor(Color.BLACK);
+            drawCentred(g, NAME_FONT, participant.getName(), ticket.getWidth(), qr.getHeight() + 16);
+            drawCentred(g, EVENT_FONT, event.getEventName() + " - " + ReportEngine.DATE_FORMAT.format(event.getStart()),
+                    ticket.getWidth(), qr.getHeight() + 34);
+        } finally {
+            g.dispose();
+        }
+        return ticket;
+    }
+
+    private static void drawCentred(Graphics2D g, Font font, String text, int width, int baseline) {
+        g.setFont(font);
+        FontMetrics metrics = g.getFontMetrics();
+        g.drawString(text, Math.max(2, (width - metrics.stringWidth(text)) / 2), baseline);
+    }
+
+    /**
+     * Save a ticket for every registered participant of the event into the
+     * directory as PNG files, in parallel. Returns the number written.
+     */
+    public static int writeTickets(Event event, File directory) {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new UncheckedIOException(new IOException("Cannot create " + directory));
+        }
+        List<Participant> participants = event.getParticipants();
+        IntStream.range(0, participants.size()).parallel().forEach(i -> {
+            Participant participant = participants.get(i);
+            File file = new File(directory, String.format("ticket_%d_%04d_%s.png", event.getEventId(), i + 1,
+                    participant.getName().replaceAll("[^A-Za-z0-9-]+", "_")));
+            try {
+                ImageIO.write(ticket(event, participant), "png", file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return participants.size();
+    }
+}
@@ -1,14 +1,20 @@
 package com.university.eventmanagement;
 
 public class User {
-    private String username;
-    private String password;
+    private final String username;
+    private final String credential;   // PasswordHasher hash; plaintext only in users files from old versions
 
-    public User(String username, String password) {
+    public User(String username, String credential) {
         this.username = username;
-        this.password = password;
+        this.credential = credential;
+    }
+
+    public static User withPassword(String username, char[] password) {
+        return new User(username, PasswordHasher.hash(password));
     }
 
     public String getUsername() { return username; }
-    public String getPassword() { return password; }
+    public String getCredential() { return credential; }
+
+    public boolean isHashed() { return PasswordHasher.isHash(credential); }
 }
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.university.eventmanagement;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Users by username, with hashed passwords.
+ * A login is one map lookup plus one PBKDF2 check. A successful login is
+ * remembered for a while in a small session cache, so logging in again
+ * (e.g. after logout) skips the slow hash; the cache holds only a keyed MAC of
+ * the password, never the password. The users file is written on the writer
+ * thread, only when a password is rehashed. Plaintext passwords from old
+ * users files are hashed in the background right after loading.
+ */
+public class UserStore {
+    private static final int SESSION_CACHE_SIZE = 32;
+    private static final long SESSION_TTL_NANOS = TimeUnit.MINUTES.toNanos(15);
+
+    private final Map<String, User> users = new ConcurrentHashMap<>();
+
+    // Least recently used sessions are dropped first
+    private final Map<String, Session> sessions = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Session> eldest) {
+            return size() > SESSION_CACHE_SIZE;
+        }
+    };
+    private final SecretKeySpec sessionKey;   // random per run, so cached MACs are useless elsewhere
+
+    public UserStore(List<User> loaded, ExecutorService writer) {
+        for (User user : loaded) {
+            users.put(user.getUsername(), user);
+        }
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        sessionKey = new SecretKeySpec(key, "HmacSHA256");
+
+        if (loaded.stream().anyMatch(user -> !user.isHashed())) {
+            writer.execute(this::hashPlaintextPasswords);
+        }
+    }
+
+    private void hashPlaintextPasswords() {
+        for (User user : users.values()) {
+            if (!user.isHashed()) {
+                char[] password = user.getCredential().toCharArray();
+                users.replace(user.getUsername(), user, User.withPassword(user.getUsername(), password));
+                Arrays.fill(password, '\0');
+            }
+        }
+        // Saved here rather than queued: this already runs on the writer, which refuses new tasks once shutting down
+        DatabaseManager.saveUsers(new ArrayList<>(users.values()));
+    }
+
+    public boolean authenticate(String username, char[] password) {
+        User user = users.get(username);
+        if (user == null) {
+            // Same cost as a real check, so timing doesn't reveal which usernames exist
+            PasswordHasher.verify(password, Dummy.HASH);
+            return false;
+        }
+
+        byte[] proof = mac(password);
+        long now = System.nanoTime();
+        synchronized (sessions) {
+            Session session = sessions.get(username);
+            if (session != null && session.credential.equals(user.getCredential())
+                    && now - session.verifiedAt < SESSION_TTL_NANOS && MessageDigest.isEqual(session.proof, proof)) {
+                return true;
+            }
+        }
+
+        boolean valid = user.isHashed()
+                ? PasswordHasher.verify(password, user.getCredential())
+                : MessageDigest.isEqual(utf8(password), user.getCredential().getBytes(StandardCharsets.UTF_8));
+        if (valid) {
+            synchronized (sessions) {
+                sessions.put(username, new Session(user.getCredential(), proof, now));
+            }
+        }
+        return valid;
+    }
+
+    public int size() {
+        return users.size();
+    }
+
+    private byte[] mac(char[] password) {
+        byte[] bytes = utf8(password);
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(sessionKey);
+            return mac.doFinal(bytes);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        } finally {
+            Arrays.fill(bytes, (byte) 0);
+        }
+    }
+
+    private static byte[] utf8(char[] password) {
+        ByteBuffer buffer = StandardCharsets.UTF_8.encode(CharBuffer.wrap(password));
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        Arrays.fill(buffer.array(), (byte) 0);
+        return bytes;
+    }
+
+    private static class Session {
+        final String credential;   // the hash it was checked against; a new password invalidates it
+        final byte[] proof;
+        final long verifiedAt;
+
+        Session(String credential, byte[] proof, long verifiedAt) {
+            this.credential = credential;
+            this.proof = proof;
+            this.verifiedAt = verifiedAt;
+        }
+    }
+
+    // Hashed on first use, so startup doesn't pay for it
+    private static class Dummy {
+        static final String HASH = PasswordHasher.hash("not a password".toCharArray());
+    }
+}
@@ -0,0 +1,198 @@
+package com.university.eventmanagement;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Edits racing each other and racing removal: a removed event stays removed,
+ * a stale edit changes nothing, and two edits never book the same slot
+ */
+class DataManagerTest {
+    private static final int ROUNDS = 200;
+    private static final LocalDateTime NINE = LocalDateTime.of(2027, 6, 1, 9, 0);
+
+    private static DataManager data;
+    private static ExecutorService threads;
+
+    @TempDir
+    static Path dataDir;
+
+    @BeforeAll
+    static void setUp() {
+        // Read once, when DatabaseManager is first used; each test class has a JVM of its own
+        System.setProperty("eventmanagement.dataDir", dataDir.toString());
+        assertEquals(dataDir.toString(), DatabaseManager.DATA_DIR);
+        data = DataManager.getInstance();
+        threads = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        threads.shutdownNow();
+        data.flush().join();
+    }
+
+    @Test
+    void editsRacingRemovalNeverBringTheEventBack() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            Event event = add("Race " + round, "Removal hall " + round, NINE);
+            long version = event.getVersion();
+            String venue = event.getVenue();
+
+            List<Object> results = race(
+                    () -> { data.removeEvent(event); return null; },
+                    () -> data.updateEvent(event, version, "Moved", NINE, NINE.plusHours(1),
+                            venue, "Office", 10, false),
+                    () -> data.updateEvent(event, "Renamed", NINE, NINE.plusHours(2), venue, "Office"),
+                    () -> data.addParticipant(event, new Participant("Latecomer", Participant.Type.STUDENT)));
+
+            assertTrue(EnumSet.of(DataManager.UpdateResult.UPDATED, DataManager.UpdateResult.STALE,
+                    DataManager.UpdateResult.NOT_FOUND).contains(results.get(1)));
+            assertTrue(EnumSet.of(ParticipantRegistry.Result.REGISTERED,
+                    ParticipantRegistry.Result.NOT_FOUND).contains(results.get(3)));
+            assertNull(data.getEventById(event.getEventId()));
+            assertFalse(data.getAllEvents().contains(event));
+            assertEquals(List.of(), data.getBookings(venue, NINE.minusDays(1), NINE.plusDays(1)));
+            assertFalse(data.searchEvents("Race " + round).contains(event));
+            // Later edits still see it gone
+            assertEquals(DataManager.UpdateResult.NOT_FOUND, data.updateEvent(event, event.getVersion(),
+                    "Again", NINE, NINE.plusHours(1), venue, "Office", 10, true));
+            assertEquals(ParticipantRegistry.Result.NOT_FOUND,
+                    data.addParticipant(event, new Participant("Later", Participant.Type.STAFF)));
+        }
+        assertTotalsMatch();
+    }
+
+    @Test
+    void onlyOneOfSeveralEditsFromTheSameVersionWins() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            Event event = add("Versioned " + round, "Version hall " + round, NINE);
+            long version = event.getVersion();
+            List<Callable<Object>> edits = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                String name = "Edit " + round + "-" + i;
+                int capacity = 10 + i;
+                edits.add(() -> data.updateEvent(event, version, name, NINE, NINE.plusHours(1),
+                        event.getVenue(), "Office", capacity, false));
+            }
+
+            List<Object> results = race(edits.toArray(new Callable[0]));
+
+            int winner = results.indexOf(DataManager.UpdateResult.UPDATED);
+            assertTrue(winner >= 0);
+            assertEquals(1, results.stream().filter(r -> r == DataManager.UpdateResult.UPDATED).count());
+            assertEquals(3, results.stream().filter(r -> r == DataManager.UpdateResult.STALE).count());
+            // Everything the winner asked for, and nothing from the others
+            assertEquals("Edit " + round + "-" + winner, event.getEventName());
+            assertEquals(10 + winner, event.getRegistry().getCapacity());
+            assertTrue(event.getVersion() > version);
+        }
+        assertTotalsMatch();
+    }
+
+    @Test
+    void twoEditsCannotTakeTheSameSlot() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            String venue = "Slot hall " + round;
+            Event first = add("Early " + round, venue, NINE);
+            Event second = add("Late " + round, venue, NINE.plusHours(3));
+            LocalDateTime slot = NINE.plusHours(6);
+
+            List<Object> results = race(
+                    () -> data.updateEvent(first, first.getVersion(), first.getEventName(), slot,
+                            slot.plusHours(1), venue, "Office", 10, false),
+                    () -> data.updateEvent(second, second.getVersion(), second.getEventName(), slot.plusMinutes(30),
+                            slot.plusHours(2), venue, "Office", 10, false));
+
+            assertTrue(results.contains(DataManager.UpdateResult.UPDATED));
+            assertTrue(results.contains(DataManager.UpdateResult.CONFLICT));
+            Event moved = results.get(0) == DataManager.UpdateResult.UPDATED ? first : second;
+            assertEquals(List.of(moved), data.getBookings(venue, slot, slot.plusHours(2)));
+            assertEquals(2, data.getBookings(venue, NINE, slot.plusHours(2)).size());
+        }
+    }
+
+    @Test
+    void aBadEditChangesNothing() {
+        Event event = add("Unchanged", "Unchanged hall", NINE);
+        long version = event.getVersion();
+        int capacity = event.getRegistry().getCapacity();
+        List<EventChange> changes = new CopyOnWriteArrayList<>();
+        EventBus.Subscriber<EventChange> listener = changes::addAll;
+        data.getChanges().subscribe("test", listener);
+        try {
+            assertThrows(IllegalArgumentException.class, () -> data.updateEvent(event, version, "Changed",
+                    NINE.plusHours(2), NINE.plusHours(3), "Other hall", "Someone", -1, false));
+            assertThrows(IllegalArgumentException.class, () -> data.updateEvent(event, version, "Changed",
+                    NINE.plusHours(3), NINE.plusHours(2), "Other hall", "Someone", 5, false));
+            data.flush().join();
+        } finally {
+            data.getChanges().unsubscribe(listener);
+        }
+
+        assertEquals("Unchanged", event.getEventName());
+        assertEquals(NINE, event.getStart());
+        assertEquals("Unchanged hall", event.getVenue());
+        assertEquals("Office", event.getOrganizer());
+        assertEquals(capacity, event.getRegistry().getCapacity());
+        assertEquals(version, event.getVersion());
+        assertEquals(List.of(event), data.getBookings("Unchanged hall", NINE, NINE.plusHours(1)));
+        assertEquals(List.of(), data.getBookings("Other hall", NINE, NINE.plusDays(1)));
+        assertEquals(List.of(), changes);
+        assertTotalsMatch();
+    }
+
+    private static Event add(String name, String venue, LocalDateTime start) {
+        Event event = new Event(name, start, start.plusHours(1), venue, "Office");
+        data.addEvent(event);
+        return event;
+    }
+
+    /**
+     * Run the tasks at the same moment, one thread each, and return their results in order
+     */
+    @SafeVarargs
+    private static List<Object> race(Callable<Object>... tasks) throws Exception {
+        CyclicBarrier start = new CyclicBarrier(tasks.length);
+        List<Future<Object>> running = new ArrayList<>();
+        for (Callable<Object> task : tasks) {
+            running.add(threads.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        List<Object> results = new ArrayList<>();
+        for (Future<Object> future : running) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    private static void assertTotalsMatch() {
+        List<Event> events = data.getAllEvents();
+        EventStatistics statistics = data.getStatistics();
+        assertEquals(events.size(), statistics.getTotalEvents());
+        assertEquals(events.stream().mapToInt(Event::getParticipantCount).sum(), statistics.getTotalParticipants());
+        assertEquals(events.size(), statistics.getUpcoming() + statistics.getToday() + statistics.getCompleted());
+    }
+}
@@ -0,0 +1,165 @@
+package com.university.eventmanagement;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Delivery through the ring: wrapping around a small ring, batching behind
+ * a slow subscriber, several publishers, and unsubscribing
+ */
+class EventBusTest {
+
+    @Test
+    void deliversEverythingInOrderAcrossManyWrapArounds() throws Exception {
+        EventBus<Integer> bus = new EventBus<>(8);
+        List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(1000);
+        bus.subscribe("test", batch -> {
+            batchSizes.add(batch.size());
+            for (Integer item : batch) {
+                received.add(item);
+                done.countDown();
+            }
+        });
+
+        for (int i = 0; i < 1000; i++) {
+            bus.publish(i);
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, received.get(i));
+        }
+        for (int size : batchSizes) {
+            assertTrue(size >= 1 && size <= 8, "batch of " + size);
+        }
+    }
+
+    @Test
+    void aBusySubscriberGetsEverythingSinceInOneBatch() throws Exception {
+        EventBus<String> bus = new EventBus<>(16);
+        CountDownLatch firstTaken = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch secondTaken = new CountDownLatch(1);
+        List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+        bus.subscribe("test", batch -> {
+            batches.add(new ArrayList<>(batch));   // the list is reused after this returns
+            if (batches.size() == 1) {
+                firstTaken.countDown();
+                await(release);
+            } else {
+                secondTaken.countDown();
+            }
+        });
+
+        bus.publish("a");
+        assertTrue(firstTaken.await(10, TimeUnit.SECONDS));
+        for (String item : List.of("b", "c", "d", "e", "f")) {
+            bus.publish(item);
+        }
+        assertEquals(6, bus.backlog());   // "a" counts until its batch returns
+        release.countDown();
+
+        assertTrue(secondTaken.await(10, TimeUnit.SECONDS));
+        assertEquals(List.of(List.of("a"), List.of("b", "c", "d", "e", "f")), batches);
+    }
+
+    @Test
+    void everySubscriberSeesEachPublishersItemsInOrder() throws Exception {
+        EventBus<long[]> bus = new EventBus<>(32);
+        int publishers = 4;
+        int perPublisher = 5000;
+        List<List<long[]>> seen = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(2 * publishers * perPublisher);
+        for (int s = 0; s < 2; s++) {
+            List<long[]> items = Collections.synchronizedList(new ArrayList<>());
+            seen.add(items);
+            bus.subscribe("test-" + s, batch -> {
+                items.addAll(batch);
+                batch.forEach(item -> done.countDown());
+            });
+        }
+
+        List<CompletableFuture<Void>> running = new ArrayList<>();
+        for (int p = 0; p < publishers; p++) {
+            long publisher = p;
+            running.add(CompletableFuture.runAsync(() -> {
+                for (long i = 0; i < perPublisher; i++) {
+                    bus.publish(new long[] {publisher, i});
+                }
+            }));
+        }
+        CompletableFuture.allOf(running.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        for (List<long[]> items : seen) {
+            assertEquals(publishers * perPublisher, items.size());
+            long[] next = new long[publishers];
+            for (long[] item : items) {
+                assertEquals(next[(int) item[0]]++, item[1]);
+            }
+        }
+    }
+
+    @Test
+    void publishersStopWaitingForAnUnsubscribedSubscriber() throws Exception {
+        EventBus<Integer> bus = new EventBus<>(4);
+        CountDownLatch stuck = new CountDownLatch(1);
+        EventBus.Subscriber<Integer> slow = batch -> await(stuck);
+        bus.subscribe("slow", slow);
+        bus.publish(0);
+
+        bus.unsubscribe(slow);
+        // Far more than the ring holds; with the subscriber still on, this would wait for ever
+        CompletableFuture.runAsync(() -> {
+            for (int i = 1; i <= 100; i++) {
+                bus.publish(i);
+            }
+        }).get(10, TimeUnit.SECONDS);
+        assertEquals(0, bus.backlog());
+        stuck.countDown();
+    }
+
+    @Test
+    void aSubscriberCannotPublishToItsOwnBus() throws Exception {
+        EventBus<Integer> bus = new EventBus<>(4);
+        EventBus<Integer> other = new EventBus<>(4);
+        CompletableFuture<IllegalStateException> ownBus = new CompletableFuture<>();
+        CountDownLatch forwarded = new CountDownLatch(1);
+        other.subscribe("other", batch -> forwarded.countDown());
+        bus.subscribe("test", batch -> {
+            other.publish(batch.get(0));
+            ownBus.complete(assertThrows(IllegalStateException.class, () -> bus.publish(batch.get(0))));
+        });
+
+        bus.publish(1);
+
+        assertEquals("A subscriber can't publish to its own bus", ownBus.get(10, TimeUnit.SECONDS).getMessage());
+        assertTrue(forwarded.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void capacityMustBeAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new EventBus<Integer>(12));
+        assertThrows(IllegalArgumentException.class, () -> new EventBus<Integer>(0));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.university.eventmanagement;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Replaying the log after a crash: mid-batch, mid-compaction, and after a
+ * compaction that could not rotate the log
+ */
+class EventLogTest {
+    @TempDir
+    static Path dataDir;
+    private static Path logFile;
+    private static Path compactingFile;
+
+    private ExecutorService writer;
+
+    @BeforeAll
+    static void useDataDir() {
+        // Read once, when DatabaseManager is first used; each test class has a JVM of its own
+        System.setProperty("eventmanagement.dataDir", dataDir.toString());
+        assertEquals(dataDir.toString(), DatabaseManager.DATA_DIR);
+        logFile = dataDir.resolve("events.log");
+        compactingFile = dataDir.resolve("events.log.compacting");
+    }
+
+    @BeforeEach
+    void setUp() {
+        DatabaseManager.initialize();
+        writer = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        writer.shutdown();
+        assertTrue(writer.awaitTermination(10, TimeUnit.SECONDS));
+        // Each test starts from an empty directory
+        try (Stream<Path> paths = Files.walk(dataDir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                if (!path.equals(dataDir)) Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    void replaysCommittedRecordsAndSkipsATornBatch() throws Exception {
+        EventLog log = new EventLog(writer);
+        Event first = event(1, "Keynote");
+        log.logAdd(first).get();
+        log.logRegister(first, new Participant("Ada", Participant.Type.STUDENT)).get();
+        log.logAddAll(List.of(event(2, "Workshop"), event(3, "Panel"))).get();
+
+        // Crash while the batch was being written: COMMIT and half the last ADD never reached the disk
+        String text = Files.readString(logFile, StandardCharsets.UTF_8);
+        int commit = text.lastIndexOf("COMMIT");
+        Files.writeString(logFile, text.substring(0, commit - 10), StandardCharsets.UTF_8);
+
+        List<Event> events = new ArrayList<>();
+        assertEquals(2, EventLog.replay(events));
+        assertEquals(1, events.size());
+        assertEquals("Keynote", events.get(0).getEventName());
+        assertEquals(1, events.get(0).getParticipantCount());
+    }
+
+    @Test
+    void replaysTheLogBeingCompactedBeforeTheNewOne() throws Exception {
+        EventLog log = new EventLog(writer);
+        Event event = event(1, "Keynote");
+        log.logAdd(event).get();
+        log.logAdd(event(2, "Workshop")).get();
+
+        // Crash after rotating but before the snapshot was saved
+        Files.move(logFile, compactingFile);
+        EventLog next = new EventLog(writer);
+        event.setEventName("Opening keynote");
+        next.logUpdate(event).get();
+        next.logRemove(event(2, "Workshop")).get();
+
+        List<Event> events = new ArrayList<>();
+        assertEquals(4, EventLog.replay(events));
+        assertEquals(1, events.size());
+        assertEquals("Opening keynote", events.get(0).getEventName());
+    }
+
+    @Test
+    void compactionFoldsTheLogIntoTheSnapshot() throws Exception {
+        EventLog log = new EventLog(writer);
+        List<Event> events = List.of(event(1, "Keynote"), event(2, "Workshop"));
+        log.logAddAll(events).get();
+        log.compact(() -> events);
+        log.logRemove(events.get(0)).get();
+
+        assertFalse(Files.exists(compactingFile));
+        List<Event> loaded = new ArrayList<>(DatabaseManager.loadEvents());
+        assertEquals(1, EventLog.replay(loaded));
+        assertEquals(1, loaded.size());
+        assertEquals(2, loaded.get(0).getEventId());
+    }
+
+    @Test
+    void keepsLoggingWhenRotationFails() throws Exception {
+        EventLog log = new EventLog(writer);
+        log.logAdd(event(1, "Keynote")).get();
+        Files.createDirectory(compactingFile);   // the old log can't be appended to it
+
+        log.compact(List::of);
+        log.logAdd(event(2, "Workshop")).get();
+
+        Files.delete(compactingFile);
+        List<Event> events = new ArrayList<>();
+        assertEquals(2, EventLog.replay(events));
+        assertEquals(2, events.size());
+    }
+
+    private static Event event(int id, String name) {
+        return new Event(id, name, LocalDate.of(2027, 3, id), "Hall " + id, "Events Office");
+    }
+}
@@ -0,0 +1,71 @@
+package com.university.eventmanagement;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.swing.event.TableModelEvent;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Rows stay in ID order as changed events enter and leave the filter
+ */
+class EventTableModelTest {
+    private static DataManager data;
+
+    @TempDir
+    static Path dataDir;
+
+    @BeforeAll
+    static void setUp() {
+        // Read once, when DatabaseManager is first used; each test class has a JVM of its own
+        System.setProperty("eventmanagement.dataDir", dataDir.toString());
+        assertEquals(dataDir.toString(), DatabaseManager.DATA_DIR);
+        data = DataManager.getInstance();
+    }
+
+    @Test
+    void anEventEnteringTheFilterGoesWhereItsIdBelongs() {
+        Event first = add("Keep first");
+        Event middle = add("Hidden");
+        Event last = add("Keep last");
+        MainFrame.EventTableModel model = new MainFrame.EventTableModel();
+        model.setEventIds(new int[] {first.getEventId(), last.getEventId()});
+        List<String> fired = new ArrayList<>();
+        model.addTableModelListener(e -> fired.add(e.getType() + ":" + e.getFirstRow()));
+
+        data.updateEvent(middle, "Keep middle", middle.getStart(), middle.getEnd(),
+                middle.getVenue(), middle.getOrganizer());
+        model.apply(List.of(middle.getEventId()), e -> e.getEventName().startsWith("Keep"));
+
+        assertEquals(List.of(TableModelEvent.INSERT + ":1"), fired);
+        assertEquals(List.of(first, middle, last), rows(model));
+
+        data.removeEvent(first);
+        model.apply(List.of(first.getEventId(), last.getEventId()), e -> e.getEventName().startsWith("Keep"));
+
+        assertEquals(List.of(TableModelEvent.INSERT + ":1", TableModelEvent.DELETE + ":0",
+                TableModelEvent.UPDATE + ":1"), fired);
+        assertEquals(List.of(middle, last), rows(model));
+    }
+
+    private static Event add(String name) {
+        LocalDateTime start = LocalDateTime.of(2027, 6, 1, 9, 0);
+        Event event = new Event(name, start, start.plusHours(1), "Table hall " + name, "Office");
+        data.addEvent(event);
+        return event;
+    }
+
+    private static List<Event> rows(MainFrame.EventTableModel model) {
+        List<Event> rows = new ArrayList<>();
+        for (int row = 0; row < model.getRowCount(); row++) {
+            rows.add(model.getEventAt(row));
+        }
+        return rows;
+    }
+}
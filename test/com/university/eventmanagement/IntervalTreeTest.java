@@ -0,0 +1,101 @@
+package com.university.eventmanagement;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Overlap queries stay right while deletes and rebalancing move nodes
+ * and their subtrees' latest ends around
+ */
+class IntervalTreeTest {
+
+    @Test
+    void forgetsALongBookingOnceItIsRemoved() {
+        IntervalTree tree = new IntervalTree();
+        Event longest = event(0);
+        tree.add(0, 1000, longest);
+        // Starting in order makes the tree rotate the long booking away from the root
+        List<Event> shortOnes = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            Event event = event(i);
+            shortOnes.add(event);
+            tree.add(i * 10L, i * 10L + 5, event);
+        }
+
+        assertEquals(List.of(longest), overlapping(tree, 500, 600));
+        assertTrue(tree.remove(0, longest));
+        assertFalse(tree.remove(0, longest));
+
+        assertEquals(List.of(), overlapping(tree, 500, 600));
+        assertFalse(tree.overlaps(500, 600, null));
+        assertEquals(shortOnes.subList(1, 3), overlapping(tree, 16, 40));
+        assertEquals(20, tree.size());
+    }
+
+    @Test
+    void intervalsAreHalfOpen() {
+        IntervalTree tree = new IntervalTree();
+        Event event = event(1);
+        tree.add(100, 200, event);
+
+        assertFalse(tree.overlaps(200, 300, null));
+        assertFalse(tree.overlaps(0, 100, null));
+        assertTrue(tree.overlaps(199, 300, null));
+        assertFalse(tree.overlaps(150, 160, event));
+    }
+
+    @Test
+    void matchesAPlainScanThroughRandomAddsAndRemoves() {
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        List<long[]> bookings = new ArrayList<>();   // start, end, index into events
+        List<Event> events = new ArrayList<>();
+
+        for (int round = 0; round < 5000; round++) {
+            if (bookings.isEmpty() || random.nextInt(3) > 0) {
+                long start = random.nextInt(10_000);
+                long end = start + 1 + random.nextInt(random.nextInt(10) == 0 ? 5000 : 50);
+                Event event = event(events.size());
+                events.add(event);
+                tree.add(start, end, event);
+                bookings.add(new long[] {start, end, event.getEventId()});
+            } else {
+                long[] removed = bookings.remove(random.nextInt(bookings.size()));
+                assertTrue(tree.remove(removed[0], events.get((int) removed[2])));
+            }
+            assertEquals(bookings.size(), tree.size());
+
+            long from = random.nextInt(10_000);
+            long to = from + 1 + random.nextInt(200);
+            List<Event> expected = new ArrayList<>();
+            bookings.stream()
+                    .filter(b -> b[0] < to && b[1] > from)
+                    .sorted(Comparator.<long[]>comparingLong(b -> b[0]).thenComparingLong(b -> b[2]))
+                    .forEach(b -> expected.add(events.get((int) b[2])));
+            assertEquals(expected, overlapping(tree, from, to));
+            assertEquals(!expected.isEmpty(), tree.overlaps(from, to, null));
+            if (expected.size() == 1) {
+                assertFalse(tree.overlaps(from, to, expected.get(0)));
+            }
+        }
+    }
+
+    private static List<Event> overlapping(IntervalTree tree, long from, long to) {
+        List<Event> out = new ArrayList<>();
+        tree.overlapping(from, to, out);
+        return out;
+    }
+
+    private static Event event(int id) {
+        return new Event(id, "Event " + id, LocalDate.of(2027, 1, 1), "Hall", "Office");
+    }
+}
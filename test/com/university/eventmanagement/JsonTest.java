@@ -0,0 +1,37 @@
+package com.university.eventmanagement;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Nesting is capped, so a body of brackets is a bad request rather than a
+ * stack overflow
+ */
+class JsonTest {
+
+    @Test
+    void parsesNestingUpToTheLimit() {
+        String text = "[".repeat(Json.MAX_DEPTH) + "]".repeat(Json.MAX_DEPTH);
+        Object value = Json.parse(text);
+        for (int i = 1; i < Json.MAX_DEPTH; i++) {
+            value = ((List<?>) value).get(0);
+        }
+        assertEquals(List.of(), value);
+        assertEquals(Map.of("a", List.of(Map.of())), Json.parseObject("{\"a\": [{}]}"));
+    }
+
+    @Test
+    void refusesDeeperNesting() {
+        assertThrows(IllegalArgumentException.class,
+                () -> Json.parse("[".repeat(Json.MAX_DEPTH + 1) + "]".repeat(Json.MAX_DEPTH + 1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> Json.parse("{\"a\":".repeat(Json.MAX_DEPTH) + "[]" + "}".repeat(Json.MAX_DEPTH)));
+        // Far past the limit: refused at the limit, never reaching a stack overflow
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("[".repeat(64 * 1024)));
+    }
+}
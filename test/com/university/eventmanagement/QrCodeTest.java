@@ -0,0 +1,164 @@
+package com.university.eventmanagement;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Known answers: whole symbols, mask choice included, as ZXing 3.5.3
+ * encodes the same bytes ('#' is dark). Between them they cover one and
+ * several error correction blocks, alignment patterns and version information.
+ */
+class QrCodeTest {
+
+    @Test
+    void encodesVersion1AtLow() {
+        assertSymbol(HELLO_WORLD_LOW, 1, 3, "hello, world", QrCode.Ecc.LOW);
+    }
+
+    @Test
+    void encodesVersion4AtHigh() {
+        assertSymbol(URL_HIGH, 4, 6, "https://example.org/events/42?x=1", QrCode.Ecc.HIGH);
+    }
+
+    @Test
+    void encodesVersion8AtMedium() {
+        assertSymbol(TICKET_MEDIUM, 8, 2, "TICKET:1234:Grace Hopper:Annual Computing Symposium:Main Auditorium:"
+                + "2027-05-14T09:30:SEAT-B17:ID-000123456:Row 2, aisle seat", QrCode.Ecc.MEDIUM);
+    }
+
+    @Test
+    void refusesMoreThanVersion40Holds() {
+        assertThrows(IllegalArgumentException.class, () -> QrCode.encodeBytes(new byte[2954], QrCode.Ecc.LOW));
+        assertEquals(40, QrCode.encodeBytes(new byte[2953], QrCode.Ecc.LOW).getVersion());
+    }
+
+    private static void assertSymbol(String[] expected, int version, int mask, String payload, QrCode.Ecc ecc) {
+        QrCode code = QrCode.encodeBytes(payload.getBytes(StandardCharsets.UTF_8), ecc);
+        assertEquals(version, code.getVersion());
+        assertEquals(mask, code.getMask());
+        assertEquals(expected.length, code.getSize());
+        for (int y = 0; y < expected.length; y++) {
+            StringBuilder row = new StringBuilder();
+            for (int x = 0; x < code.getSize(); x++) {
+                row.append(code.isDark(x, y) ? '#' : '.');
+            }
+            assertEquals(expected[y], row.toString(), "row " + y);
+        }
+    }
+
+    private static final String[] HELLO_WORLD_LOW = {
+            "#######.##..#.#######",
+            "#.....#..#..#.#.....#",
+            "#.###.#.#.#.#.#.###.#",
+            "#.###.#.#..#..#.###.#",
+            "#.###.#.###...#.###.#",
+            "#.....#.......#.....#",
+            "#######.#.#.#.#######",
+            ".........##..........",
+            "####..#.#.#..#..###.#",
+            ".###....##..##..###.#",
+            ".#.#.###.##.##.#...##",
+            "#...##.##.#.#...##.#.",
+            "..#...#..#.#..##....#",
+            "........####.#..#.#..",
+            "#######...#...#.#....",
+            "#.....#.....##.#.##..",
+            "#.###.#...#..#.#####.",
+            "#.###.#.###.##...###.",
+            "#.###.#.#..##.##..#..",
+            "#.....#.####.####...#",
+            "#######.#.######..#.."
+    };
+
+    private static final String[] URL_HIGH = {
+            "#######..#.##...#.#.###.#.#######",
+            "#.....#..#.#.#..#...#.#.#.#.....#",
+            "#.###.#.###.#...##.###.##.#.###.#",
+            "#.###.#.###...###.##.###..#.###.#",
+            "#.###.#..#...#.##.###...#.#.###.#",
+            "#.....#....#.#.##...##.#..#.....#",
+            "#######.#.#.#.#.#.#.#.#.#.#######",
+            "...........##.#..#.##............",
+            "...##.##.####.#.##.....##....##..",
+            "###.#..#.#.##.#...###..#.#.##.##.",
+            "##.#.##.#.#.##...###.#.#.#.#.#.##",
+            "##.#...#.##.#.#.#......#.#.##.##.",
+            "##.#.###...#.#.##.#.#####.#..#..#",
+            "#...#..#....###.#....#.#.....#.#.",
+            "#######.###...#...#.....#..#.#...",
+            "###.#............##.#....##.#.###",
+            ".#..###...#..#..###.#....####...#",
+            "...#.#.#.###..##..##.##.######..#",
+            "#####.#######..##..#...#.....####",
+            "..##...###..####.##....##..####..",
+            ".##...#.####.###.#..#......#.#.#.",
+            "###.##..#.#...#.##.#..####.##..#.",
+            "#.##..##.....#......#####.#..####",
+            "#.#..#..###.#.##....#.###...#.###",
+            "##.#####.##...#.##......######...",
+            "........#.##..##..#..##.#...####.",
+            "#######.##..#.#.##.#...##.#.##...",
+            "#.....#..#####..##.######...#.##.",
+            "#.###.#.#....#..#.#.##########.#.",
+            "#.###.#.#.#....###.##.##.#.#..#.#",
+            "#.###.#..#.#.#.#.###.#..#...#####",
+            "#.....#...#.#..#.##.##...##...###",
+            "#######..###.#####..#.####..##..."
+    };
+
+    private static final String[] TICKET_MEDIUM = {
+            "#######...#.#.....##....#.....##.#.###..#.#######",
+            "#.....#....#####.#.###..##.#.##.....#####.#.....#",
+            "#.###.#.#......##.#.##.####.#.####.#...##.#.###.#",
+            "#.###.#.##.#..##..##.#..#.##..#...#.#..#..#.###.#",
+            "#.###.#.##.....####..######.####.....#....#.###.#",
+            "#.....#.##..###.#..#.##...##...####.###...#.....#",
+            "#######.#.#.#.#.#.#.#.#.#.#.#.#.#.#.#.#.#.#######",
+            "........######.#......#...#.###.##.....#.........",
+            "#.#####..##.#####.#.#.#####...##...#####..#####..",
+            "..#.##.#..##.####.#..#.###...###...###.#.##..#...",
+            "......#.....##.###...##.#####..#.###..##.#.....##",
+            "##...#.##.#.......###..###.##.####.......#####.##",
+            "##...##.#####...#....#####....##...####...#...#..",
+            ".#...#...#...####.###.#..#.##.#..#.###....##.##.#",
+            "#.######....##.##.#.###...#.##....#.#..###..#..##",
+            "#.###..##.###.#..####.##.#.#.#....#.#####..##...#",
+            "#..#.##.####.#####..##..#...#..#####..#.####..###",
+            "######.##..#####.....#.....###..#.#..##..######..",
+            "..###.##.#######....#.#.###.#.####.#....#......##",
+            ".#.....#.#..###.###......##.###.#...##..#..#...##",
+            ".####.#####..#.##.#####.#.##.##....##...#..#.#..#",
+            ".####....#.#.##.#....#..#######..#.##..#..##..##.",
+            "#.#######.............######.#.#.###.##########.#",
+            ".##.#...##.####.#....##...###..####.#.#.#...#..##",
+            "#.###.#.#...####.######.#.#..###...###.##.#.####.",
+            "..###...#.#..#####.#.##...######.....#.##...#....",
+            "###########.#..#.#....######.#...##..##.######.##",
+            "#.#..#...#####...#....##...##.###....#..##.#....#",
+            "###.###.#.#####....#..#.##....##..####.##.#.#..##",
+            "#..#.#.##...####..#..###.#....####...#.#.#...#.##",
+            ".#..#.##.....####..#..#..#.#.#.##.#.#..#####..###",
+            "#..#...#.###..####...###..#...##.#.##......#....#",
+            ".#....#.#.##...#######.#.###.##.....##.#...#####.",
+            ".#.#.#....##.#.......##.##....##.#.##..#.....#...",
+            "..######...#.#####...#.....#.##.....##.#..#...###",
+            "##.#.#.###..#..#.#....#####.#.#..#....#.##......#",
+            "##.####.#.#......####.##.#.#...#.#..#.##.#.#.#..#",
+            "##...#.##...##.#.##..##.##....##....##.#.###.....",
+            ".#...##.#####.#.####..#....#.#..##.##..####...#.#",
+            ".###...#..#...##...###...##.###...##.#...#...#.##",
+            "###...#...##.#.#.####.#####...##.##.##.##########",
+            "........#.####...###..#...#.###..#.###..#...#..#.",
+            "#######..#.#######.#..#.#.#.#....###..###.#.##.##",
+            "#.....#.#...###....####...##..#.####...##...##.##",
+            "#.###.#.#.#.###.###..######...##.#####.######.###",
+            "#.###.#.####...#..#####....##.#....#.#.##.#...##.",
+            "#.###.#.###..#...#..#..###.###..##.###...#.#.#.##",
+            "#.....#...###.#.#.###.###..#.#....#.###...###...#",
+            "#######.###..##..#..##..##..#..#####..#..#..#####"
+    };
+}